@@ -0,0 +1,225 @@
+package com.rafiatu;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Runs scenarios on one virtual thread each, so tens of thousands of them can wait on the API at once while only
+ * a handful of carrier threads (one per core by default) do the work:
+ * <pre>
+ * VirtualThreadRunner.Report report = new VirtualThreadRunner(20_000, Duration.ofMillis(5))
+ *         .run(IntStream.range(0, 20_000).mapToObj(i -&gt; new VirtualThreadRunner.Scenario("GET /users/{id}",
+ *                 () -&gt; reqres.get(ReqresApi.USER, 2).then().statusCode(200))));
+ * System.out.println(report.summary());
+ * report.assertPassed();
+ * </pre>
+ * A virtual thread that blocks inside a {@code synchronized} block or method stays mounted on its carrier
+ * ("pinned") until it unblocks, and enough of them at once stall every other scenario. While the runner runs it
+ * streams the JDK Flight Recorder {@code jdk.VirtualThreadPinned} events and reports them by the first frame
+ * outside the JDK, e.g. {@code org.apache.http.impl.client.AbstractHttpClient.doExecute}, so the library paths
+ * that defeat virtual threads show up in the report.
+ */
+public final class VirtualThreadRunner {
+
+    // Failed scenarios listed in the report; the rest are only counted
+    private static final int MAX_LISTED_FAILURES = 10;
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+
+    private final int maxConcurrency;
+    private final Duration pinningThreshold;
+
+    /**
+     * One unit of work, e.g. a request and the checks on its response.
+     *
+     * @param name Report key, e.g. "GET /users/{id}"
+     * @param body Runs the scenario; throws to fail it
+     */
+    public record Scenario(String name, Runnable body) {
+    }
+
+    /**
+     * Pinned virtual threads attributed to one frame.
+     *
+     * @param frame   First frame outside the JDK on the pinned thread's stack, or the top frame if there is none
+     * @param count   Number of pinning events
+     * @param total   Time spent pinned, summed over the events
+     * @param longest Longest single pinning
+     */
+    public record Pinning(String frame, long count, Duration total, Duration longest) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d pinned, %.1f ms total, %.1f ms longest",
+                    frame, count, total.toNanos() / 1e6, longest.toNanos() / 1e6);
+        }
+    }
+
+    /**
+     * @param maxConcurrency   Maximum number of scenarios running at once; starting more blocks the caller
+     * @param pinningThreshold Pinnings shorter than this are not recorded (JFR's own default is 20 ms)
+     */
+    public VirtualThreadRunner(int maxConcurrency, Duration pinningThreshold) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Virtual thread concurrency must be at least 1 but was " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.pinningThreshold = pinningThreshold;
+    }
+
+    /**
+     * Starts every scenario on its own virtual thread, as fast as the concurrency cap allows, and waits for all of
+     * them. Scenarios are consumed lazily, so a generated stream of any length is never held in memory.
+     *
+     * @return Pass/fail counts, peak concurrency and the pinning seen during the run
+     */
+    public Report run(Stream<Scenario> scenarios) {
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        LongAdder passed = new LongAdder();
+        LongAdder submitFailures = new LongAdder();
+        Map<String, long[]> pinning = new ConcurrentHashMap<>();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        AtomicLong failed = new AtomicLong();
+
+        long start = System.nanoTime();
+        try (RecordingStream events = new RecordingStream()) {
+            events.enable(PINNED_EVENT).withThreshold(pinningThreshold).withStackTrace();
+            events.enable(SUBMIT_FAILED_EVENT);
+            events.onEvent(PINNED_EVENT, event -> recordPinning(pinning, event));
+            events.onEvent(SUBMIT_FAILED_EVENT, event -> submitFailures.increment());
+            events.startAsync();
+
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("scenario-", 0).factory());
+                 scenarios) {
+                scenarios.forEachOrdered(scenario -> {
+                    permits.acquireUninterruptibly();
+                    executor.execute(() -> {
+                        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            scenario.body().run();
+                            passed.increment();
+                        } catch (Throwable e) {
+                            // Any throwable fails the scenario; an uncaught one would only end its thread
+                            if (failed.incrementAndGet() <= MAX_LISTED_FAILURES) {
+                                failures.add(scenario.name() + ": " + e);
+                            }
+                        } finally {
+                            running.decrementAndGet();
+                            permits.release();
+                        }
+                    });
+                });
+            } // close() waits for every scenario to finish
+            // Delivers the events recorded so far before the stream is closed
+            events.stop();
+        }
+        List<Pinning> pinned = pinning.entrySet().stream()
+                .map(entry -> new Pinning(entry.getKey(), entry.getValue()[0],
+                        Duration.ofNanos(entry.getValue()[1]), Duration.ofNanos(entry.getValue()[2])))
+                .sorted(Comparator.comparing(Pinning::total).reversed())
+                .toList();
+        return new Report(passed.sum(), failed.get(), List.copyOf(failures), peak.get(),
+                Duration.ofNanos(System.nanoTime() - start), pinned, submitFailures.sum());
+    }
+
+    private static void recordPinning(Map<String, long[]> pinning, RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        // Events arrive on the stream's single dispatch thread, so the totals need no further locking
+        long[] totals = pinning.computeIfAbsent(culprit(event), k -> new long[3]);
+        totals[0]++;
+        totals[1] += nanos;
+        totals[2] = Math.max(totals[2], nanos);
+    }
+
+    /**
+     * @return The first frame outside the JDK, which is usually the library code holding the monitor
+     */
+    private static String culprit(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "(no stack trace)";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+                .findFirst()
+                .orElseGet(() -> frames.get(0).getMethod().getType().getName() + "." + frames.get(0).getMethod().getName());
+    }
+
+    /**
+     * Results of one {@link #run(Stream)}.
+     *
+     * @param passed         Scenarios that completed without throwing
+     * @param failed         Scenarios that threw
+     * @param failures       The first failures, as "name: message"
+     * @param peak           Most scenarios running at the same time
+     * @param elapsed        Wall-clock time of the run
+     * @param pinning        Pinned virtual threads by frame, most time pinned first
+     * @param submitFailures Virtual threads the scheduler could not start or resume
+     */
+    public record Report(long passed, long failed, List<String> failures, int peak, Duration elapsed,
+                         List<Pinning> pinning, long submitFailures) {
+
+        /**
+         * @throws AssertionError If any scenario failed, listing the first failures
+         */
+        public void assertPassed() {
+            if (failed > 0) {
+                StringJoiner listed = new StringJoiner("\n  ", "\n  ", "");
+                failures.forEach(listed::add);
+                throw new AssertionError(failed + " of " + (passed + failed) + " scenarios failed:" + listed);
+            }
+        }
+
+        /**
+         * @throws AssertionError If any virtual thread was pinned for longer than the threshold
+         */
+        public void assertNotPinned() {
+            if (!pinning.isEmpty()) {
+                StringJoiner listed = new StringJoiner("\n  ", "\n  ", "");
+                pinning.forEach(pinned -> listed.add(pinned.toString()));
+                throw new AssertionError("Virtual threads were pinned to their carriers:" + listed);
+            }
+        }
+
+        /**
+         * @return Counts, throughput and the pinning table, for the console or a report
+         */
+        public String summary() {
+            StringBuilder summary = new StringBuilder(String.format(
+                    "%d scenarios (%d failed) in %d ms, %.0f/s, peak %d running on %d carriers, %d submit failures%n",
+                    passed + failed, failed, elapsed.toMillis(), (passed + failed) / Math.max(1e-9, elapsed.toNanos() / 1e9),
+                    peak, carrierParallelism(), submitFailures));
+            if (pinning.isEmpty()) {
+                summary.append("No pinned virtual threads").append(System.lineSeparator());
+            }
+            pinning.forEach(pinned -> summary.append("Pinned in ").append(pinned).append(System.lineSeparator()));
+            return summary.toString();
+        }
+
+        private static int carrierParallelism() {
+            return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.rafiatu.client;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One request as sent by an {@link ApiClient}.
+ *
+ * @param method  HTTP method
+ * @param path    Expanded path relative to the base URL, e.g. "/users/2"
+ * @param payload JSON request body, or null for none
+ */
+public record ApiCall(String method, String path, byte[] payload) {
+
+    /**
+     * @return The payload as text, or null if there is none
+     */
+    public String payloadText() {
+        return payload == null ? null : new String(payload, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path;
+    }
+}
@@ -0,0 +1,24 @@
+package com.rafiatu.client;
+
+import io.restassured.response.Response;
+
+/**
+ * Hook for reporting around each {@link ApiClient} call, e.g. attaching requests and responses to a test report.
+ */
+public interface ApiCallListener {
+
+    ApiCallListener NONE = new ApiCallListener() {
+    };
+
+    /**
+     * Called before the request is sent.
+     */
+    default void beforeRequest(ApiCall call) {
+    }
+
+    /**
+     * Called once the response has arrived, before any assertion runs on it.
+     */
+    default void afterResponse(ApiCall call, Response response) {
+    }
+}
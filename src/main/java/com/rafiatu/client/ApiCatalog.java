@@ -0,0 +1,71 @@
+package com.rafiatu.client;
+
+/**
+ * Every call the tests make to both APIs, as named {@link RequestTemplate}s built once on top of the API clients:
+ * {@code api.users().byId()}, {@code api.posts().list()} and so on. Headers, base URLs and connection settings come
+ * from the clients' request specifications, so no test sets them on its own.
+ */
+public final class ApiCatalog {
+
+    /**
+     * Calls of the reqres.in users resource.
+     *
+     * @param page   GET /users?page={page}
+     * @param byId   GET /users/{id}
+     * @param create POST /users
+     * @param update PUT /users/{id}
+     * @param delete DELETE /users/{id}
+     */
+    public record Users(RequestTemplate page, RequestTemplate byId, RequestTemplate create, RequestTemplate update,
+                        RequestTemplate delete) {
+    }
+
+    /**
+     * Calls of the JSONPlaceholder posts resource.
+     *
+     * @param list   GET /posts
+     * @param byId   GET /posts/{id}
+     * @param create POST /posts
+     * @param update PUT /posts/{id}
+     * @param delete DELETE /posts/{id}
+     */
+    public record Posts(RequestTemplate list, RequestTemplate byId, RequestTemplate create, RequestTemplate update,
+                        RequestTemplate delete) {
+    }
+
+    private final Users users;
+    private final Posts posts;
+
+    /**
+     * @param reqres          Client of the reqres.in API
+     * @param jsonPlaceholder Client of the JSONPlaceholder API
+     */
+    public ApiCatalog(ApiClient reqres, ApiClient jsonPlaceholder) {
+        this.users = new Users(
+                new RequestTemplate("users.page", "GET", ReqresApi.USERS_PAGE, reqres),
+                new RequestTemplate("users.byId", "GET", ReqresApi.USER, reqres),
+                new RequestTemplate("users.create", "POST", ReqresApi.USERS, reqres),
+                new RequestTemplate("users.update", "PUT", ReqresApi.USER, reqres),
+                new RequestTemplate("users.delete", "DELETE", ReqresApi.USER, reqres));
+        this.posts = new Posts(
+                new RequestTemplate("posts.list", "GET", JsonPlaceholderApi.POSTS, jsonPlaceholder),
+                new RequestTemplate("posts.byId", "GET", JsonPlaceholderApi.POST, jsonPlaceholder),
+                new RequestTemplate("posts.create", "POST", JsonPlaceholderApi.POSTS, jsonPlaceholder),
+                new RequestTemplate("posts.update", "PUT", JsonPlaceholderApi.POST, jsonPlaceholder),
+                new RequestTemplate("posts.delete", "DELETE", JsonPlaceholderApi.POST, jsonPlaceholder));
+    }
+
+    /**
+     * @return The reqres.in user calls
+     */
+    public Users users() {
+        return users;
+    }
+
+    /**
+     * @return The JSONPlaceholder post calls
+     */
+    public Posts posts() {
+        return posts;
+    }
+}
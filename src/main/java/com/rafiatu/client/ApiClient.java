@@ -0,0 +1,132 @@
+package com.rafiatu.client;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Typed client for one API. The request specification (base URL, content type, config) is built once and only
+ * read afterwards, endpoints are precompiled {@link Endpoint} templates and payloads are serialized with the
+ * shared {@link PayloadSerializer}, so a call does little more than expand the path and send:
+ * <pre>
+ * Response response = reqres.get(ReqresApi.USER, 2);
+ * Response created = reqres.post(ReqresApi.USERS, payload);
+ * </pre>
+ * Clients are immutable and thread-safe; {@link #withListener(ApiCallListener)} and
+ * {@link #withoutFiltersOfType(Class)} return a copy.
+ */
+public final class ApiClient {
+
+    private final RequestSpecification spec;
+    private final ApiCallListener listener;
+    // Filters, e.g. global ones registered with RestAssured.filters(...), left out of every call
+    private final List<Class<? extends Filter>> excludedFilters;
+
+    /**
+     * @param spec Request specification with at least the base URL; it must not be modified afterwards
+     */
+    public ApiClient(RequestSpecification spec) {
+        this(spec, ApiCallListener.NONE, List.of());
+    }
+
+    private ApiClient(RequestSpecification spec, ApiCallListener listener, List<Class<? extends Filter>> excludedFilters) {
+        this.spec = spec;
+        this.listener = listener;
+        this.excludedFilters = excludedFilters;
+    }
+
+    /**
+     * @param baseUrl Base URL of the API, e.g. "https://reqres.in/api"
+     * @param config  REST Assured config, e.g. with a pooled HTTP client
+     * @return A client sending JSON to the base URL
+     */
+    public static ApiClient forBaseUrl(String baseUrl, RestAssuredConfig config) {
+        return new ApiClient(new RequestSpecBuilder()
+                .setBaseUri(baseUrl)
+                .setContentType(ContentType.JSON)
+                .setConfig(config)
+                .build());
+    }
+
+    /**
+     * @return A copy of this client that reports every call to the listener
+     */
+    public ApiClient withListener(ApiCallListener listener) {
+        return new ApiClient(spec, listener, excludedFilters);
+    }
+
+    /**
+     * @param type Filter type to leave out, e.g. a globally registered logging filter
+     * @return A copy of this client whose calls skip every filter of the type
+     */
+    public ApiClient withoutFiltersOfType(Class<? extends Filter> type) {
+        List<Class<? extends Filter>> excluded = new ArrayList<>(excludedFilters);
+        excluded.add(type);
+        return new ApiClient(spec, listener, List.copyOf(excluded));
+    }
+
+    public Response get(Endpoint endpoint, Object... pathValues) {
+        return send("GET", endpoint.expand(pathValues), null);
+    }
+
+    public Response post(Endpoint endpoint, Object payload, Object... pathValues) {
+        return send("POST", endpoint.expand(pathValues), payload);
+    }
+
+    public Response put(Endpoint endpoint, Object payload, Object... pathValues) {
+        return send("PUT", endpoint.expand(pathValues), payload);
+    }
+
+    public Response patch(Endpoint endpoint, Object payload, Object... pathValues) {
+        return send("PATCH", endpoint.expand(pathValues), payload);
+    }
+
+    public Response delete(Endpoint endpoint, Object... pathValues) {
+        return send("DELETE", endpoint.expand(pathValues), null);
+    }
+
+    /**
+     * Sends a request to an already expanded path, e.g. one read from a scenario file.
+     *
+     * @param method  HTTP method
+     * @param path    Path relative to the base URL, may include a query string
+     * @param payload Request payload (see {@link PayloadSerializer#toJson(Object)}), or null for none
+     * @return The response; its body is not read yet
+     */
+    public Response send(String method, String path, Object payload) {
+        return send(spec, method, path, payload);
+    }
+
+    /**
+     * Sends a request with a specification derived from this client's, e.g. by a {@link RequestTemplate}.
+     */
+    Response send(RequestSpecification requestSpec, String method, String path, Object payload) {
+        ApiCall call = new ApiCall(method, path, PayloadSerializer.toJson(payload));
+        listener.beforeRequest(call);
+
+        RequestSpecification request = given().spec(requestSpec);
+        excludedFilters.forEach(request::noFiltersOfType);
+        if (call.payload() != null) {
+            request.body(call.payload());
+        }
+        Response response = request.request(method, path);
+
+        listener.afterResponse(call, response);
+        return response;
+    }
+
+    /**
+     * @return The shared request specification, for callers that need plain REST Assured
+     */
+    public RequestSpecification spec() {
+        return spec;
+    }
+}
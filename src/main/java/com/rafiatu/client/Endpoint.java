@@ -0,0 +1,93 @@
+package com.rafiatu.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A path template such as {@code /users/{id}} or {@code /users?page={page}}, split into its literal parts once
+ * when the constant is created. Expanding it is a single pass that appends the literals and the values in order,
+ * with no pattern matching per request.
+ */
+public final class Endpoint {
+
+    private final String template;
+    // Literal text around the placeholders; there is always one more literal than placeholders
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private Endpoint(String template, String[] literals, String[] placeholders) {
+        this.template = template;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * @param template Path relative to the API base URL, with {@code {name}} placeholders
+     * @return The compiled template
+     * @throws IllegalArgumentException if a placeholder is not closed or has no name
+     */
+    public static Endpoint of(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = template.indexOf('{', start)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0 || close == open + 1) {
+                throw new IllegalArgumentException("Invalid placeholder in endpoint template: " + template);
+            }
+            literals.add(template.substring(start, open));
+            placeholders.add(template.substring(open + 1, close));
+            start = close + 1;
+        }
+        literals.add(template.substring(start));
+        return new Endpoint(template, literals.toArray(String[]::new), placeholders.toArray(String[]::new));
+    }
+
+    /**
+     * Fills in the placeholders in order.
+     *
+     * @param values One value per placeholder, e.g. the user id
+     * @return The path to request, e.g. "/users/2"
+     * @throws IllegalArgumentException if the number of values does not match the placeholders
+     */
+    public String expand(Object... values) {
+        if (values.length != placeholders.length) {
+            throw new IllegalArgumentException("Endpoint " + template + " takes " + placeholders.length
+                    + " value(s) but got " + values.length);
+        }
+        if (values.length == 0) {
+            return template;
+        }
+        StringBuilder path = new StringBuilder(literalLength + 8 * values.length);
+        for (int i = 0; i < values.length; i++) {
+            path.append(literals[i]).append(values[i]);
+        }
+        return path.append(literals[values.length]).toString();
+    }
+
+    /**
+     * @return The template as written, e.g. "/users/{id}"
+     */
+    public String template() {
+        return template;
+    }
+
+    /**
+     * @return Number of placeholders
+     */
+    public int parameterCount() {
+        return placeholders.length;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
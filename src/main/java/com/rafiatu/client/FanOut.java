@@ -0,0 +1,137 @@
+package com.rafiatu.client;
+
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Sends a batch of API calls concurrently, one virtual thread per call, with at most {@code maxConcurrency}
+ * calls in flight. Each response is checked on its own thread as soon as it arrives, so a batch takes about as
+ * long as its slowest calls instead of the sum of all of them:
+ * <pre>
+ * try (FanOut fanOut = new FanOut(8)) {
+ *     List&lt;Response&gt; posts = fanOut.forEach(IntStream.rangeClosed(1, 100).boxed(),
+ *             id -&gt; jsonPlaceholder.get(JsonPlaceholderApi.POST, id),
+ *             (id, response) -&gt; response.then().statusCode(200));
+ * }
+ * </pre>
+ * Submitting blocks while the cap is reached, so a caller producing calls faster than the API answers them is
+ * slowed down to the API's pace (backpressure) instead of queueing unbounded work. Further limits on the way,
+ * such as a per-host cap in a request filter, still apply to every call.
+ */
+public final class FanOut implements AutoCloseable {
+
+    // Failed inputs listed in the aggregated failure message; the rest are only counted
+    private static final int MAX_LISTED_FAILURES = 10;
+
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param maxConcurrency Maximum number of calls in flight at once
+     */
+    public FanOut(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Fan-out concurrency must be at least 1 but was " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Starts one call. Blocks while {@link #maxConcurrency()} calls are in flight.
+     *
+     * @param call  The API call, e.g. {@code () -> reqres.get(ReqresApi.USER, 2)}
+     * @param check Check run on the response as soon as it arrives
+     * @return Completes with the response once the check passed, or exceptionally with the failure
+     */
+    public CompletableFuture<Response> submit(Supplier<Response> call, Consumer<Response> check) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a fan-out slot", e);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                Response response = call.get();
+                check.accept(response);
+                return response;
+            }, executor).whenComplete((response, failure) -> permits.release());
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends one call per input concurrently and waits for all of them. Inputs are consumed lazily, only as fast
+     * as slots free up.
+     *
+     * @param inputs Inputs of the calls, e.g. the ids to fetch
+     * @param call   Sends the call for one input
+     * @param check  Check run on each response as soon as it arrives
+     * @return The responses, in input order
+     * @throws AssertionError If any call or check failed; every failure is reported, the first one as the cause
+     * and the others as suppressed exceptions
+     */
+    public <T> List<Response> forEach(Stream<T> inputs, Function<T, Response> call, BiConsumer<T, Response> check) {
+        List<T> submitted = new ArrayList<>();
+        List<CompletableFuture<Response>> futures = new ArrayList<>();
+        try (inputs) {
+            inputs.forEachOrdered(input -> {
+                submitted.add(input);
+                futures.add(submit(() -> call.apply(input), response -> check.accept(input, response)));
+            });
+        }
+
+        List<Response> responses = new ArrayList<>(futures.size());
+        List<Throwable> failures = new ArrayList<>();
+        StringJoiner failed = new StringJoiner("\n");
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                responses.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                Throwable failure = e.getCause() == null ? e : e.getCause();
+                if (failures.size() < MAX_LISTED_FAILURES) {
+                    failed.add("  " + submitted.get(i) + ": " + failure.getMessage());
+                }
+                failures.add(failure);
+                responses.add(null);
+            }
+        }
+        if (!failures.isEmpty()) {
+            AssertionError error = new AssertionError(failures.size() + " of " + futures.size()
+                    + " fanned-out calls failed:\n" + failed, failures.get(0));
+            failures.stream().skip(1).forEach(error::addSuppressed);
+            throw error;
+        }
+        return responses;
+    }
+
+    /**
+     * Waits for calls still in flight and stops the virtual thread executor.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
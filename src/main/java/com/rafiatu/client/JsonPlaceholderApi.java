@@ -0,0 +1,15 @@
+package com.rafiatu.client;
+
+/**
+ * Endpoints of the JSONPlaceholder API, relative to its base URL (https://jsonplaceholder.typicode.com).
+ */
+public final class JsonPlaceholderApi {
+
+    // All posts, and the collection for creating posts
+    public static final Endpoint POSTS = Endpoint.of("/posts");
+    // A single post: /posts/{id}
+    public static final Endpoint POST = Endpoint.of("/posts/{id}");
+
+    private JsonPlaceholderApi() {
+    }
+}
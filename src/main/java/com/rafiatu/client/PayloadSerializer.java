@@ -0,0 +1,92 @@
+package com.rafiatu.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts request payloads (records, POJOs, maps, Jackson trees) to JSON and response bodies back to typed
+ * models, through one shared, pre-configured {@link ObjectMapper}.
+ * <p>
+ * Payloads are written by Jackson straight into bytes, which REST Assured sends as they are; there is no
+ * intermediate String and no serializer lookup by REST Assured. Responses are read from the body stream.
+ * Readers are cached per type. Null fields are left out of the JSON and unknown response fields are ignored.
+ */
+public final class PayloadSerializer {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private PayloadSerializer() {
+    }
+
+    /**
+     * @return The shared mapper; treat it as read-only
+     */
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * @param payload A JSON string, JSON bytes, a Jackson tree, a Map/List or any record or bean
+     * @return The JSON bytes, or null for a null payload
+     */
+    public static byte[] toJson(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        if (payload instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (payload instanceof String json) {
+            return json.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return WRITER.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialize request payload of type " + payload.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Reads a response body into a typed model.
+     *
+     * @param response The response; its body must be JSON
+     * @param type     Model type, e.g. a record
+     * @return The model
+     */
+    public static <T> T read(Response response, Class<T> type) {
+        try (InputStream body = response.asInputStream()) {
+            return READERS.computeIfAbsent(type, MAPPER::readerFor).readValue(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read response body as " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * @param payload A record, bean or Map
+     * @return The payload's fields as a Map, in JSON form (null fields left out)
+     */
+    public static Map<String, Object> toMap(Object payload) {
+        return MAPPER.convertValue(payload, MAP_TYPE);
+    }
+}
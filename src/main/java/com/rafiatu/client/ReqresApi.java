@@ -0,0 +1,17 @@
+package com.rafiatu.client;
+
+/**
+ * Endpoints of the reqres.in API, relative to its base URL (https://reqres.in/api).
+ */
+public final class ReqresApi {
+
+    // Paginated user list: /users?page={page}
+    public static final Endpoint USERS_PAGE = Endpoint.of("/users?page={page}");
+    // User collection, for creating users
+    public static final Endpoint USERS = Endpoint.of("/users");
+    // A single user: /users/{id}
+    public static final Endpoint USER = Endpoint.of("/users/{id}");
+
+    private ReqresApi() {
+    }
+}
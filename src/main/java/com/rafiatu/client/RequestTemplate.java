@@ -0,0 +1,87 @@
+package com.rafiatu.client;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.Set;
+
+/**
+ * A named call of an API, e.g. "users.byId" for {@code GET /users/{id}}: the client, HTTP method and
+ * {@link Endpoint} template are fixed when the {@link ApiCatalog} is built. A call only fills the path values into
+ * the precompiled template and sends it; REST Assured gets a finished path, with no placeholders left to find and
+ * resolve. Templates of calls without a body (GET, DELETE) get their own copy of the client's request specification
+ * without the JSON Content-Type, built once, so REST Assured does not process a content type for every one of them.
+ * <pre>
+ * Response user = api.users().byId().call(2);
+ * Response updated = api.posts().update().callWith(payload, 1);
+ * </pre>
+ * Templates are immutable and thread-safe.
+ */
+public final class RequestTemplate {
+
+    private static final Set<String> BODILESS_METHODS = Set.of("GET", "DELETE", "HEAD", "OPTIONS");
+
+    private final String name;
+    private final String method;
+    private final Endpoint endpoint;
+    private final ApiClient client;
+    private final RequestSpecification spec;
+
+    RequestTemplate(String name, String method, Endpoint endpoint, ApiClient client) {
+        this.name = name;
+        this.method = method;
+        this.endpoint = endpoint;
+        this.client = client;
+        this.spec = BODILESS_METHODS.contains(method)
+                ? new RequestSpecBuilder().addRequestSpecification(client.spec()).noContentType().build()
+                : client.spec();
+    }
+
+    /**
+     * Sends the request without a body.
+     *
+     * @param pathValues One value per placeholder, e.g. the user id
+     * @return The response; its body is not read yet
+     */
+    public Response call(Object... pathValues) {
+        return client.send(spec, method, endpoint.expand(pathValues), null);
+    }
+
+    /**
+     * Sends the request with a body.
+     *
+     * @param payload    Request payload (see {@link PayloadSerializer#toJson(Object)})
+     * @param pathValues One value per placeholder, e.g. the post id
+     * @return The response; its body is not read yet
+     */
+    public Response callWith(Object payload, Object... pathValues) {
+        return client.send(spec, method, endpoint.expand(pathValues), payload);
+    }
+
+    /**
+     * @return The catalog name, e.g. "users.byId"
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return The HTTP method, e.g. "GET"
+     */
+    public String method() {
+        return method;
+    }
+
+    /**
+     * @return The path template, e.g. /users/{id}
+     */
+    public Endpoint endpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + method + " " + endpoint;
+    }
+}
@@ -0,0 +1,19 @@
+package com.rafiatu.client.model;
+
+/**
+ * A JSONPlaceholder post, used both as request payload (without id) and as response.
+ *
+ * @param id     Post id, null in a request
+ * @param userId Id of the author
+ * @param title  Title
+ * @param body   Text
+ */
+public record Post(Integer id, Integer userId, String title, String body) {
+
+    /**
+     * @return A post to create or update; the id is given by the API
+     */
+    public static Post draft(Integer userId, String title, String body) {
+        return new Post(null, userId, title, body);
+    }
+}
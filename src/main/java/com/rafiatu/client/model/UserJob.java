@@ -0,0 +1,10 @@
+package com.rafiatu.client.model;
+
+/**
+ * Request payload of reqres.in POST /users and PUT /users/{id}. A null field is left out of the JSON.
+ *
+ * @param name User name
+ * @param job  Job title
+ */
+public record UserJob(String name, String job) {
+}
@@ -0,0 +1,13 @@
+package com.rafiatu.client.model;
+
+/**
+ * Response of reqres.in POST /users (with id and createdAt) and PUT /users/{id} (with updatedAt).
+ *
+ * @param id        Id of the created user, as the string reqres returns
+ * @param name      Echoed user name
+ * @param job       Echoed job title
+ * @param createdAt Creation time, ISO-8601
+ * @param updatedAt Update time, ISO-8601
+ */
+public record UserJobResponse(String id, String name, String job, String createdAt, String updatedAt) {
+}
@@ -1,45 +1,300 @@
 package basetest;
 
 // import io.qameta.allure.restassured.AllureRestAssured;
+import basetest.assertion.ResponseAssertions;
+import basetest.body.ResponseBody;
+import basetest.http.ConnectionPool;
+import basetest.http.HostConcurrencyLimitFilter;
+import basetest.http.ResilienceFilter;
+import basetest.impact.TestImpact;
+import basetest.logging.AsyncLoggingFilter;
+import basetest.metrics.LatencyRecordingFilter;
+import basetest.metrics.MetricsEndpoint;
+import basetest.metrics.PerformanceGate;
+import basetest.metrics.PerformanceGateExtension;
+import basetest.metrics.RunMetrics;
+import basetest.replay.ReplayFilter;
+import basetest.reporting.AllureApiCallListener;
+import basetest.reporting.AttachmentService;
+import basetest.reporting.FailureAttachmentExtension;
+import basetest.schema.SchemaRegistry;
+import basetest.stub.StandInServer;
+import com.rafiatu.client.ApiCatalog;
+import com.rafiatu.client.ApiClient;
+import com.rafiatu.client.FanOut;
+import com.rafiatu.client.PayloadSerializer;
+import io.qameta.allure.Allure;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.builder.ResponseSpecBuilder;
-import io.restassured.filter.log.RequestLoggingFilter;
-import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import io.restassured.specification.ResponseSpecification;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Attaches the response bodies of failed tests to the Allure report, and compares test timings with the
+// performance baseline (-Dapi.perf.mode=record|check|flag)
+@ExtendWith({FailureAttachmentExtension.class, PerformanceGateExtension.class})
 public class BaseTest {
 
     protected static final String REQRES_BASE_URL = "https://reqres.in/api";
     protected static final String JSONPLACEHOLDER_BASE_URL = "https://jsonplaceholder.typicode.com";
 
+    // -Dapi.target=local serves both APIs from in-process stand-ins instead of the real hosts (default: remote)
+    public static final String TARGET_PROPERTY = "api.target";
+    // Explicit base URL overrides, e.g. -Dapi.reqres.baseUrl=http://localhost:8080/api
+    public static final String REQRES_URL_PROPERTY = "api.reqres.baseUrl";
+    public static final String JSONPLACEHOLDER_URL_PROPERTY = "api.jsonplaceholder.baseUrl";
+
+    // Base URLs actually used by the request specifications
+    protected static String reqresBaseUrl;
+    protected static String jsonPlaceholderBaseUrl;
+
     protected static RequestSpecification reqresRequestSpec;
     protected static RequestSpecification jsonPlaceholderRequestSpec;
     protected static ResponseSpecification jsonResponseSpec;
 
+    // Typed clients for both APIs, built on the request specifications; every call is attached to the Allure report
+    protected static ApiClient reqres;
+    protected static ApiClient jsonPlaceholder;
+
+    // Named request templates on top of the clients, e.g. api.users().byId().call(2)
+    protected static ApiCatalog api;
+
+    // Pooled keep-alive connections shared by every request (tuned with the api.http.* system properties)
+    protected static final ConnectionPool connectionPool = ConnectionPool.shared();
+
+    // Allure attachments: status and headers always, bodies only on failure (or with -Dapi.attachments.verbose=true);
+    // files are written in the background, once per distinct content
+    protected static final AttachmentService attachments = AttachmentService.shared();
+
+    // Per-endpoint response time histograms, written to target/api-latency.json when the run ends
+    protected static final LatencyRecordingFilter latencyRecorder = new LatencyRecordingFilter();
+
+    // Live request and schema validation counters, also emitted as JFR events; served as JSON during the run
+    // with -Dapi.metrics.port=N
+    protected static final RunMetrics runMetrics = RunMetrics.shared();
+
+    // Retries, deadlines and per-host circuit breakers for both APIs (tuned with the api.resilience.* system
+    // properties); retry counts and time lost are written to target/api-resilience.json when the run ends
+    protected static final ResilienceFilter resilience = ResilienceFilter.fromSystemProperties();
+
+    // Calls in flight at once per fan-out test (-Dapi.fanOut.maxConcurrency=N); the per-host cap still applies
+    public static final String FAN_OUT_CONCURRENCY_PROPERTY = "api.fanOut.maxConcurrency";
+
+    // Guards the one-time global setup; test classes may run their @BeforeAll concurrently
+    private static final Object SETUP_LOCK = new Object();
+    private static volatile boolean initialized;
+
     @BeforeAll
     public static void setup() {
-        // Common setup for logging and reporting
-        RestAssured.filters(new RequestLoggingFilter(), new ResponseLoggingFilter());
+        // Every test class inherits this method, so only the first caller configures RestAssured
+        if (initialized) {
+            return;
+        }
+        synchronized (SETUP_LOCK) {
+            if (!initialized) {
+                configure();
+                initialized = true;
+            }
+        }
+    }
+
+    private static void configure() {
+        // Common setup for logging and reporting, plus a cap on in-flight requests per host and latency recording.
+        // Logging is asynchronous and by default only covers failed requests (-Dapi.log.mode=all|failures|sampled|off).
+        // Responses can be recorded and replayed from src/test/resources/replay (-Dapi.replay.mode=record|replay);
+        // replayed responses skip the host limit and are not timed.
+        // With -Dapi.impact.enabled=true the requests of each class are traced for test impact selection.
+        // The performance gate times the requests of each test after it was given a host permit.
+        // Every request is also counted live and emitted as a JFR event (see RunMetrics).
+        // RestAssured.filters(...) appends to a static list, so it must run exactly once.
+        AsyncLoggingFilter loggingFilter = AsyncLoggingFilter.fromSystemProperties();
+        ReplayFilter replayFilter = ReplayFilter.fromSystemProperties();
+        RestAssured.filters(loggingFilter, attachments.captureFilter(), TestImpact.shared().captureFilter(),
+                new HostConcurrencyLimitFilter(), latencyRecorder, runMetrics.captureFilter(), PerformanceGate.shared(),
+                replayFilter);
+        Runtime.getRuntime().addShutdownHook(new Thread(loggingFilter::close));
+        if (replayFilter.mode() != ReplayFilter.Mode.OFF) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                replayFilter.close();
+                System.out.println(replayFilter.summary());
+            }));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> latencyRecorder.writeReport(LatencyRecordingFilter.reportPath())));
+        MetricsEndpoint metricsEndpoint = MetricsEndpoint.fromSystemProperties(runMetrics);
+        if (metricsEndpoint != null) {
+            System.out.println("Live API metrics: " + metricsEndpoint.url());
+            Runtime.getRuntime().addShutdownHook(new Thread(metricsEndpoint::close));
+        }
+        if (PerformanceGate.shared().mode() != PerformanceGate.Mode.OFF) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                PerformanceGate.shared().close();
+                System.out.println(PerformanceGate.shared().summary());
+            }));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            attachments.flush();
+            System.out.println(attachments.summary());
+        }));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ResponseBody.deleteSpillFiles();
+            System.out.println(ResponseBody.summary());
+        }));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            resilience.writeReport(ResilienceFilter.reportPath());
+            System.out.println(resilience.summary());
+        }));
+
+        // Reuse pooled connections for every request, including any made without a request specification
+        RestAssured.config = connectionPool.restAssuredConfig();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(connectionPool.summary())));
+
+        // Resolve the target hosts: real APIs, local stand-ins, or explicit overrides
+        resolveBaseUrls();
 
         // Reqres API request specification
         reqresRequestSpec = new RequestSpecBuilder()
-                .setBaseUri(REQRES_BASE_URL)
+                .setBaseUri(reqresBaseUrl)
                 .setContentType(ContentType.JSON)
+                .setConfig(connectionPool.restAssuredConfig())
+                .addFilter(resilience)
                 .build();
 
         // JSONPlaceholder API request specification
         jsonPlaceholderRequestSpec = new RequestSpecBuilder()
-                .setBaseUri(JSONPLACEHOLDER_BASE_URL)
+                .setBaseUri(jsonPlaceholderBaseUrl)
                 .setContentType(ContentType.JSON)
+                .setConfig(connectionPool.restAssuredConfig())
+                .addFilter(resilience)
                 .build();
 
+        // API clients used by the test classes
+        AllureApiCallListener reporting = new AllureApiCallListener(attachments);
+        reqres = new ApiClient(reqresRequestSpec).withListener(reporting);
+        jsonPlaceholder = new ApiClient(jsonPlaceholderRequestSpec).withListener(reporting);
+        api = new ApiCatalog(reqres, jsonPlaceholder);
+
         // Common JSON response specification
         jsonResponseSpec = new ResponseSpecBuilder()
                 .expectContentType(ContentType.JSON)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs one API call as a reported test: logs the start in Allure, sends the request, checks the status code,
+     * runs any further checks and logs the completion.
+     *
+     * @param testName       A descriptive name for the test (for logging purposes)
+     * @param call           The API call, e.g. {@code () -> api.users().byId().call(2)}
+     * @param expectedStatus The expected HTTP status code
+     * @param checks         Further checks on the response
+     * @return The response
+     */
+    protected static Response executeApiTest(String testName, Supplier<Response> call, int expectedStatus,
+                                             Consumer<Response> checks) {
+        // Log the start of the test in Allure reporting
+        Allure.step("Start test: " + testName);
+
+        // Send the request (the client attaches it to the report) and validate the status code
+        Response response = call.get();
+        response.then().statusCode(expectedStatus);
+        checks.accept(response);
+
+        // Log the completion of the test in Allure
+        Allure.step("Finish test: " + testName);
+        return response;
+    }
+
+    /**
+     * Same as {@link #executeApiTest(String, Supplier, int, Consumer)} with only the status code checked.
+     */
+    protected static Response executeApiTest(String testName, Supplier<Response> call, int expectedStatus) {
+        return executeApiTest(testName, call, expectedStatus, response -> { });
+    }
+
+    /**
+     * Runs one API call per input concurrently as a reported test: logs the start in Allure, sends the calls with
+     * at most {@code api.fanOut.maxConcurrency} (default 8) in flight, checks the status code and any further
+     * checks on each response as it arrives, and logs the completion. All failures are reported together.
+     *
+     * @param testName       A descriptive name for the test (for logging purposes)
+     * @param inputs         Inputs of the calls, e.g. the ids to fetch
+     * @param call           The API call for one input, e.g. {@code id -> api.users().byId().call(id)}
+     * @param expectedStatus The expected HTTP status code of every response
+     * @param checks         Further checks on the response of one input
+     * @return The responses, in input order
+     */
+    protected static <T> List<Response> executeFanOutTest(String testName, Stream<T> inputs, Function<T, Response> call,
+                                                          int expectedStatus, BiConsumer<T, Response> checks) {
+        Allure.step("Start test: " + testName);
+
+        List<Response> responses;
+        try (FanOut fanOut = new FanOut(Integer.getInteger(FAN_OUT_CONCURRENCY_PROPERTY, 8))) {
+            responses = fanOut.forEach(inputs, call, (input, response) -> {
+                response.then().statusCode(expectedStatus);
+                checks.accept(input, response);
+            });
+        }
+
+        Allure.step("Finish test: " + testName);
+        return responses;
+    }
+
+    /**
+     * @param payload The request payload, e.g. a model record (null fields are not expected in the response)
+     * @return A check that the response body echoes every field of the payload (body parsed once, all
+     * mismatches reported together)
+     */
+    protected static Consumer<Response> echoesPayload(Object payload) {
+        Map<String, Object> fields = PayloadSerializer.toMap(payload);
+        return response -> ResponseAssertions.assertThat(response)
+                .hasFields(fields)
+                .assertAll();
+    }
+
+    /**
+     * @param schemaFileName Schema file name, e.g. "Rsingle-user-schema.json"
+     * @return A check that the response body matches the precompiled JSON schema, read from the body's shared
+     * copy (large list bodies are validated item by item); the schema location is attached to the Allure report
+     */
+    protected static Consumer<Response> matchesSchema(String schemaFileName) {
+        return response -> {
+            attachments.attach("JSON Schema", "text/plain", SchemaRegistry.SCHEMA_DIRECTORY + "/" + schemaFileName);
+            SchemaRegistry.getInstance().assertMatches(schemaFileName, response);
+        };
+    }
+
+    /**
+     * Picks the base URL for each API. With {@code -Dapi.target=local} both stand-in servers are started
+     * once for the whole run; explicit {@code api.*.baseUrl} properties take precedence over either target.
+     */
+    private static void resolveBaseUrls() {
+        reqresBaseUrl = REQRES_BASE_URL;
+        jsonPlaceholderBaseUrl = JSONPLACEHOLDER_BASE_URL;
+
+        if ("local".equalsIgnoreCase(System.getProperty(TARGET_PROPERTY, "remote"))) {
+            StandInServer reqres = StandInServer.reqres();
+            StandInServer jsonPlaceholder = StandInServer.jsonPlaceholder();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                reqres.close();
+                jsonPlaceholder.close();
+            }));
+            reqresBaseUrl = reqres.baseUrl();
+            jsonPlaceholderBaseUrl = jsonPlaceholder.baseUrl();
+        }
+
+        reqresBaseUrl = System.getProperty(REQRES_URL_PROPERTY, reqresBaseUrl);
+        jsonPlaceholderBaseUrl = System.getProperty(JSONPLACEHOLDER_URL_PROPERTY, jsonPlaceholderBaseUrl);
+    }
+}
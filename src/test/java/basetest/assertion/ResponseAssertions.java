@@ -0,0 +1,195 @@
+package basetest.assertion;
+
+import basetest.body.ResponseBody;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import io.restassured.response.Response;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks many field expectations against a JSON response body that is parsed only once.
+ * <p>
+ * {@code response.then().body(path, matcher)} evaluates a GPath expression over the whole body on every call;
+ * here the body is read into a Jackson tree up front and each expectation is a cheap pointer lookup. All
+ * expectations are evaluated and every mismatch is reported in a single AssertionError:
+ * <pre>
+ * ResponseAssertions.assertThat(response)
+ *         .hasFields(requestBody.toMap())
+ *         .hasField("data.id", 2)
+ *         .assertAll();
+ * </pre>
+ * Paths use dots for nested fields and {@code [n]} for array elements, e.g. {@code data[0].email}.
+ * Numbers are compared by value, so {@code 1}, {@code 1L} and {@code 1.0} all match a JSON {@code 1}.
+ */
+public final class ResponseAssertions {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Compiled paths are shared by all tests; the same handful of field names is used over and over
+    private static final Map<String, JsonPointer> POINTERS = new ConcurrentHashMap<>();
+
+    private final JsonNode root;
+    private final List<String> mismatches = new ArrayList<>();
+
+    private ResponseAssertions(JsonNode root) {
+        this.root = root;
+    }
+
+    /**
+     * Parses the response body once, from its shared copy (see {@link ResponseBody}).
+     *
+     * @param response The API response; the body must be JSON
+     */
+    public static ResponseAssertions assertThat(Response response) {
+        return assertThat(ResponseBody.of(response));
+    }
+
+    /**
+     * @param body A JSON response body
+     */
+    public static ResponseAssertions assertThat(ResponseBody body) {
+        if (body.size() == 0) {
+            return new ResponseAssertions(MissingNode.getInstance());
+        }
+        try (InputStream in = body.openStream()) {
+            return new ResponseAssertions(MAPPER.readTree(in));
+        } catch (JsonProcessingException e) {
+            throw new AssertionError("Response body is not valid JSON: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read response body", e);
+        }
+    }
+
+    /**
+     * @param json A JSON document
+     */
+    public static ResponseAssertions assertThat(byte[] json) {
+        try {
+            return new ResponseAssertions(json.length == 0 ? MissingNode.getInstance() : MAPPER.readTree(json));
+        } catch (IOException e) {
+            throw new AssertionError("Response body is not valid JSON: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Expects the field at the path to equal the value.
+     *
+     * @param path     Field path, e.g. "name" or "data.id"
+     * @param expected Expected value: a String, Number, Boolean, null, Map or List
+     */
+    public ResponseAssertions hasField(String path, Object expected) {
+        JsonNode actual = root.at(pointer(path));
+        if (actual.isMissingNode()) {
+            mismatches.add(path + ": expected " + describe(expected) + " but the field is missing");
+        } else if (!matches(actual, expected)) {
+            mismatches.add(path + ": expected " + describe(expected) + " but was " + actual);
+        }
+        return this;
+    }
+
+    /**
+     * Expects every entry of the map to be present with an equal value, e.g. the fields of the request payload.
+     *
+     * @param expected Field paths and their expected values
+     */
+    public ResponseAssertions hasFields(Map<String, ?> expected) {
+        expected.forEach(this::hasField);
+        return this;
+    }
+
+    /**
+     * Expects the field's value (as a plain Java String, Number, Boolean, Map or List) to satisfy a Hamcrest matcher.
+     *
+     * @param path    Field path
+     * @param matcher Matcher for the value
+     */
+    public ResponseAssertions hasField(String path, Matcher<?> matcher) {
+        JsonNode actual = root.at(pointer(path));
+        Object value = actual.isMissingNode() ? null : MAPPER.convertValue(actual, Object.class);
+        if (!matcher.matches(value)) {
+            StringDescription description = new StringDescription();
+            description.appendText(path).appendText(": expected ").appendDescriptionOf(matcher).appendText(" but ");
+            matcher.describeMismatch(value, description);
+            mismatches.add(description.toString());
+        }
+        return this;
+    }
+
+    /**
+     * @return The mismatches found so far
+     */
+    public List<String> mismatches() {
+        return List.copyOf(mismatches);
+    }
+
+    /**
+     * Fails with every mismatch found, if there are any.
+     */
+    public void assertAll() {
+        if (!mismatches.isEmpty()) {
+            throw new AssertionError(mismatches.size() + " response field mismatch(es):\n  " + String.join("\n  ", mismatches));
+        }
+    }
+
+    private static boolean matches(JsonNode actual, Object expected) {
+        if (expected == null) {
+            return actual.isNull();
+        }
+        if (expected instanceof Number number) {
+            return actual.isNumber() && new BigDecimal(number.toString()).compareTo(actual.decimalValue()) == 0;
+        }
+        if (expected instanceof String text) {
+            return actual.isTextual() && actual.textValue().equals(text);
+        }
+        if (expected instanceof Boolean bool) {
+            return actual.isBoolean() && actual.booleanValue() == bool;
+        }
+        if (expected instanceof JsonNode node) {
+            return node.equals(actual);
+        }
+        return Objects.equals(MAPPER.valueToTree(expected), actual);
+    }
+
+    private static String describe(Object expected) {
+        return expected instanceof String ? "\"" + expected + "\"" : String.valueOf(expected);
+    }
+
+    /**
+     * Converts "data[0].email" to the JSON pointer "/data/0/email", compiling each distinct path once.
+     */
+    static JsonPointer pointer(String path) {
+        return POINTERS.computeIfAbsent(path, p -> {
+            StringBuilder pointer = new StringBuilder();
+            for (String segment : p.split("\\.")) {
+                int bracket = segment.indexOf('[');
+                String name = bracket < 0 ? segment : segment.substring(0, bracket);
+                if (!name.isEmpty()) {
+                    pointer.append('/').append(name.replace("~", "~0").replace("/", "~1"));
+                }
+                while (bracket >= 0) {
+                    int close = segment.indexOf(']', bracket);
+                    if (close < 0) {
+                        throw new IllegalArgumentException("Unclosed '[' in response field path '" + p + "'");
+                    }
+                    pointer.append('/').append(segment, bracket + 1, close);
+                    bracket = segment.indexOf('[', close);
+                }
+            }
+            return JsonPointer.compile(pointer.toString());
+        });
+    }
+}
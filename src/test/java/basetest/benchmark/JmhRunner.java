@@ -0,0 +1,135 @@
+package basetest.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Runs the JMH benchmarks of one class from a JUnit test, so they run with {@code mvn test -Pbenchmark}
+ * and need no separate benchmark jar.
+ * <p>
+ * Iterations are short by default to keep the build fast; pass {@code -Djmh.iterations=N},
+ * {@code -Djmh.iterationSeconds=N} and {@code -Djmh.forks=N} for more stable numbers.
+ * <p>
+ * The full JMH results of each class are also written as JSON to {@code target/jmh/<class>.json}
+ * ({@code -Djmh.resultDir=path}), so runs of different releases can be compared.
+ */
+public final class JmhRunner {
+
+    public static final String RESULT_DIRECTORY_PROPERTY = "jmh.resultDir";
+    public static final String DEFAULT_RESULT_DIRECTORY = "target/jmh";
+
+    private JmhRunner() {
+    }
+
+    /**
+     * Runs every {@code @Benchmark} method of the given class.
+     *
+     * @param benchmarkClass Class declaring the benchmarks
+     * @return Primary score (in the benchmark's own mode and unit) per benchmark method and parameters
+     */
+    public static Map<String, Double> run(Class<?> benchmarkClass) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        execute(benchmarkClass, false).forEach(r -> scores.put(name(r.getParams()), r.getPrimaryResult().getScore()));
+        return scores;
+    }
+
+    /**
+     * Runs every {@code @Benchmark} method of the given class with the JMH GC profiler, which also measures
+     * how many bytes each operation allocates.
+     *
+     * @param benchmarkClass Class declaring the benchmarks
+     * @return Primary score and allocated bytes per operation, per benchmark method and parameters
+     */
+    public static Map<String, Score> runWithAllocation(Class<?> benchmarkClass) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        execute(benchmarkClass, true).forEach(r -> scores.put(name(r.getParams()),
+                new Score(r.getPrimaryResult().getScore(), allocatedBytesPerOp(r))));
+        return scores;
+    }
+
+    /**
+     * @param score               Primary score, in the benchmark's own mode and unit
+     * @param allocatedBytesPerOp Bytes allocated per operation (gc.alloc.rate.norm)
+     */
+    public record Score(double score, double allocatedBytesPerOp) {
+    }
+
+    private static List<RunResult> execute(Class<?> benchmarkClass, boolean gcProfiler) {
+        int iterations = Integer.getInteger("jmh.iterations", 3);
+        TimeValue iterationTime = TimeValue.seconds(Long.getLong("jmh.iterationSeconds", 1));
+        Path resultFile = resultFile(benchmarkClass);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(benchmarkClass.getName().replace("$", "\\$") + "\\.")
+                .warmupIterations(iterations)
+                .warmupTime(iterationTime)
+                .measurementIterations(iterations)
+                .measurementTime(iterationTime)
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .shouldFailOnError(true)
+                .result(resultFile.toString())
+                .resultFormat(ResultFormatType.JSON);
+        if (gcProfiler) {
+            options.addProfiler(GCProfiler.class);
+        }
+        try {
+            return new Runner(options.build()).run().stream()
+                    .sorted(Comparator.comparing(r -> name(r.getParams())))
+                    .toList();
+        } catch (RunnerException e) {
+            throw new IllegalStateException("JMH run of " + benchmarkClass.getSimpleName() + " failed", e);
+        }
+    }
+
+    private static double allocatedBytesPerOp(RunResult result) {
+        // The key is "gc.alloc.rate.norm", prefixed with a middle dot by older JMH versions
+        return result.getSecondaryResults().entrySet().stream()
+                .filter(e -> e.getKey().endsWith("gc.alloc.rate.norm"))
+                .mapToDouble(e -> e.getValue().getScore())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No allocation result for " + name(result.getParams())));
+    }
+
+    /**
+     * @return Where the JSON results of a benchmark class are written, e.g. target/jmh/SchemaBenchmark.json
+     */
+    public static Path resultFile(Class<?> benchmarkClass) {
+        Path directory = Path.of(System.getProperty(RESULT_DIRECTORY_PROPERTY, DEFAULT_RESULT_DIRECTORY));
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create JMH result directory " + directory, e);
+        }
+        return directory.resolve(benchmarkClass.getSimpleName() + ".json");
+    }
+
+    /**
+     * @return The benchmark method name plus its parameters, e.g. "serialize[size=1024]"
+     */
+    private static String name(BenchmarkParams params) {
+        String method = params.getBenchmark();
+        StringBuilder name = new StringBuilder(method.substring(method.lastIndexOf('.') + 1));
+        if (!params.getParamsKeys().isEmpty()) {
+            StringJoiner values = new StringJoiner(",", "[", "]");
+            params.getParamsKeys().forEach(key -> values.add(key + "=" + params.getParam(key)));
+            name.append(values);
+        }
+        return name.toString();
+    }
+}
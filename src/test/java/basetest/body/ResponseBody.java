@@ -0,0 +1,275 @@
+package basetest.body;
+
+import io.restassured.internal.RestAssuredResponseOptionsImpl;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The body of an API response, read from the wire once and shared by everything that checks or reports it:
+ * schema validation ({@code SchemaRegistry.assertMatches}), field and GPath assertions ({@code ResponseAssertions},
+ * {@link #jsonPath()}) and Allure attachments all read from this one copy.
+ * <p>
+ * Bodies up to {@code api.body.memoryLimit} bytes (default 1 MB) stay in memory, in the same array REST Assured uses
+ * for {@code response.then().body(...)}. Larger bodies, like list exports, are spilled to a temp file while they are
+ * read, so at most the limit is ever held on the heap per response; the file is deleted when the response is no
+ * longer referenced. A spilled body can still be checked through {@code response.then()}, but REST Assured then
+ * reads the file back into memory.
+ */
+public final class ResponseBody implements AutoCloseable {
+
+    public static final String MEMORY_LIMIT_PROPERTY = "api.body.memoryLimit";
+
+    private static final long DEFAULT_MEMORY_LIMIT = Long.getLong(MEMORY_LIMIT_PROPERTY, 1024 * 1024);
+    private static final int CHUNK_SIZE = 8192;
+
+    // One body per response, dropped together with the response
+    private static final Map<Response, ResponseBody> BODIES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Cleaner CLEANER = Cleaner.create();
+    // Spill files not deleted yet, for deleteSpillFiles() when the run ends
+    private static final Set<Path> SPILL_FILES = ConcurrentHashMap.newKeySet();
+
+    private static final LongAdder inMemoryCount = new LongAdder();
+    private static final LongAdder spilledCount = new LongAdder();
+    private static final LongAdder spilledBytes = new LongAdder();
+
+    private final byte[] bytes;
+    private final Path file;
+    private final long size;
+    private final Cleaner.Cleanable cleanable;
+
+    private ResponseBody(byte[] bytes) {
+        this.bytes = bytes;
+        this.file = null;
+        this.size = bytes.length;
+        this.cleanable = null;
+        inMemoryCount.increment();
+    }
+
+    private ResponseBody(Path file, long size) {
+        this.bytes = null;
+        this.file = file;
+        this.size = size;
+        // The action holds the path only, so it runs once this body is unreachable
+        this.cleanable = CLEANER.register(this, () -> deleteQuietly(file));
+        spilledCount.increment();
+        spilledBytes.add(size);
+    }
+
+    /**
+     * Returns the shared body of a response, reading it on the first call with the default memory limit.
+     *
+     * @param response The API response
+     */
+    public static ResponseBody of(Response response) {
+        return of(response, DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * Returns the shared body of a response, reading it on the first call. Later calls return the same body,
+     * whatever their limit.
+     *
+     * @param response    The API response
+     * @param memoryLimit Largest body kept in memory, in bytes; anything larger is spilled to a temp file
+     */
+    public static ResponseBody of(Response response, long memoryLimit) {
+        ResponseBody body = BODIES.get(response);
+        if (body != null) {
+            return body;
+        }
+        // Per response, so threads reading different responses never wait on each other
+        synchronized (response) {
+            body = BODIES.get(response);
+            if (body == null) {
+                body = read(response, memoryLimit);
+                BODIES.put(response, body);
+            }
+            return body;
+        }
+    }
+
+    private static ResponseBody read(Response response, long memoryLimit) {
+        if (!(response instanceof RestAssuredResponseOptionsImpl<?> restAssured)
+                || !(restAssured.getContent() instanceof InputStream)) {
+            // Already buffered by REST Assured (logged, replayed, or read by the test): share that array
+            return new ResponseBody(response.asByteArray());
+        }
+        ResponseBody body;
+        try (InputStream in = response.asInputStream()) {
+            body = read(in, memoryLimit);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read response body", e);
+        }
+        // The wire stream is used up; point REST Assured at this copy, so response.then() still sees the body
+        restAssured.setContent(body.bytes != null ? body.bytes : new SpillFileInputStream(body.file));
+        return body;
+    }
+
+    /**
+     * Reads a stream to its end, into memory up to the limit and into a temp file beyond it.
+     */
+    static ResponseBody read(InputStream in, long memoryLimit) throws IOException {
+        int limit = (int) Math.max(0, Math.min(memoryLimit, Integer.MAX_VALUE - 8));
+        byte[] buffer = new byte[Math.min(limit, CHUNK_SIZE)];
+        int length = 0;
+        while (true) {
+            if (length == buffer.length) {
+                if (length == limit) {
+                    return spill(buffer, length, in);
+                }
+                buffer = Arrays.copyOf(buffer, (int) Math.min((long) length * 2, limit));
+            }
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                return new ResponseBody(length == buffer.length ? buffer : Arrays.copyOf(buffer, length));
+            }
+            length += read;
+        }
+    }
+
+    private static ResponseBody spill(byte[] head, int length, InputStream rest) throws IOException {
+        Path file = Files.createTempFile("api-body-", ".bin");
+        SPILL_FILES.add(file);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(head, 0, length);
+            long size = length + rest.transferTo(out);
+            return new ResponseBody(file, size);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    /**
+     * @return Body size in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return Whether the body is held in memory rather than in a temp file
+     */
+    public boolean inMemory() {
+        return bytes != null;
+    }
+
+    /**
+     * Opens a new stream over the body; any number of readers can open one, one after another or at once.
+     *
+     * @return A stream that the caller closes
+     */
+    public InputStream openStream() {
+        if (bytes != null) {
+            return new ByteArrayInputStream(bytes);
+        }
+        try {
+            return Files.newInputStream(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read spilled response body " + file, e);
+        }
+    }
+
+    /**
+     * Parses the body for GPath expressions, e.g. {@code body.jsonPath().getInt("data[0].id")}. The whole document
+     * is parsed into objects, so for very large bodies prefer the streaming schema validation.
+     *
+     * @return A JsonPath over this body
+     */
+    public JsonPath jsonPath() {
+        try (InputStream in = openStream()) {
+            return JsonPath.from(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read response body", e);
+        }
+    }
+
+    /**
+     * Deletes the temp file of a spilled body right away, instead of when the response is garbage collected.
+     */
+    @Override
+    public void close() {
+        if (cleanable != null) {
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Deletes the temp files of all spilled bodies still around; called when the run ends, since bodies that are
+     * never garbage collected would otherwise leave their files behind.
+     */
+    public static void deleteSpillFiles() {
+        for (Path file : SPILL_FILES) {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * @return One line with the body counters, e.g. for the end of the run
+     */
+    public static String summary() {
+        return String.format("Response bodies: %d kept in memory, %d spilled to disk (%,d KB)",
+                inMemoryCount.sum(), spilledCount.sum(), spilledBytes.sum() / 1024);
+    }
+
+    private static void deleteQuietly(Path file) {
+        SPILL_FILES.remove(file);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // A temp file left behind is not worth failing a test for
+        }
+    }
+
+    /**
+     * Stream over a spilled body that opens the file only when REST Assured first reads it, so a body that is
+     * never read back through {@code response.then()} holds no file handle.
+     */
+    private static final class SpillFileInputStream extends InputStream {
+        private final Path file;
+        private InputStream in;
+
+        private SpillFileInputStream(Path file) {
+            this.file = file;
+        }
+
+        private InputStream in() throws IOException {
+            if (in == null) {
+                in = Files.newInputStream(file);
+            }
+            return in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return in().read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return in().read(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+    }
+}
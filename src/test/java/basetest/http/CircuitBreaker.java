@@ -0,0 +1,102 @@
+package basetest.http;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for one host. After {@code failureThreshold} failed requests in a row the circuit opens and
+ * requests are rejected without being sent. Once {@code openMillis} have passed, a single probe request is let
+ * through: if it succeeds the circuit closes again, otherwise it stays open for another period.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long trips;
+
+    /**
+     * @param failureThreshold Failures in a row that open the circuit; 0 never opens it
+     * @param openMillis       How long the circuit stays open before a probe is let through
+     */
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * @return Whether a request may be sent now; when true, its outcome must be passed to {@link #record(boolean)},
+     * or {@link #release()} called if the outcome says nothing about the host
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    synchronized void record(boolean success) {
+        probeInFlight = false;
+        if (success) {
+            consecutiveFailures = 0;
+            state = State.CLOSED;
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (failureThreshold > 0 && consecutiveFailures >= failureThreshold)) {
+            if (state != State.OPEN) {
+                trips++;
+            }
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Ends a request without counting it either way, e.g. one that failed before reaching the host; a probe is
+     * let through again on the next request.
+     */
+    synchronized void release() {
+        probeInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    synchronized int consecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return How often the circuit has opened
+     */
+    synchronized long trips() {
+        return trips;
+    }
+
+    /**
+     * @return Milliseconds until a probe will be let through, 0 unless the circuit is open
+     */
+    synchronized long millisUntilProbe() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(openNanos - (System.nanoTime() - openedAt)));
+    }
+}
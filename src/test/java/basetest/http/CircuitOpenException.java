@@ -0,0 +1,21 @@
+package basetest.http;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker of its host is open.
+ */
+public class CircuitOpenException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String host;
+
+    public CircuitOpenException(String host, int consecutiveFailures, long millisUntilProbe) {
+        super("Circuit breaker open for " + host + " after " + consecutiveFailures
+                + " failed requests in a row; next probe in " + millisUntilProbe + " ms");
+        this.host = host;
+    }
+
+    public String host() {
+        return host;
+    }
+}
@@ -0,0 +1,207 @@
+package basetest.http;
+
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.client.protocol.RequestAcceptEncoding;
+import org.apache.http.client.protocol.ResponseContentEncoding;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.params.SyncBasicHttpParams;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pooled, keep-alive HTTP client shared by every REST Assured request specification.
+ * <p>
+ * By default REST Assured builds a new HttpClient (and so a new TCP connection and TLS handshake) per request.
+ * This pool keeps connections open between requests and evicts idle ones in the background.
+ * All settings can be tuned with system properties:
+ * <ul>
+ *     <li>{@code api.http.pool.maxTotal} - maximum open connections overall (default 32)</li>
+ *     <li>{@code api.http.pool.maxPerRoute} - maximum open connections per host (default 8)</li>
+ *     <li>{@code api.http.pool.idleEvictSeconds} - close connections idle for longer than this (default 30)</li>
+ *     <li>{@code api.http.connectTimeoutMs} - TCP connect timeout (default 10000)</li>
+ *     <li>{@code api.http.socketTimeoutMs} - read timeout (default 30000)</li>
+ *     <li>{@code api.http.pool.leaseTimeoutMs} - maximum wait for a free pooled connection (default 10000)</li>
+ * </ul>
+ */
+@SuppressWarnings("deprecation") // REST Assured only supports the HttpClient 4.x AbstractHttpClient API
+public final class ConnectionPool implements AutoCloseable {
+
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final long idleEvictSeconds;
+    private final int connectTimeoutMs;
+    private final int socketTimeoutMs;
+    private final long leaseTimeoutMs;
+
+    // Connection statistics: every request vs. every new socket (and the subset that needed a TLS handshake)
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong tlsHandshakes = new AtomicLong();
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final DefaultHttpClient httpClient;
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Lazy holder for the suite-wide pool configured from system properties.
+     */
+    private static final class Holder {
+        private static final ConnectionPool SHARED = fromSystemProperties();
+    }
+
+    /**
+     * @return The pool shared by the whole test suite
+     */
+    public static ConnectionPool shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Creates a new pool configured from the {@code api.http.*} system properties.
+     *
+     * @return A new, independent pool
+     */
+    public static ConnectionPool fromSystemProperties() {
+        return new ConnectionPool(
+                Integer.getInteger("api.http.pool.maxTotal", 32),
+                Integer.getInteger("api.http.pool.maxPerRoute", 8),
+                Long.getLong("api.http.pool.idleEvictSeconds", 30),
+                Integer.getInteger("api.http.connectTimeoutMs", 10_000),
+                Integer.getInteger("api.http.socketTimeoutMs", 30_000),
+                Long.getLong("api.http.pool.leaseTimeoutMs", 10_000));
+    }
+
+    public ConnectionPool(int maxTotal, int maxPerRoute, long idleEvictSeconds,
+                          int connectTimeoutMs, int socketTimeoutMs, long leaseTimeoutMs) {
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.idleEvictSeconds = idleEvictSeconds;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.socketTimeoutMs = socketTimeoutMs;
+        this.leaseTimeoutMs = leaseTimeoutMs;
+
+        // Waiting for a free connection parks the caller rather than pinning it (see ParkingConnectionManager)
+        this.connectionManager = new ParkingConnectionManager(countingSchemeRegistry(), maxTotal, maxPerRoute);
+
+        // Synchronized params: REST Assured writes its per-request params into the shared client
+        this.httpClient = new DefaultHttpClient(connectionManager, new SyncBasicHttpParams());
+        // Keep connections alive as long as the server allows, but never past the idle eviction window
+        httpClient.setKeepAliveStrategy((response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            long maxIdleMs = TimeUnit.SECONDS.toMillis(idleEvictSeconds);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, maxIdleMs) : maxIdleMs;
+        });
+        // gzip/deflate handled once by the client itself; REST Assured's own decoders re-register
+        // interceptors on every request, which is not safe on a client shared between threads
+        httpClient.addRequestInterceptor(new RequestAcceptEncoding());
+        httpClient.addResponseInterceptor(new ResponseContentEncoding());
+        httpClient.addRequestInterceptor((request, context) -> requests.incrementAndGet());
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-idle-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleEvictSeconds / 2);
+        evictor.scheduleAtFixedRate(this::evictIdleConnections, period, period, TimeUnit.SECONDS);
+    }
+
+    private SchemeRegistry countingSchemeRegistry() {
+        SchemeRegistry defaults = SchemeRegistryFactory.createDefault();
+        SchemeRegistry counting = new SchemeRegistry();
+        Scheme http = defaults.getScheme("http");
+        Scheme https = defaults.getScheme("https");
+        counting.register(new Scheme("http", http.getDefaultPort(),
+                CountingSocketFactory.wrap(http.getSchemeSocketFactory(), connections::incrementAndGet)));
+        counting.register(new Scheme("https", https.getDefaultPort(),
+                CountingSocketFactory.wrap(https.getSchemeSocketFactory(), () -> {
+                    // Every secure connection is also a TLS handshake
+                    connections.incrementAndGet();
+                    tlsHandshakes.incrementAndGet();
+                })));
+        return counting;
+    }
+
+    /**
+     * Closes expired connections and those idle for longer than {@code api.http.pool.idleEvictSeconds}.
+     */
+    public void evictIdleConnections() {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleEvictSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return A REST Assured HTTP client config that reuses this pool for every request
+     */
+    public HttpClientConfig httpClientConfig() {
+        return HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> httpClient)
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, connectTimeoutMs)
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, socketTimeoutMs)
+                .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, leaseTimeoutMs);
+    }
+
+    /**
+     * @return A full REST Assured config using this pool, with content decoding left to the pooled client
+     */
+    public RestAssuredConfig restAssuredConfig() {
+        return RestAssuredConfig.config()
+                .httpClient(httpClientConfig())
+                .decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long connectionsOpened() {
+        return connections.get();
+    }
+
+    public long tlsHandshakes() {
+        return tlsHandshakes.get();
+    }
+
+    /**
+     * @return Connections currently leased out of the pool; zero once every response body has been read or closed
+     */
+    public int leasedConnections() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    /**
+     * @return Connection setups that were avoided by reusing a pooled connection
+     */
+    public long connectionsAvoided() {
+        return Math.max(0, requests() - connectionsOpened());
+    }
+
+    /**
+     * @return A one-line summary of requests, connections and handshakes, for the console or a report
+     */
+    public String summary() {
+        return String.format("HTTP connection pool: %d requests, %d connections opened (%d TLS handshakes), "
+                        + "%d connection setups avoided [maxTotal=%d, maxPerRoute=%d, idleEvict=%ds]",
+                requests(), connectionsOpened(), tlsHandshakes(), connectionsAvoided(),
+                maxTotal, maxPerRoute, idleEvictSeconds);
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+}
@@ -0,0 +1,80 @@
+package basetest.http;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.params.HttpParams;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+
+/**
+ * Socket factory decorator that counts every new connection (and, for secure schemes, every TLS handshake),
+ * so the number of connection setups saved by pooling can be reported.
+ */
+@SuppressWarnings("deprecation") // REST Assured only supports the HttpClient 4.x AbstractHttpClient API
+class CountingSocketFactory implements SchemeSocketFactory {
+
+    private final SchemeSocketFactory delegate;
+    private final Runnable onConnect;
+
+    private CountingSocketFactory(SchemeSocketFactory delegate, Runnable onConnect) {
+        this.delegate = delegate;
+        this.onConnect = onConnect;
+    }
+
+    /**
+     * Wraps a socket factory, keeping the layered capability of secure factories.
+     *
+     * @param delegate The scheme's original socket factory
+     * @param onConnect Callback invoked once for every new connection
+     * @return The counting decorator
+     */
+    static SchemeSocketFactory wrap(SchemeSocketFactory delegate, Runnable onConnect) {
+        if (delegate instanceof SchemeLayeredSocketFactory layered) {
+            return new Layered(layered, onConnect);
+        }
+        return new CountingSocketFactory(delegate, onConnect);
+    }
+
+    @Override
+    public Socket createSocket(HttpParams params) throws IOException {
+        return delegate.createSocket(params);
+    }
+
+    @Override
+    public Socket connectSocket(Socket sock, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                HttpParams params) throws IOException, UnknownHostException, ConnectTimeoutException {
+        Socket connected = delegate.connectSocket(sock, remoteAddress, localAddress, params);
+        onConnect.run();
+        return connected;
+    }
+
+    @Override
+    public boolean isSecure(Socket sock) throws IllegalArgumentException {
+        return delegate.isSecure(sock);
+    }
+
+    /**
+     * Variant for TLS factories; a layered socket (e.g. through a proxy tunnel) is also a new handshake.
+     */
+    private static final class Layered extends CountingSocketFactory implements SchemeLayeredSocketFactory {
+
+        private final SchemeLayeredSocketFactory layeredDelegate;
+
+        private Layered(SchemeLayeredSocketFactory delegate, Runnable onConnect) {
+            super(delegate, onConnect);
+            this.layeredDelegate = delegate;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params)
+                throws IOException, UnknownHostException {
+            Socket layered = layeredDelegate.createLayeredSocket(socket, target, port, params);
+            super.onConnect.run();
+            return layered;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package basetest.http;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of in-flight requests per target host (e.g. reqres.in vs jsonplaceholder.typicode.com),
+ * so parallel test execution does not overload either API. Hosts are told apart by host and port, so local
+ * stand-ins on different ports of 127.0.0.1 each get their own cap.
+ * <p>
+ * The default limit comes from {@code -Dapi.maxInFlightPerHost=N}; a single host can be overridden with
+ * {@code -Dapi.maxInFlightPerHost.<host>=N}, for example {@code -Dapi.maxInFlightPerHost.reqres.in=2}, or one
+ * port of it with {@code -Dapi.maxInFlightPerHost.<host>:<port>=N}.
+ */
+public class HostConcurrencyLimitFilter implements OrderedFilter {
+
+    public static final String MAX_IN_FLIGHT_PROPERTY = "api.maxInFlightPerHost";
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    // One fair semaphore per host, created on first use
+    private final Map<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+    private final int defaultLimit;
+
+    public HostConcurrencyLimitFilter() {
+        this(Integer.getInteger(MAX_IN_FLIGHT_PROPERTY, DEFAULT_MAX_IN_FLIGHT));
+    }
+
+    public HostConcurrencyLimitFilter(int defaultLimit) {
+        if (defaultLimit < 1) {
+            throw new IllegalArgumentException(MAX_IN_FLIGHT_PROPERTY + " must be at least 1 but was " + defaultLimit);
+        }
+        this.defaultLimit = defaultLimit;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Semaphore permits = permitsFor(hostOf(requestSpec.getURI()));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a connection slot to " + requestSpec.getURI(), e);
+        }
+        try {
+            return ctx.next(requestSpec, responseSpec);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * @param host Target host name, with ":port" if the URL names a port
+     * @return The maximum number of concurrent requests allowed to that host
+     */
+    public int limitFor(String host) {
+        Integer limit = Integer.getInteger(MAX_IN_FLIGHT_PROPERTY + "." + host);
+        if (limit == null && host.indexOf(':') >= 0) {
+            limit = Integer.getInteger(MAX_IN_FLIGHT_PROPERTY + "." + host.substring(0, host.lastIndexOf(':')));
+        }
+        return limit == null ? defaultLimit : limit;
+    }
+
+    private Semaphore permitsFor(String host) {
+        return permitsByHost.computeIfAbsent(host, h -> new Semaphore(limitFor(h), true));
+    }
+
+    private static String hostOf(String uri) {
+        URI parsed = URI.create(uri);
+        if (parsed.getHost() == null) {
+            return "";
+        }
+        return parsed.getPort() < 0 ? parsed.getHost() : parsed.getHost() + ":" + parsed.getPort();
+    }
+
+    @Override
+    public int getOrder() {
+        // Run closest to the wire so time spent in other filters does not hold a permit
+        return LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,98 @@
+package basetest.http;
+
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooling connection manager that makes callers wait for a free connection on a {@link Semaphore} instead of in
+ * the pool itself. HttpCore's lease future waits inside a {@code synchronized} block, which pins a virtual thread
+ * to its carrier for as long as the pool is exhausted; with every carrier pinned, the threads holding the
+ * connections can never run to hand them back, and each lease ends in its timeout. A thread waiting for a
+ * semaphore permit parks and frees its carrier, and once it has a permit the pool always has a connection for it.
+ */
+@SuppressWarnings("deprecation") // REST Assured only supports the HttpClient 4.x AbstractHttpClient API
+final class ParkingConnectionManager extends PoolingClientConnectionManager {
+
+    private final int maxPerRoute;
+    private final Semaphore total;
+    private final Map<HttpRoute, Semaphore> permitsByRoute = new ConcurrentHashMap<>();
+    // Route permits of the connections currently leased, released exactly once when they come back
+    private final Map<ManagedClientConnection, Semaphore> leased = new ConcurrentHashMap<>();
+
+    ParkingConnectionManager(SchemeRegistry schemes, int maxTotal, int maxPerRoute) {
+        super(schemes);
+        this.maxPerRoute = maxPerRoute;
+        this.total = new Semaphore(maxTotal, true);
+        setMaxTotal(maxTotal);
+        setDefaultMaxPerRoute(maxPerRoute);
+    }
+
+    @Override
+    public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ClientConnectionRequest request = super.requestConnection(route, state);
+        Semaphore routePermits = permitsByRoute.computeIfAbsent(route, r -> new Semaphore(maxPerRoute, true));
+        return new ClientConnectionRequest() {
+            @Override
+            public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                    throws InterruptedException, ConnectionPoolTimeoutException {
+                long deadline = System.nanoTime() + unit.toNanos(timeout);
+                acquire(routePermits, timeout, deadline);
+                try {
+                    acquire(total, timeout, deadline);
+                } catch (InterruptedException | ConnectionPoolTimeoutException e) {
+                    routePermits.release();
+                    throw e;
+                }
+                try {
+                    ManagedClientConnection connection = request.getConnection(timeout, unit);
+                    leased.put(connection, routePermits);
+                    return connection;
+                } catch (InterruptedException | ConnectionPoolTimeoutException | RuntimeException e) {
+                    total.release();
+                    routePermits.release();
+                    throw e;
+                }
+            }
+
+            @Override
+            public void abortRequest() {
+                request.abortRequest();
+            }
+        };
+    }
+
+    @Override
+    public void releaseConnection(ManagedClientConnection connection, long keepAlive, TimeUnit unit) {
+        try {
+            super.releaseConnection(connection, keepAlive, unit);
+        } finally {
+            Semaphore routePermits = leased.remove(connection);
+            if (routePermits != null) {
+                total.release();
+                routePermits.release();
+            }
+        }
+    }
+
+    /**
+     * @param timeout  Lease timeout as given by HttpClient; 0 or less waits indefinitely
+     * @param deadline End of the lease timeout, in {@link System#nanoTime()}
+     */
+    private static void acquire(Semaphore permits, long timeout, long deadline)
+            throws InterruptedException, ConnectionPoolTimeoutException {
+        if (timeout <= 0) {
+            permits.acquire();
+        } else if (!permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            throw new ConnectionPoolTimeoutException("Timeout waiting for connection from pool");
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package basetest.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Makes requests to flaky hosts more robust:
+ * <ul>
+ *     <li>Idempotent requests (GET, HEAD, OPTIONS, PUT, DELETE) that fail with an I/O error or a retryable status
+ *     (429, 502, 503, 504 by default) are retried with exponential backoff and full jitter; a Retry-After header
+ *     is honoured up to the maximum delay. POST, PATCH and multipart requests are never retried.</li>
+ *     <li>Each request has a deadline: no retry is started that could not finish its backoff before it. A single
+ *     attempt is bounded by the pool's socket timeout ({@code api.http.socketTimeoutMs}).</li>
+ *     <li>Each host has a {@link CircuitBreaker}: once a host failed too often in a row, requests to it fail
+ *     fast with a {@link CircuitOpenException} instead of each waiting for its own timeout. Failures that are
+ *     not the host's, such as a strict replay miss, are rethrown without counting against it.</li>
+ * </ul>
+ * <p>
+ * The filter runs before the host limit and the timing filters. A retry is sent as a new request through the
+ * filters after this one, so backoff never holds a host permit, and latency, run metrics and the performance gate
+ * see each attempt on its own.
+ * <p>
+ * Requests, retries, time lost to failed attempts and backoff, deadline hits, rejections and breaker trips are
+ * counted per host; {@link #writeReport(Path)} writes them as JSON, by default to
+ * {@code target/api-resilience.json} when the run ends ({@code -Dapi.resilience.report=path}).
+ * <p>
+ * Configured with system properties: {@code api.resilience.maxAttempts} (default 3, 1 disables retries),
+ * {@code api.resilience.baseDelayMs} (100), {@code api.resilience.maxDelayMs} (2000),
+ * {@code api.resilience.deadlineMs} (30000), {@code api.resilience.retryStatuses} (429,502,503,504),
+ * {@code api.resilience.breakerThreshold} (5, 0 disables the breaker) and {@code api.resilience.breakerOpenMs}
+ * (10000).
+ */
+public class ResilienceFilter implements OrderedFilter {
+
+    public static final String REPORT_PROPERTY = "api.resilience.report";
+    public static final String DEFAULT_REPORT = "target/api-resilience.json";
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+
+    /**
+     * @param maxAttempts      Attempts per request, including the first
+     * @param baseDelayMs      Backoff cap before the first retry; doubled for every further retry
+     * @param maxDelayMs       Upper bound of a single backoff
+     * @param deadlineMs       Time budget of one request, all attempts and backoff included
+     * @param retryStatuses    Response status codes worth retrying
+     * @param breakerThreshold Failed attempts in a row that open a host's circuit; 0 disables the breaker
+     * @param breakerOpenMs    How long an open circuit rejects requests before probing the host again
+     */
+    public record Policy(int maxAttempts, long baseDelayMs, long maxDelayMs, long deadlineMs, Set<Integer> retryStatuses,
+                         int breakerThreshold, long breakerOpenMs) {
+
+        public Policy {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("api.resilience.maxAttempts must be at least 1 but was " + maxAttempts);
+            }
+            retryStatuses = Set.copyOf(retryStatuses);
+        }
+
+        public static Policy fromSystemProperties() {
+            return new Policy(
+                    Integer.getInteger("api.resilience.maxAttempts", 3),
+                    Long.getLong("api.resilience.baseDelayMs", 100),
+                    Long.getLong("api.resilience.maxDelayMs", 2_000),
+                    Long.getLong("api.resilience.deadlineMs", 30_000),
+                    Arrays.stream(System.getProperty("api.resilience.retryStatuses", "429,502,503,504").split(","))
+                            .map(String::trim)
+                            .filter(status -> !status.isEmpty())
+                            .map(Integer::valueOf)
+                            .collect(Collectors.toSet()),
+                    Integer.getInteger("api.resilience.breakerThreshold", 5),
+                    Long.getLong("api.resilience.breakerOpenMs", 10_000));
+        }
+    }
+
+    private final Policy policy;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, HostStats> stats = new ConcurrentHashMap<>();
+
+    public ResilienceFilter(Policy policy) {
+        this.policy = policy;
+    }
+
+    public static ResilienceFilter fromSystemProperties() {
+        return new ResilienceFilter(Policy.fromSystemProperties());
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String host = hostOf(requestSpec.getURI());
+        CircuitBreaker breaker = breakers.computeIfAbsent(host,
+                h -> new CircuitBreaker(policy.breakerThreshold(), policy.breakerOpenMs()));
+        HostStats hostStats = stats.computeIfAbsent(host, h -> new HostStats());
+        boolean retryable = IDEMPOTENT_METHODS.contains(requestSpec.getMethod().toUpperCase())
+                && requestSpec.getMultiPartParams().isEmpty();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(policy.deadlineMs());
+        hostStats.requests.increment();
+
+        for (int attempt = 1; ; attempt++) {
+            if (!breaker.tryAcquire()) {
+                hostStats.rejected.increment();
+                hostStats.lostNanos.add(System.nanoTime() - start);
+                throw new CircuitOpenException(host, breaker.consecutiveFailures(), breaker.millisUntilProbe());
+            }
+            long attemptStart = System.nanoTime();
+            Response response = null;
+            Exception failure = null;
+            try {
+                // The chain can be walked only once, so every retry is sent as a new request
+                response = attempt == 1 ? ctx.next(requestSpec, responseSpec) : resend(requestSpec);
+            } catch (Exception e) {
+                // REST Assured lets checked exceptions such as ConnectException through undeclared
+                if (!isTransient(e)) {
+                    breaker.release();  // Says nothing about the host, e.g. a strict replay miss
+                    hostStats.lostNanos.add(attemptStart - start);
+                    throw e;
+                }
+                failure = e;
+            }
+            boolean failed = failure != null || policy.retryStatuses().contains(response.statusCode());
+            breaker.record(!failed);
+            if (!failed) {
+                // Only the failed attempts and backoff before this one were lost
+                hostStats.lostNanos.add(attemptStart - start);
+                return response;
+            }
+
+            if (!retryable || attempt >= policy.maxAttempts()) {
+                if (retryable && policy.maxAttempts() > 1) {
+                    hostStats.exhausted.increment();
+                }
+                return giveUp(hostStats, start, response, failure);
+            }
+            long delayNanos = TimeUnit.MILLISECONDS.toNanos(backoffMillis(attempt, response));
+            if (System.nanoTime() + delayNanos >= deadline) {
+                hostStats.deadlineExceeded.increment();
+                return giveUp(hostStats, start, response, failure);
+            }
+            if (response != null) {
+                response.asByteArray();  // Read the failed body, so its pooled connection is handed back
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return giveUp(hostStats, start, response, failure);
+            }
+            hostStats.retries.increment();
+        }
+    }
+
+    /**
+     * Ends a request that failed for good: the whole time spent on it was lost.
+     *
+     * @return The last failed response, or throws the last I/O failure
+     */
+    private static Response giveUp(HostStats hostStats, long start, Response response, Exception failure) {
+        hostStats.lostNanos.add(System.nanoTime() - start);
+        if (failure != null) {
+            ResilienceFilter.<RuntimeException>rethrow(failure);
+        }
+        return response;
+    }
+
+    /**
+     * Throws the failure unchanged, checked or not, as REST Assured itself would have.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> void rethrow(Exception failure) throws E {
+        throw (E) failure;
+    }
+
+    /**
+     * Sends the request again as a new REST Assured request, through the filters that come after this one
+     * (replay, host limit, timing and the API's own), so each attempt takes its own host permit and is timed on
+     * its own. The filters before this one, such as logging and attachment capture, only see the final response.
+     */
+    private Response resend(FilterableRequestSpecification requestSpec) {
+        RequestSpecification retry = RestAssured.given()
+                .noFilters()
+                .filters(filtersAfterThis(requestSpec))
+                .config(requestSpec.getConfig())
+                // The URI is already expanded and encoded
+                .urlEncodingEnabled(false)
+                .headers(requestSpec.getHeaders())
+                .cookies(requestSpec.getCookies());
+        if (!requestSpec.getFormParams().isEmpty()) {
+            retry.formParams(requestSpec.getFormParams());
+        }
+        Object body = requestSpec.getBody();
+        if (body != null) {
+            retry.body(body);
+        }
+        return retry.request(requestSpec.getMethod(), requestSpec.getURI());
+    }
+
+    /**
+     * @return The filters REST Assured runs after this one: all filters sorted by order, unordered ones as
+     * {@link #DEFAULT_PRECEDENCE}, keeping the definition order of equals as REST Assured does
+     */
+    private List<Filter> filtersAfterThis(FilterableRequestSpecification requestSpec) {
+        List<Filter> sorted = new ArrayList<>(requestSpec.getDefinedFilters());
+        sorted.sort(Comparator.comparingInt(filter ->
+                filter instanceof OrderedFilter ordered ? ordered.getOrder() : DEFAULT_PRECEDENCE));
+        return new ArrayList<>(sorted.subList(sorted.indexOf(this) + 1, sorted.size()));
+    }
+
+    /**
+     * @return Full-jitter exponential backoff: random between 0 and min(maxDelay, baseDelay * 2^(attempt-1)),
+     * or the server's Retry-After (in seconds) if it asks for longer, both capped at the maximum delay
+     */
+    private long backoffMillis(int attempt, Response response) {
+        long cap = Math.min(policy.maxDelayMs(), policy.baseDelayMs() << Math.min(attempt - 1, 30));
+        long delay = ThreadLocalRandom.current().nextLong(cap + 1);
+        String retryAfter = response == null ? null : response.header("Retry-After");
+        if (retryAfter != null && retryAfter.trim().matches("\\d+")) {
+            delay = Math.max(delay, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim())));
+        }
+        return Math.min(delay, policy.maxDelayMs());
+    }
+
+    /**
+     * @return Whether the failure is an I/O problem (connection refused or reset, timeout, ...) worth retrying
+     */
+    private static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String hostOf(String uri) {
+        URI parsed = URI.create(uri);
+        if (parsed.getHost() == null) {
+            return "";
+        }
+        return parsed.getPort() < 0 ? parsed.getHost() : parsed.getHost() + ":" + parsed.getPort();
+    }
+
+    /**
+     * Per-host counters.
+     */
+    private static final class HostStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+        private final LongAdder deadlineExceeded = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder lostNanos = new LongAdder();
+    }
+
+    public long retries() {
+        return stats.values().stream().mapToLong(s -> s.retries.sum()).sum();
+    }
+
+    public long rejections() {
+        return stats.values().stream().mapToLong(s -> s.rejected.sum()).sum();
+    }
+
+    /**
+     * @return Time spent on failed attempts and backoff, across all hosts
+     */
+    public long millisLost() {
+        return TimeUnit.NANOSECONDS.toMillis(stats.values().stream().mapToLong(s -> s.lostNanos.sum()).sum());
+    }
+
+    /**
+     * @return A one-line summary of retries, time lost and circuit breaker activity, for the console or a report
+     */
+    public String summary() {
+        long trips = breakers.values().stream().mapToLong(CircuitBreaker::trips).sum();
+        return String.format("Resilience: %d requests, %d retries, %d ms lost to failed attempts and backoff, "
+                        + "%d rejected by open circuits, %d circuit trips [maxAttempts=%d, deadline=%dms, breakerThreshold=%d]",
+                stats.values().stream().mapToLong(s -> s.requests.sum()).sum(), retries(), millisLost(), rejections(),
+                trips, policy.maxAttempts(), policy.deadlineMs(), policy.breakerThreshold());
+    }
+
+    /**
+     * Writes the per-host counters as JSON, creating parent directories as needed. Nothing is written if no
+     * request went through the filter.
+     *
+     * @param file Target file, e.g. target/api-resilience.json
+     */
+    public void writeReport(Path file) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode report = mapper.createObjectNode().put("generatedAt", Instant.now().toString());
+        ArrayNode hosts = report.putArray("hosts");
+        new TreeMap<>(stats).forEach((host, hostStats) -> {
+            CircuitBreaker breaker = breakers.get(host);
+            hosts.addObject()
+                    .put("host", host)
+                    .put("requests", hostStats.requests.sum())
+                    .put("retries", hostStats.retries.sum())
+                    .put("retriesExhausted", hostStats.exhausted.sum())
+                    .put("deadlineExceeded", hostStats.deadlineExceeded.sum())
+                    .put("rejectedByOpenCircuit", hostStats.rejected.sum())
+                    .put("msLost", TimeUnit.NANOSECONDS.toMillis(hostStats.lostNanos.sum()))
+                    .put("circuitTrips", breaker.trips())
+                    .put("circuitState", breaker.state().name());
+        });
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            mapper.writeValue(file.toFile(), report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write resilience report to " + file, e);
+        }
+    }
+
+    /**
+     * @return The report location from {@code -Dapi.resilience.report}, or target/api-resilience.json
+     */
+    public static Path reportPath() {
+        return Paths.get(System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT));
+    }
+
+    @Override
+    public int getOrder() {
+        // After logging and attachment capture, before the host limit and the timing filters: backoff never holds
+        // a host permit, and each attempt is timed on its own, without the backoff before it
+        return DEFAULT_PRECEDENCE + 1;
+    }
+}
@@ -0,0 +1,103 @@
+package basetest.impact;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The test impact index file: for every test class that passed, the inputs it passed with and the Allure result
+ * files kept for it. Written as JSON, one entry per class, so it can be read and diffed when a class runs
+ * unexpectedly.
+ */
+final class ImpactIndex {
+
+    private static final int VERSION = 1;
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    /**
+     * What a test class passed with.
+     *
+     * @param inputs     Hash of its bytecode, the framework and the resources they reference, see {@link InputHasher}
+     * @param responses  Hash of the recorded responses to its requests, "" when they come from the local stand-ins
+     * @param requests   Fingerprints of the requests it sent
+     * @param methods    Names of its test methods that ran
+     * @param results    Names of its Allure result files in the result cache
+     * @param recordedAt When the entry was written, ISO-8601
+     */
+    record Entry(String inputs, String responses, List<String> requests, List<String> methods,
+                 List<String> results, String recordedAt) {
+    }
+
+    private record IndexFile(int version, Map<String, Entry> classes) {
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+
+    private ImpactIndex(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = new ConcurrentHashMap<>(entries);
+    }
+
+    /**
+     * @param file Index file; if it is missing, unreadable or of another version the index starts empty
+     */
+    static ImpactIndex load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return new ImpactIndex(file, Map.of());
+        }
+        try {
+            IndexFile index = MAPPER.readValue(file.toFile(), IndexFile.class);
+            if (index.version() != VERSION || index.classes() == null) {
+                System.out.println("Test impact index " + file + " is not version " + VERSION + "; every class runs");
+                return new ImpactIndex(file, Map.of());
+            }
+            return new ImpactIndex(file, index.classes());
+        } catch (IOException e) {
+            System.out.println("Test impact index " + file + " not used: " + e.getMessage());
+            return new ImpactIndex(file, Map.of());
+        }
+    }
+
+    Entry get(String className) {
+        return entries.get(className);
+    }
+
+    void put(String className, Entry entry) {
+        entries.put(className, entry);
+    }
+
+    void remove(String className) {
+        entries.remove(className);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the index, replacing the file in one step so an interrupted run leaves the previous index in place.
+     */
+    synchronized void save() {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            MAPPER.writeValue(temporary.toFile(), new IndexFile(VERSION, new TreeMap<>(entries)));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write test impact index " + file, e);
+        }
+    }
+}
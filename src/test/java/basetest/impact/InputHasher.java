@@ -0,0 +1,124 @@
+package basetest.impact;
+
+import basetest.replay.ReplayStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Hashes what the outcome of a test class depends on, apart from the responses it gets:
+ * <ul>
+ *     <li>its own class files, nested and anonymous classes included</li>
+ *     <li>the framework: every class file outside the {@code tests} package, main classes included</li>
+ *     <li>the resource files these reference by name, such as schemas, scenario files and fixtures</li>
+ * </ul>
+ * A resource counts as referenced when its file name appears in one of the class files or in another referenced
+ * resource, so a scenario file also pulls in the schemas it names. A changed schema therefore only affects the
+ * classes that use it, while any change to the framework affects every class.
+ */
+final class InputHasher {
+
+    // Test classes live in this package (see the surefire includes); every other class is framework code
+    private static final String TEST_PACKAGE = "tests/";
+    private static final Set<String> IGNORED_FILES = Set.of(ReplayStore.INDEX_FILE, ReplayStore.DATA_FILE);
+
+    private final String environment;
+    private final SortedMap<String, byte[]> classFiles = new TreeMap<>();
+    private final SortedMap<String, byte[]> resources = new TreeMap<>();
+    private final String frameworkHash;
+
+    /**
+     * @param roots       Class output directories, e.g. target/test-classes and target/classes
+     * @param environment Settings that change every class's outcome, e.g. the target hosts
+     */
+    InputHasher(List<Path> roots, String environment) {
+        this.environment = environment;
+        for (Path root : roots) {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    String name = root.relativize(file).toString().replace('\\', '/');
+                    if (IGNORED_FILES.contains(file.getFileName().toString())) {
+                        continue;
+                    }
+                    (name.endsWith(".class") ? classFiles : resources).put(name, Files.readAllBytes(file));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read " + root, e);
+            }
+        }
+        MessageDigest digest = sha256();
+        Map<String, byte[]> framework = new TreeMap<>(classFiles);
+        framework.keySet().removeIf(name -> name.startsWith(TEST_PACKAGE));
+        update(digest, framework);
+        update(digest, referencedResources(framework));
+        this.frameworkHash = HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @param className Fully qualified test class name
+     * @return The hash of the class's inputs, or null if its class file is not in the roots
+     */
+    String hash(String className) {
+        String prefix = className.replace('.', '/');
+        // Nested classes, "Outer$Inner.class", sort between "Outer$" and "Outer%"
+        Map<String, byte[]> own = new TreeMap<>(classFiles.subMap(prefix + "$", prefix + "%"));
+        byte[] topLevel = classFiles.get(prefix + ".class");
+        if (topLevel == null) {
+            return null;
+        }
+        own.put(prefix + ".class", topLevel);
+
+        MessageDigest digest = sha256();
+        digest.update(environment.getBytes(StandardCharsets.UTF_8));
+        digest.update(frameworkHash.getBytes(StandardCharsets.US_ASCII));
+        update(digest, own);
+        update(digest, referencedResources(own));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Map<String, byte[]> referencedResources(Map<String, byte[]> sources) {
+        Map<String, byte[]> referenced = new TreeMap<>();
+        Deque<byte[]> pending = new ArrayDeque<>(sources.values());
+        while (!pending.isEmpty()) {
+            // Names are plain ASCII, so a Latin-1 view finds them in class file constant pools as well as in text
+            String text = new String(pending.pop(), StandardCharsets.ISO_8859_1);
+            resources.forEach((name, content) -> {
+                if (!referenced.containsKey(name) && text.contains(name.substring(name.lastIndexOf('/') + 1))) {
+                    referenced.put(name, content);
+                    pending.push(content);
+                }
+            });
+        }
+        return referenced;
+    }
+
+    private static void update(MessageDigest digest, Map<String, byte[]> files) {
+        files.forEach((name, content) -> {
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(content);
+        });
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
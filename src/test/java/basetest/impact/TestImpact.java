@@ -0,0 +1,404 @@
+package basetest.impact;
+
+import basetest.BaseTest;
+import basetest.replay.RecordedResponse;
+import basetest.replay.ReplayFilter;
+import basetest.replay.ReplayStore;
+import basetest.replay.RequestFingerprint;
+import basetest.reporting.AttachmentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafiatu.client.ApiClient;
+import io.restassured.filter.Filter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Test impact selection: test classes whose inputs have not changed since they last passed are left out of the
+ * run, and their last Allure results are put back into the results directory instead.
+ * <p>
+ * The inputs of a class are its bytecode, the framework code and the resource files they reference (see
+ * {@link InputHasher}), plus the responses to its requests. Those responses are only known without sending the
+ * requests when they come from the local stand-ins ({@code -Dapi.target=local}; the stand-ins are framework code)
+ * or from the replay store ({@code -Dapi.replay.mode=replay}; the recording of every request the class sent is
+ * hashed). Against the live hosts every class runs.
+ * <p>
+ * After a run, each class whose tests all passed is written to the index with a copy of its Allure results. A class
+ * that failed, or sent a request that has no recording, is dropped from the index and runs next time.
+ * <p>
+ * Off by default. Configured with system properties:
+ * <ul>
+ *     <li>{@code api.impact.enabled}: {@code true} to skip unchanged classes</li>
+ *     <li>{@code api.impact.dir}: index and result cache, default {@code target/test-impact}; CI keeps this
+ *     directory between builds</li>
+ * </ul>
+ * Classes are left out by {@link TestImpactFilter} and the run is indexed by {@link TestImpactListener}; both are
+ * registered with the JUnit Platform launcher in META-INF/services.
+ */
+public final class TestImpact {
+
+    public static final String ENABLED_PROPERTY = "api.impact.enabled";
+    public static final String DIRECTORY_PROPERTY = "api.impact.dir";
+    public static final String DEFAULT_DIRECTORY = "target/test-impact";
+
+    private static final String INDEX_FILE = "index.json";
+    private static final String RESULT_CACHE = "results";
+    private static final String RESULT_SUFFIX = "-result.json";
+    // Disabled tests are reported as skipped; either way the class did not fail
+    private static final Set<String> PASSING = Set.of("passed", "skipped");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final boolean enabled;
+    private final String disabledReason;
+    private final Path directory;
+    private final Path resultsDirectory;
+    private final ImpactIndex index;
+    private final InputHasher hasher;
+    private final ReplayStore store;
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    private final Map<String, Boolean> unchanged = new ConcurrentHashMap<>();
+    private final Set<String> ran = ConcurrentHashMap.newKeySet();
+    private final Set<String> restored = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<RequestFingerprint>> requests = new ConcurrentHashMap<>();
+    // Test classes being executed on this thread, innermost first (a worker may pick up another class's tests
+    // while it waits), and the innermost one for threads started from it, such as fan-out calls
+    private final ThreadLocal<Deque<String>> running = ThreadLocal.withInitial(ArrayDeque::new);
+    private final InheritableThreadLocal<String> currentClass = new InheritableThreadLocal<>();
+
+    /**
+     * Lazy holder for the instance configured from system properties.
+     */
+    private static final class Holder {
+        private static final TestImpact SHARED = fromSystemProperties();
+    }
+
+    private TestImpact(boolean enabled, String disabledReason, Path directory, Path resultsDirectory,
+                       ImpactIndex index, InputHasher hasher, ReplayStore store) {
+        this.enabled = enabled;
+        this.disabledReason = disabledReason;
+        this.directory = directory;
+        this.resultsDirectory = resultsDirectory;
+        this.index = index;
+        this.hasher = hasher;
+        this.store = store;
+    }
+
+    /**
+     * @return The instance shared by the launcher extensions and the test classes
+     */
+    public static TestImpact shared() {
+        return Holder.SHARED;
+    }
+
+    private static TestImpact fromSystemProperties() {
+        if (!Boolean.getBoolean(ENABLED_PROPERTY)) {
+            return disabled(null);
+        }
+        String target = System.getProperty(BaseTest.TARGET_PROPERTY, "remote").trim().toLowerCase();
+        String replayMode = System.getProperty(ReplayFilter.MODE_PROPERTY, "off").trim().toLowerCase();
+        boolean urlOverride = System.getProperty(BaseTest.REQRES_URL_PROPERTY) != null
+                || System.getProperty(BaseTest.JSONPLACEHOLDER_URL_PROPERTY) != null;
+        boolean replay = replayMode.equals("replay");
+        if (!replay && (!target.equals("local") || urlOverride)) {
+            return disabled("responses come from live hosts; run with -Dapi.target=local or -Dapi.replay.mode=replay");
+        }
+
+        List<Path> roots = new ArrayList<>();
+        for (Class<?> type : List.of(TestImpact.class, ApiClient.class)) {
+            Path root = codeRoot(type);
+            if (root == null) {
+                return disabled(type.getName() + " is not loaded from a class directory");
+            }
+            roots.add(root);
+        }
+        Path directory = Paths.get(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY));
+        return new TestImpact(true, null, directory,
+                Paths.get(System.getProperty("allure.results.directory", "allure-results")),
+                ImpactIndex.load(directory.resolve(INDEX_FILE)),
+                new InputHasher(roots, "target=" + target + ", replay=" + replayMode),
+                replay ? ReplayFilter.openStore() : null);
+    }
+
+    private static TestImpact disabled(String reason) {
+        return new TestImpact(false, reason, null, null, null, null, null);
+    }
+
+    private static Path codeRoot(Class<?> type) {
+        try {
+            Path root = Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return Files.isDirectory(root) ? root : null;
+        } catch (URISyntaxException | SecurityException e) {
+            return null;
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Decides once per class whether it can be left out of the run: its inputs hash and recorded responses are
+     * those of its last passing run, the methods about to run all ran then, and their results are still cached.
+     *
+     * @param className Fully qualified test class name
+     * @param methods   Names of the class's test methods in this run
+     * @return Whether the class is unchanged; always false when test impact selection is off
+     */
+    public boolean isUnchanged(String className, Collection<String> methods) {
+        if (!enabled) {
+            return false;
+        }
+        return unchanged.computeIfAbsent(className, name -> {
+            ImpactIndex.Entry entry = index.get(name);
+            return entry != null
+                    && entry.inputs().equals(hasher.hash(name))
+                    && entry.methods().containsAll(methods)
+                    && entry.responses().equals(responsesHash(entry.requests().stream().map(RequestFingerprint::parse).toList()))
+                    && entry.results().stream().allMatch(result -> Files.isRegularFile(cacheOf(name).resolve(result)));
+        });
+    }
+
+    /**
+     * @return A REST Assured filter that remembers which test class sent each request
+     */
+    public Filter captureFilter() {
+        return (requestSpec, responseSpec, ctx) -> {
+            String className = currentClass.get();
+            if (className != null) {
+                requests.computeIfAbsent(className, k -> ConcurrentHashMap.newKeySet()).add(RequestFingerprint.of(requestSpec));
+            }
+            return ctx.next(requestSpec, responseSpec);
+        };
+    }
+
+    /**
+     * Called on the executing thread when a test class, or one of its tests, starts.
+     */
+    void enter(String className) {
+        if (!enabled) {
+            return;
+        }
+        ran.add(className);
+        running.get().push(className);
+        currentClass.set(className);
+    }
+
+    /**
+     * Called on the executing thread when the class or test of the matching {@link #enter(String)} finishes.
+     */
+    void exit() {
+        if (!enabled) {
+            return;
+        }
+        Deque<String> classes = running.get();
+        classes.poll();
+        currentClass.set(classes.peek());
+    }
+
+    /**
+     * Indexes the classes that ran, restores the cached results of those left out and writes the index.
+     */
+    synchronized void finish() {
+        if (!enabled) {
+            if (disabledReason != null) {
+                System.out.println("Test impact: every class runs, " + disabledReason);
+            }
+            return;
+        }
+        // Attachment files are written in the background; the cache needs all of them
+        AttachmentService.shared().flush();
+        Map<String, List<AllureResult>> results = resultsSince(startedAtMillis);
+        int indexed = 0;
+        int run = 0;
+        for (String className : List.copyOf(ran)) {
+            ran.remove(className);
+            run++;
+            List<AllureResult> classResults = results.getOrDefault(className, List.of());
+            Set<RequestFingerprint> sent = requests.getOrDefault(className, Set.of());
+            String responses = responsesHash(sent);
+            String inputs = hasher.hash(className);
+            if (classResults.isEmpty() || responses == null || inputs == null
+                    || !classResults.stream().allMatch(result -> PASSING.contains(result.tree().path("status").asText()))) {
+                index.remove(className);
+                continue;
+            }
+            index.put(className, new ImpactIndex.Entry(inputs, responses,
+                    sent.stream().map(RequestFingerprint::toString).sorted().toList(),
+                    classResults.stream().map(AllureResult::method).distinct().sorted().toList(),
+                    cache(className, classResults),
+                    Instant.now().toString()));
+            indexed++;
+        }
+
+        int reused = 0;
+        for (Map.Entry<String, Boolean> decision : unchanged.entrySet()) {
+            if (decision.getValue() && restored.add(decision.getKey())) {
+                restore(decision.getKey());
+                reused++;
+            }
+        }
+        index.save();
+        System.out.printf("Test impact: %d unchanged classes skipped (last results reused), %d run, %d indexed in %s%n",
+                reused, run, indexed, directory);
+    }
+
+    /**
+     * @return Hash over the recorded response to each request, "" without a replay store (the stand-ins answer),
+     * or null if any request has no usable recording
+     */
+    private String responsesHash(Collection<RequestFingerprint> fingerprints) {
+        if (store == null) {
+            return "";
+        }
+        MessageDigest digest = InputHasher.sha256();
+        for (RequestFingerprint fingerprint : new TreeSet<>(fingerprints)) {
+            Optional<RecordedResponse> recorded = store.find(fingerprint);
+            if (recorded.isEmpty()) {
+                return null;
+            }
+            digest.update(fingerprint.toString().getBytes(StandardCharsets.US_ASCII));
+            digest.update(ByteBuffer.allocate(4).putInt(recorded.get().statusCode()).array());
+            digest.update(recorded.get().body());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private record AllureResult(Path file, JsonNode tree) {
+
+        String testClass() {
+            return label("testClass");
+        }
+
+        String method() {
+            return label("testMethod");
+        }
+
+        private String label(String name) {
+            for (JsonNode label : tree.path("labels")) {
+                if (name.equals(label.path("name").asText())) {
+                    return label.path("value").asText();
+                }
+            }
+            return "";
+        }
+
+        /**
+         * @return The attachment files of the result and of all its steps
+         */
+        List<String> attachments() {
+            List<String> sources = new ArrayList<>();
+            for (JsonNode attachments : tree.findValues("attachments")) {
+                attachments.forEach(attachment -> sources.add(attachment.path("source").asText()));
+            }
+            return sources;
+        }
+    }
+
+    /**
+     * @return The Allure results written during this run, by test class
+     */
+    private Map<String, List<AllureResult>> resultsSince(long millis) {
+        Map<String, List<AllureResult>> results = new HashMap<>();
+        if (!Files.isDirectory(resultsDirectory)) {
+            return results;
+        }
+        // File times may be truncated to whole seconds
+        long since = millis - millis % 1000;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(resultsDirectory, "*" + RESULT_SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() >= since) {
+                    AllureResult result = new AllureResult(file, MAPPER.readTree(file.toFile()));
+                    results.computeIfAbsent(result.testClass(), k -> new ArrayList<>()).add(result);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read Allure results in " + resultsDirectory, e);
+        }
+        return results;
+    }
+
+    /**
+     * Replaces the cached results of a class with this run's.
+     *
+     * @return Names of the cached result files
+     */
+    private List<String> cache(String className, List<AllureResult> results) {
+        Path cache = cacheOf(className);
+        try {
+            delete(cache);
+            Files.createDirectories(cache);
+            List<String> names = new ArrayList<>();
+            for (AllureResult result : results) {
+                copy(result.file(), cache);
+                names.add(result.file().getFileName().toString());
+                for (String attachment : result.attachments()) {
+                    Path file = resultsDirectory.resolve(attachment);
+                    if (Files.isRegularFile(file)) {
+                        copy(file, cache);
+                    }
+                }
+            }
+            return names;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to cache the Allure results of " + className + " in " + cache, e);
+        }
+    }
+
+    private void restore(String className) {
+        Path cache = cacheOf(className);
+        try (Stream<Path> files = Files.list(cache)) {
+            Files.createDirectories(resultsDirectory);
+            for (Path file : (Iterable<Path>) files::iterator) {
+                copy(file, resultsDirectory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to restore the Allure results of " + className + " from " + cache, e);
+        }
+    }
+
+    private Path cacheOf(String className) {
+        return directory.resolve(RESULT_CACHE).resolve(className);
+    }
+
+    private static void copy(Path file, Path directory) throws IOException {
+        // Keeping the modification time keeps restored results out of the next scan for this run's results
+        Files.copy(file, directory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package basetest.impact;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Leaves the tests of classes that {@link TestImpact} finds unchanged out of the test plan. Unlike a disabled
+ * test, a test that is not in the plan is not reported as skipped, so the Allure results restored for it stand.
+ */
+public class TestImpactFilter implements PostDiscoveryFilter {
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        TestImpact impact = TestImpact.shared();
+        if (!impact.enabled() || !(descriptor.getSource().orElse(null) instanceof MethodSource method)) {
+            return FilterResult.included(null);
+        }
+        // The first test of a class decides for all of them, while its siblings are still in the plan
+        Set<String> methods = descriptor.getParent().map(TestImpactFilter::methodNames).orElse(Set.of(method.getMethodName()));
+        return impact.isUnchanged(method.getClassName(), methods)
+                ? FilterResult.excluded("unchanged since its last passing run")
+                : FilterResult.included("changed or not indexed");
+    }
+
+    private static Set<String> methodNames(TestDescriptor parent) {
+        return parent.getChildren().stream()
+                .map(child -> child.getSource().orElse(null))
+                .filter(MethodSource.class::isInstance)
+                .map(source -> ((MethodSource) source).getMethodName())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,49 @@
+package basetest.impact;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.Optional;
+
+/**
+ * Tells {@link TestImpact} which test class runs on which thread, so requests can be traced to their class, and
+ * has the run indexed once it is over. JUnit calls the start and finish events on the executing thread.
+ */
+public class TestImpactListener implements TestExecutionListener {
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        classOf(testIdentifier).ifPresent(TestImpact.shared()::enter);
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        if (classOf(testIdentifier).isPresent()) {
+            TestImpact.shared().exit();
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        TestImpact.shared().finish();
+    }
+
+    /**
+     * @return The class of a class or method node; dynamic tests have neither and run under their factory method
+     */
+    private static Optional<String> classOf(TestIdentifier testIdentifier) {
+        TestSource source = testIdentifier.getSource().orElse(null);
+        if (source instanceof ClassSource classSource) {
+            return Optional.of(classSource.getClassName());
+        }
+        if (source instanceof MethodSource methodSource) {
+            return Optional.of(methodSource.getClassName());
+        }
+        return Optional.empty();
+    }
+}
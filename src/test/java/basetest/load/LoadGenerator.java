@@ -0,0 +1,134 @@
+package basetest.load;
+
+import io.restassured.response.Response;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a list of {@link LoadScenario}s for a fixed duration on virtual threads, either
+ * <ul>
+ *     <li>at a fixed request rate (open model: requests start on schedule, whether or not earlier ones finished), or</li>
+ *     <li>at a fixed concurrency (closed model: N virtual users each send the next request as soon as one completes).</li>
+ * </ul>
+ * Scenarios are sent round-robin after one unmeasured warm-up pass. In fixed-rate mode latency is measured
+ * from the scheduled start time, so a slow server is not hidden by the generator falling behind
+ * (coordinated omission).
+ */
+public final class LoadGenerator {
+
+    public enum Mode { FIXED_RATE, FIXED_CONCURRENCY }
+
+    private final List<LoadScenario> scenarios;
+    private final Mode mode;
+    private final int rateOrConcurrency;
+    private final Duration duration;
+
+    private LoadGenerator(List<LoadScenario> scenarios, Mode mode, int rateOrConcurrency, Duration duration) {
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("At least one load scenario is required");
+        }
+        if (rateOrConcurrency < 1) {
+            throw new IllegalArgumentException("Rate/concurrency must be at least 1 but was " + rateOrConcurrency);
+        }
+        this.scenarios = List.copyOf(scenarios);
+        this.mode = mode;
+        this.rateOrConcurrency = rateOrConcurrency;
+        this.duration = duration;
+    }
+
+    /**
+     * @param requestsPerSecond Total request rate across all scenarios
+     */
+    public static LoadGenerator fixedRate(List<LoadScenario> scenarios, int requestsPerSecond, Duration duration) {
+        return new LoadGenerator(scenarios, Mode.FIXED_RATE, requestsPerSecond, duration);
+    }
+
+    /**
+     * @param virtualUsers Number of concurrent request loops
+     */
+    public static LoadGenerator fixedConcurrency(List<LoadScenario> scenarios, int virtualUsers, Duration duration) {
+        return new LoadGenerator(scenarios, Mode.FIXED_CONCURRENCY, virtualUsers, duration);
+    }
+
+    /**
+     * Runs the load to completion and waits for in-flight requests.
+     *
+     * @return Per-endpoint throughput, latency and failure counts
+     */
+    public LoadReport run() {
+        Map<String, LoadReport.EndpointStats> stats = new LinkedHashMap<>();
+        scenarios.forEach(s -> stats.putIfAbsent(s.name(), new LoadReport.EndpointStats()));
+        AtomicLong sequence = new AtomicLong();
+        warmUp();
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (mode == Mode.FIXED_RATE) {
+                long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rateOrConcurrency;
+                for (long scheduled = start; scheduled < deadline; scheduled += intervalNanos) {
+                    long wait = scheduled - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    long intendedStart = scheduled;
+                    LoadScenario scenario = next(sequence);
+                    virtualThreads.submit(() -> execute(scenario, intendedStart, stats.get(scenario.name())));
+                }
+            } else {
+                for (int user = 0; user < rateOrConcurrency; user++) {
+                    virtualThreads.submit(() -> {
+                        while (System.nanoTime() < deadline) {
+                            LoadScenario scenario = next(sequence);
+                            execute(scenario, System.nanoTime(), stats.get(scenario.name()));
+                        }
+                    });
+                }
+            }
+        } // close() waits for every submitted request to finish
+        return new LoadReport(stats, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Sends every scenario once, unmeasured, so class loading and connection setup of the first
+     * requests do not show up as tail latency.
+     */
+    private void warmUp() {
+        for (LoadScenario scenario : scenarios) {
+            try {
+                scenario.request().get().asByteArray();
+            } catch (RuntimeException ignored) {
+                // Failures are counted during the measured run
+            }
+        }
+    }
+
+    private LoadScenario next(AtomicLong sequence) {
+        return scenarios.get((int) (sequence.getAndIncrement() % scenarios.size()));
+    }
+
+    private static void execute(LoadScenario scenario, long startNanos, LoadReport.EndpointStats stats) {
+        try {
+            Response response = scenario.request().get();
+            // Reading the body hands the pooled connection back; an unread stream would hold it until GC
+            response.asByteArray();
+            stats.latency.recordNanos(System.nanoTime() - startNanos);
+            if (response.statusCode() != scenario.expectedStatus()) {
+                stats.unexpectedStatus.increment();
+                stats.lastFailure = "status " + response.statusCode() + " (expected " + scenario.expectedStatus() + ")";
+            }
+        } catch (RuntimeException e) {
+            stats.latency.recordNanos(System.nanoTime() - startNanos);
+            stats.errors.increment();
+            stats.lastFailure = e.toString();
+        }
+    }
+}
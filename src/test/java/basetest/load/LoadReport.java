@@ -0,0 +1,114 @@
+package basetest.load;
+
+import basetest.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of a {@link LoadGenerator} run: throughput and latency percentiles per endpoint,
+ * plus assertions on status codes and latency SLOs.
+ */
+public final class LoadReport {
+
+    private final Map<String, EndpointStats> stats;
+    private final Duration elapsed;
+
+    LoadReport(Map<String, EndpointStats> stats, Duration elapsed) {
+        this.stats = Collections.unmodifiableMap(stats);
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Per-endpoint counters, updated concurrently while the load runs.
+     */
+    static final class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder unexpectedStatus = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        volatile String lastFailure;
+    }
+
+    /**
+     * @return Scenario names, in the order they were given to the generator
+     */
+    public Set<String> endpoints() {
+        return stats.keySet();
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @param endpoint Scenario name
+     * @return Completed requests per second for that endpoint
+     */
+    public double throughput(String endpoint) {
+        return stats.get(endpoint).latency.count() / seconds();
+    }
+
+    public LatencyHistogram latency(String endpoint) {
+        return stats.get(endpoint).latency;
+    }
+
+    /**
+     * Fails if any request errored or returned a status other than its scenario's expected status.
+     */
+    public void assertStatusCodes() {
+        List<String> failures = new ArrayList<>();
+        stats.forEach((endpoint, s) -> {
+            if (s.unexpectedStatus.sum() > 0 || s.errors.sum() > 0) {
+                failures.add(String.format("%s: %d unexpected status codes, %d errors (last: %s)",
+                        endpoint, s.unexpectedStatus.sum(), s.errors.sum(), s.lastFailure));
+            }
+        });
+        if (!failures.isEmpty()) {
+            throw new AssertionError("Load test status check failed:\n" + String.join("\n", failures));
+        }
+    }
+
+    /**
+     * Fails if any endpoint's latency at the given percentile exceeds the SLO.
+     *
+     * @param percentile Percentile to check, e.g. 95 or 99
+     * @param slo        Maximum allowed latency at that percentile
+     */
+    public void assertLatency(double percentile, Duration slo) {
+        List<String> failures = new ArrayList<>();
+        stats.forEach((endpoint, s) -> {
+            long observed = s.latency.percentileMicros(percentile);
+            if (observed > slo.toNanos() / 1000) {
+                failures.add(String.format("%s: p%s = %.1f ms exceeds SLO of %d ms",
+                        endpoint, percentile, observed / 1000.0, slo.toMillis()));
+            }
+        });
+        if (!failures.isEmpty()) {
+            throw new AssertionError("Load test latency SLO failed:\n" + String.join("\n", failures));
+        }
+    }
+
+    /**
+     * @return A plain-text table with throughput and p50/p95/p99/max latency per endpoint
+     */
+    public String summary() {
+        StringBuilder table = new StringBuilder(String.format(
+                "%-28s %8s %9s %9s %9s %9s %9s %7s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "failed"));
+        stats.forEach((endpoint, s) -> table.append(String.format(
+                "%-28s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                endpoint, s.latency.count(), throughput(endpoint),
+                s.latency.percentileMillis(50), s.latency.percentileMillis(95), s.latency.percentileMillis(99),
+                s.latency.maxMicros() / 1000.0, s.unexpectedStatus.sum() + s.errors.sum())));
+        return table.toString();
+    }
+
+    private double seconds() {
+        return Math.max(1e-9, elapsed.toNanos() / 1e9);
+    }
+}
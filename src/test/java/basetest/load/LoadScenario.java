@@ -0,0 +1,59 @@
+package basetest.load;
+
+import basetest.logging.AsyncLoggingFilter;
+import com.rafiatu.client.ApiCatalog;
+import com.rafiatu.client.ApiClient;
+import com.rafiatu.client.PayloadSerializer;
+import com.rafiatu.client.RequestTemplate;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.function.Supplier;
+
+/**
+ * One request definition to put under load: a call of the {@link ApiCatalog} with its path values, payload and
+ * expected status code, as the functional tests make it, without their per-call Allure attachments and logging.
+ * Payloads are serialized once, when the scenario is created, and the same bytes are sent on every request.
+ *
+ * @param name           Report key, e.g. "GET /users?page=2"
+ * @param expectedStatus Status code every response must have
+ * @param request        Sends the request and returns the response
+ */
+public record LoadScenario(String name, int expectedStatus, Supplier<Response> request) {
+
+    /**
+     * @param reqres          Request specification of the reqres.in API
+     * @param jsonPlaceholder Request specification of the JSONPlaceholder API
+     * @return The calls of both APIs for load scenarios, on plain clients that skip request logging, which would
+     * dominate the measured latency
+     */
+    public static ApiCatalog catalog(RequestSpecification reqres, RequestSpecification jsonPlaceholder) {
+        return new ApiCatalog(new ApiClient(reqres).withoutFiltersOfType(AsyncLoggingFilter.class),
+                new ApiClient(jsonPlaceholder).withoutFiltersOfType(AsyncLoggingFilter.class));
+    }
+
+    /**
+     * @param call           A call without a body, e.g. {@code api.users().byId()}
+     * @param expectedStatus Status code every response must have
+     * @param pathValues     One value per placeholder, e.g. the user id
+     */
+    public static LoadScenario of(RequestTemplate call, int expectedStatus, Object... pathValues) {
+        return new LoadScenario(name(call, pathValues), expectedStatus, () -> call.call(pathValues));
+    }
+
+    /**
+     * @param call           A call with a body, e.g. {@code api.users().create()}
+     * @param payload        Request payload, serialized once
+     * @param expectedStatus Status code every response must have
+     * @param pathValues     One value per placeholder, e.g. the user id
+     */
+    public static LoadScenario withPayload(RequestTemplate call, Object payload, int expectedStatus,
+                                           Object... pathValues) {
+        byte[] body = PayloadSerializer.toJson(payload);
+        return new LoadScenario(name(call, pathValues), expectedStatus, () -> call.callWith(body, pathValues));
+    }
+
+    private static String name(RequestTemplate call, Object... pathValues) {
+        return call.method() + " " + call.endpoint().expand(pathValues);
+    }
+}
@@ -0,0 +1,104 @@
+package basetest.logging;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes log entries to a stream from a single background thread, so request threads never block on console output.
+ * <p>
+ * The queue is bounded: when it is full new entries are dropped and counted instead of slowing the tests down.
+ * Entries are written in batches with one flush per batch.
+ */
+public final class AsyncLogWriter implements AutoCloseable {
+
+    private static final int MAX_BATCH = 256;
+
+    private final BlockingQueue<String> queue;
+    private final PrintStream out;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    /**
+     * @param out      Destination stream, e.g. System.out
+     * @param capacity Maximum number of entries waiting to be written
+     */
+    public AsyncLogWriter(PrintStream out, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Log queue capacity must be at least 1 but was " + capacity);
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.out = out;
+        this.worker = new Thread(this::drain, "async-log-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues an entry without blocking.
+     *
+     * @param entry The text to write, one or more lines
+     * @return false if the queue was full (or the writer closed) and the entry was dropped
+     */
+    public boolean submit(String entry) {
+        if (closed || !queue.offer(entry)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return Number of entries dropped because the queue was full
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    private void drain() {
+        List<String> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder text = new StringBuilder();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                String first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // close() interrupts a waiting worker; whatever is still queued is written below
+            }
+            queue.drainTo(batch, MAX_BATCH - batch.size());
+            for (String entry : batch) {
+                text.append(entry).append(System.lineSeparator());
+            }
+            out.print(text);
+            out.flush();
+            batch.clear();
+            text.setLength(0);
+        }
+    }
+
+    /**
+     * Stops accepting entries, writes everything still queued and reports dropped entries.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped() > 0) {
+            out.println("[log] " + dropped() + " log entries dropped because the log queue was full");
+            out.flush();
+        }
+    }
+}
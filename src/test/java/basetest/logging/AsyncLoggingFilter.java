@@ -0,0 +1,165 @@
+package basetest.logging;
+
+import basetest.body.ResponseBody;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs requests and responses through a bounded {@link AsyncLogWriter} instead of printing them synchronously
+ * like REST Assured's RequestLoggingFilter / ResponseLoggingFilter. Bodies are written as received (no pretty
+ * printing) and truncated after a size limit; only that much of a response body is ever decoded.
+ * <p>
+ * Settings (system properties):
+ * <ul>
+ *     <li>{@code api.log.mode} - {@code all}, {@code failures} (status 400 and above, or no response at all),
+ *     {@code sampled} (every N-th request) or {@code off} (default failures)</li>
+ *     <li>{@code api.log.sampleRate} - N for the sampled mode (default 10)</li>
+ *     <li>{@code api.log.maxBodyChars} - bodies longer than this are truncated (default 4096)</li>
+ *     <li>{@code api.log.queueCapacity} - entries waiting to be written before new ones are dropped (default 1024)</li>
+ * </ul>
+ */
+public class AsyncLoggingFilter implements OrderedFilter, AutoCloseable {
+
+    public enum Mode { ALL, FAILURES, SAMPLED, OFF }
+
+    public static final String MODE_PROPERTY = "api.log.mode";
+
+    private final Mode mode;
+    private final int sampleRate;
+    private final int maxBodyChars;
+    private final AsyncLogWriter writer;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param mode         Which exchanges to log
+     * @param sampleRate   Log every N-th exchange in {@link Mode#SAMPLED} mode
+     * @param maxBodyChars Maximum characters of each body to log
+     * @param writer       Destination of the log entries
+     */
+    public AsyncLoggingFilter(Mode mode, int sampleRate, int maxBodyChars, AsyncLogWriter writer) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("api.log.sampleRate must be at least 1 but was " + sampleRate);
+        }
+        this.mode = mode;
+        this.sampleRate = sampleRate;
+        this.maxBodyChars = Math.max(0, maxBodyChars);
+        this.writer = writer;
+    }
+
+    /**
+     * Creates a filter configured from the {@code api.log.*} system properties, writing to System.out.
+     */
+    public static AsyncLoggingFilter fromSystemProperties() {
+        return new AsyncLoggingFilter(
+                Mode.valueOf(System.getProperty(MODE_PROPERTY, "failures").trim().toUpperCase(Locale.ROOT)),
+                Integer.getInteger("api.log.sampleRate", 10),
+                Integer.getInteger("api.log.maxBodyChars", 4096),
+                new AsyncLogWriter(System.out, Integer.getInteger("api.log.queueCapacity", 1024)));
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            if (mode != Mode.OFF) {
+                writer.submit(format(requestSpec, null) + "<<< " + e);
+            }
+            throw e;
+        }
+        if (shouldLog(response.statusCode())) {
+            writer.submit(format(requestSpec, response));
+        }
+        return response;
+    }
+
+    private boolean shouldLog(int statusCode) {
+        return switch (mode) {
+            case ALL -> true;
+            case FAILURES -> statusCode >= 400;
+            case SAMPLED -> sequence.getAndIncrement() % sampleRate == 0;
+            case OFF -> false;
+        };
+    }
+
+    private String format(FilterableRequestSpecification requestSpec, Response response) {
+        StringBuilder entry = new StringBuilder(256)
+                .append(">>> ").append(requestSpec.getMethod()).append(' ').append(requestSpec.getURI()).append('\n');
+        Object requestBody = requestSpec.getBody();
+        if (requestBody != null) {
+            entry.append("Request body: ").append(truncate(bodyText(requestBody))).append('\n');
+        }
+        if (response != null) {
+            entry.append("<<< ").append(response.getStatusLine()).append(" (").append(response.getTime()).append(" ms)\n");
+            // The shared copy, which the test and the failure attachments read too; a large body is on disk
+            ResponseBody body = ResponseBody.of(response);
+            if (body.size() > 0) {
+                entry.append("Response body: ").append(head(body)).append('\n');
+            }
+        }
+        return entry.toString();
+    }
+
+    private static String bodyText(Object body) {
+        // ApiClient sends payloads already serialized to UTF-8 JSON bytes
+        return body instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(body);
+    }
+
+    private String truncate(String body) {
+        if (body.length() <= maxBodyChars) {
+            return body;
+        }
+        return body.substring(0, maxBodyChars) + "... [truncated, " + body.length() + " chars]";
+    }
+
+    /**
+     * Decodes a response body up to the size limit, leaving the rest unread.
+     */
+    private String head(ResponseBody body) {
+        char[] chars = new char[maxBodyChars];
+        int length = 0;
+        boolean truncated;
+        try (Reader in = new InputStreamReader(body.openStream(), StandardCharsets.UTF_8)) {
+            int read;
+            while (length < chars.length && (read = in.read(chars, length, chars.length - length)) != -1) {
+                length += read;
+            }
+            truncated = in.read() != -1;
+        } catch (IOException e) {
+            return "[unreadable: " + e + "]";
+        }
+        String text = new String(chars, 0, length);
+        return truncated ? text + "... [truncated, " + body.size() + " bytes]" : text;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Writes any queued entries; call once when the run ends.
+     */
+    @Override
+    public void close() {
+        writer.close();
+    }
+
+    @Override
+    public int getOrder() {
+        // Before the host limit and latency filters, so formatting never holds a permit or counts as latency
+        return DEFAULT_PRECEDENCE;
+    }
+}
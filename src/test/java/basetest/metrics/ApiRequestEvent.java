@@ -0,0 +1,48 @@
+package basetest.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for one API request, from just before it goes on the wire until its response headers
+ * are read. Emitted by {@link RunMetrics#captureFilter()}; the event's duration is the latency.
+ */
+@Name("basetest.ApiRequest")
+@Label("API Request")
+@Category({"API Tests", "HTTP"})
+@Description("A request sent by the API test suite")
+@StackTrace(false)
+class ApiRequestEvent extends Event {
+
+    @Label("Request Id")
+    @Description("Run-wide sequence number, shared with the schema validations of the response")
+    long requestId;
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Path with numeric segments folded into {id}, e.g. /api/users/{id}")
+    String endpoint;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Status")
+    @Description("HTTP status code, or 0 if the request failed")
+    int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @Description("Content-Length of the response, or -1 if it was not sent (chunked or compressed bodies)")
+    @DataAmount
+    long responseBytes;
+}
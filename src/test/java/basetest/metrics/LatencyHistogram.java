@@ -0,0 +1,138 @@
+package basetest.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, HDR-style latency histogram with log-linear buckets (about 1.5% relative precision).
+ * Values are recorded in microseconds; recording is a couple of atomic increments, so a single
+ * instance can be shared by many threads with low overhead.
+ * <p>
+ * Values below 128 µs get exact buckets; above that each power of two is split into 64 linear sub-buckets.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong minMicros = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Records one latency measured in nanoseconds.
+     *
+     * @param nanos Elapsed time in nanoseconds (negative values are recorded as zero)
+     */
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos)));
+    }
+
+    /**
+     * Records one latency measured in microseconds.
+     *
+     * @param micros Elapsed time in microseconds
+     */
+    public void recordMicros(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalMicros.add(value);
+        minMicros.accumulateAndGet(value, Math::min);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Adds every recorded value of another histogram into this one.
+     *
+     * @param other The histogram to merge in
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.count());
+        totalMicros.add(other.totalMicros.sum());
+        if (other.count() > 0) {
+            minMicros.accumulateAndGet(other.minMicros.get(), Math::min);
+            maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+        }
+    }
+
+    public long count() {
+        return totalCount.sum();
+    }
+
+    public long minMicros() {
+        return count() == 0 ? 0 : minMicros.get();
+    }
+
+    public long maxMicros() {
+        return maxMicros.get();
+    }
+
+    public double meanMicros() {
+        long count = count();
+        return count == 0 ? 0 : (double) totalMicros.sum() / count;
+    }
+
+    /**
+     * Returns the value at the given percentile, reported as the highest value of its bucket
+     * (never above the largest recorded value).
+     *
+     * @param percentile Percentile between 0 and 100, e.g. 99.9
+     * @return The latency in microseconds, or 0 if nothing was recorded
+     */
+    public long percentileMicros(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), maxMicros());
+            }
+        }
+        return maxMicros();
+    }
+
+    /**
+     * Convenience accessor for reports.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return The latency in milliseconds
+     */
+    public double percentileMillis(double percentile) {
+        return percentileMicros(percentile) / 1000.0;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift); // Between 64 and 127
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (mantissa - SUB_BUCKETS);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long mantissa = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
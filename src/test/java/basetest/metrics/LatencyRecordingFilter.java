@@ -0,0 +1,125 @@
+package basetest.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Records the response time of every request into one {@link LatencyHistogram} per method and endpoint,
+ * e.g. {@code GET /api/users/{id}}. Numeric path segments are folded into {@code {id}} and the query string is
+ * dropped, so {@code /users/2} and {@code /users/999} share a histogram.
+ * <p>
+ * {@link #writeReport(Path)} writes count, mean and p50/p90/p95/p99/max per endpoint as JSON; by default the
+ * suite writes it to {@code target/api-latency.json} when the run ends ({@code -Dapi.latency.report=path}).
+ */
+public class LatencyRecordingFilter implements OrderedFilter {
+
+    public static final String REPORT_PROPERTY = "api.latency.report";
+    public static final String DEFAULT_REPORT = "target/api-latency.json";
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 95, 99};
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long elapsed = System.nanoTime() - start;
+        histograms.computeIfAbsent(endpointKey(requestSpec.getMethod(), requestSpec.getURI()), k -> new LatencyHistogram())
+                .recordNanos(elapsed);
+        return response;
+    }
+
+    /**
+     * @param method HTTP method
+     * @param uri    Full request URI
+     * @return The histogram key, e.g. "GET /posts/{id}"
+     */
+    static String endpointKey(String method, String uri) {
+        String path = URI.create(uri).getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+        return method + " " + NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    /**
+     * @return The recorded histograms by endpoint key, sorted by key
+     */
+    public Map<String, LatencyHistogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Writes the per-endpoint latency summary as JSON, creating parent directories as needed.
+     * Nothing is written if no request was recorded.
+     *
+     * @param file Target file, e.g. target/api-latency.json
+     */
+    public void writeReport(Path file) {
+        Map<String, LatencyHistogram> snapshot = histograms();
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode report = mapper.createObjectNode()
+                .put("generatedAt", Instant.now().toString())
+                .put("unit", "ms");
+        ArrayNode endpoints = report.putArray("endpoints");
+        snapshot.forEach((key, histogram) -> {
+            ObjectNode entry = endpoints.addObject()
+                    .put("endpoint", key)
+                    .put("count", histogram.count())
+                    .put("min", histogram.minMicros() / 1000.0)
+                    .put("mean", Math.round(histogram.meanMicros()) / 1000.0);
+            for (double percentile : REPORTED_PERCENTILES) {
+                entry.put("p" + (int) percentile, histogram.percentileMillis(percentile));
+            }
+            entry.put("max", histogram.maxMicros() / 1000.0);
+        });
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            mapper.writeValue(file.toFile(), report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write latency report to " + file, e);
+        }
+    }
+
+    /**
+     * @return The report location from {@code -Dapi.latency.report}, or target/api-latency.json
+     */
+    public static Path reportPath() {
+        return Paths.get(System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT));
+    }
+
+    @Override
+    public int getOrder() {
+        // Same order as the host limit filter but registered after it, so waiting for a permit is not counted
+        return LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,88 @@
+package basetest.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP endpoint serving the live {@link RunMetrics} of the run as JSON, e.g.
+ * {@code curl http://127.0.0.1:9464/metrics} while the suite runs. Started by the suite with
+ * {@code -Dapi.metrics.port=N} (0 picks a free port, printed at startup); bound to the loopback address only and
+ * answered by a single daemon thread, so it never competes with the tests for more than that.
+ */
+public final class MetricsEndpoint implements AutoCloseable {
+
+    public static final String PORT_PROPERTY = "api.metrics.port";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RunMetrics metrics;
+
+    /**
+     * @param port    Port to listen on; 0 picks a free one
+     * @param metrics Metrics to serve
+     */
+    public MetricsEndpoint(int port, RunMetrics metrics) {
+        this.metrics = metrics;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start metrics endpoint on port " + port, e);
+        }
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/metrics", this::serve);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return The endpoint configured by {@code -Dapi.metrics.port}, or null if the property is not set
+     */
+    public static MetricsEndpoint fromSystemProperties(RunMetrics metrics) {
+        Integer port = Integer.getInteger(PORT_PROPERTY);
+        return port == null ? null : new MetricsEndpoint(port, metrics);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = MAPPER.writeValueAsBytes(metrics.snapshot(MAPPER));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * @return The URL of the metrics, e.g. http://127.0.0.1:9464/metrics
+     */
+    public String url() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort() + "/metrics";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,97 @@
+package basetest.metrics;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Timing samples per test, in milliseconds, as stored in the baseline file. A test key such as
+ * {@code ReqresGetTests.testGetUsers} holds a {@value PerformanceGate#TEST_SERIES} series with the test's own
+ * duration and one series per endpoint it calls, e.g. {@code GET /api/users}. Samples are rounded to 0.1 ms, and
+ * each series keeps only its {@value #MAX_SAMPLES} most recent samples, so the file stays small enough to review.
+ */
+public final class PerformanceBaseline {
+
+    static final int MAX_SAMPLES = 50;
+    private static final int VERSION = 1;
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Map<String, Map<String, double[]>> tests = new TreeMap<>();
+
+    /**
+     * @param file Baseline file
+     * @return The baseline, empty if the file does not exist
+     */
+    public static PerformanceBaseline load(Path file) {
+        PerformanceBaseline baseline = new PerformanceBaseline();
+        if (!Files.isRegularFile(file)) {
+            return baseline;
+        }
+        try {
+            JsonNode root = MAPPER.readTree(file.toFile());
+            if (root.path("version").asInt() != VERSION) {
+                throw new IllegalStateException("Performance baseline " + file + " is not version " + VERSION
+                        + "; record it again with -D" + PerformanceGate.MODE_PROPERTY + "=record");
+            }
+            Map<String, Map<String, double[]>> tests = MAPPER.convertValue(root.path("tests"), new TypeReference<>() { });
+            baseline.tests.putAll(tests);
+            return baseline;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read performance baseline " + file, e);
+        }
+    }
+
+    /**
+     * @return The samples of one series, empty if the baseline has none
+     */
+    public synchronized double[] samples(String test, String series) {
+        return tests.getOrDefault(test, Map.of()).getOrDefault(series, new double[0]);
+    }
+
+    /**
+     * Appends samples to a series, dropping the oldest beyond {@value #MAX_SAMPLES}.
+     */
+    public synchronized void add(String test, String series, double[] samples) {
+        double[] existing = samples(test, series);
+        double[] merged = Arrays.copyOf(existing, existing.length + samples.length);
+        for (int i = 0; i < samples.length; i++) {
+            merged[existing.length + i] = Math.round(samples[i] * 10) / 10.0;
+        }
+        tests.computeIfAbsent(test, k -> new TreeMap<>())
+                .put(series, Arrays.copyOfRange(merged, Math.max(0, merged.length - MAX_SAMPLES), merged.length));
+    }
+
+    public synchronized int testCount() {
+        return tests.size();
+    }
+
+    /**
+     * Writes the baseline, creating parent directories as needed.
+     */
+    public synchronized void save(Path file) {
+        ObjectNode root = MAPPER.createObjectNode().put("version", VERSION).put("unit", "ms");
+        root.set("tests", MAPPER.valueToTree(tests));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            MAPPER.writeValue(file.toFile(), root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write performance baseline " + file, e);
+        }
+    }
+}
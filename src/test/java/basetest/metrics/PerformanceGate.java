@@ -0,0 +1,325 @@
+package basetest.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Performance regression gate: times every test, and every request a test sends per endpoint, and compares the
+ * timings with a stored {@link PerformanceBaseline}.
+ * <p>
+ * A series is slower than its baseline when its median, or with at least {@value #MIN_TAIL_SAMPLES} samples its
+ * p95, is more than {@code threshold} times the baseline's and more than {@code noiseMs} above it. A series with
+ * fewer than {@value #MIN_TEST_SAMPLES} samples, such as the test's own duration, is held against the slowest baseline
+ * sample instead of its median. With at least
+ * {@value #MIN_TEST_SAMPLES} samples on both sides, a one-sided Mann-Whitney U test must also reject "same
+ * distribution" at p &lt; {@value #ALPHA}, so one slow outlier among fast requests does not count. Series with fewer
+ * than {@value #MIN_BASELINE_SAMPLES} baseline samples are not compared.
+ * <p>
+ * Only series with at least {@value #MIN_TEST_SAMPLES} samples can fail a test in check mode. Shorter series have
+ * no significance test to rule out a single slow request, so they are only flagged in the report.
+ * <p>
+ * Configured with system properties:
+ * <ul>
+ *     <li>{@code api.perf.mode}: {@code off} (default), {@code record} (add this run's timings to the baseline),
+ *     {@code check} (fail tests whose requests got slower) or {@code flag} (report them without failing)</li>
+ *     <li>{@code api.perf.baseline}: baseline file, default {@code src/test/resources/perf-baseline.json}; record it
+ *     against the same target and on the same kind of machine as the checks</li>
+ *     <li>{@code api.perf.threshold}: slowdown factor, default 2</li>
+ *     <li>{@code api.perf.noiseMs}: slowdowns up to this many milliseconds are ignored, default 10</li>
+ * </ul>
+ * Every comparison is written to {@code target/perf-gate.json} when the run ends ({@code -Dapi.perf.report=path}).
+ */
+public class PerformanceGate implements OrderedFilter {
+
+    public static final String MODE_PROPERTY = "api.perf.mode";
+    public static final String BASELINE_PROPERTY = "api.perf.baseline";
+    public static final String THRESHOLD_PROPERTY = "api.perf.threshold";
+    public static final String NOISE_PROPERTY = "api.perf.noiseMs";
+    public static final String REPORT_PROPERTY = "api.perf.report";
+    public static final String DEFAULT_BASELINE = "src/test/resources/perf-baseline.json";
+    public static final String DEFAULT_REPORT = "target/perf-gate.json";
+
+    // Series name of a test's own duration, next to the endpoint series
+    public static final String TEST_SERIES = "test";
+
+    static final int MIN_BASELINE_SAMPLES = 3;
+    public static final int MIN_TEST_SAMPLES = 5;
+    static final int MIN_TAIL_SAMPLES = 10;
+    static final double ALPHA = 0.01;
+
+    public enum Mode { OFF, RECORD, CHECK, FLAG }
+
+    public enum Verdict { OK, SLOWER, NO_BASELINE }
+
+    /**
+     * One series of one test compared with its baseline; times in milliseconds.
+     */
+    public record Comparison(String test, String series, Verdict verdict, int baselineSamples, int samples,
+                             double baselineMedian, double median, double baselineP95, double p95, double pValue) {
+
+        @Override
+        public String toString() {
+            String line = String.format("%s %s: median %.1f ms vs %.1f ms (%.1fx), p95 %.1f ms vs %.1f ms",
+                    test, series, median, baselineMedian, median / baselineMedian, p95, baselineP95);
+            return Double.isNaN(pValue) ? line : line + String.format(", p=%.4f", pValue);
+        }
+    }
+
+    /**
+     * Lazy holder for the gate configured from system properties.
+     */
+    private static final class Holder {
+        private static final PerformanceGate SHARED = fromSystemProperties();
+    }
+
+    private final Mode mode;
+    private final PerformanceBaseline baseline;
+    private final double threshold;
+    private final double noiseMs;
+    private final List<Comparison> comparisons = new ArrayList<>();
+    // Timings of the test running on this thread, shared with the threads it starts (fan-out calls)
+    private final InheritableThreadLocal<Map<String, Queue<Double>>> running = new InheritableThreadLocal<>();
+
+    /**
+     * @param mode      What to do with the timings
+     * @param baseline  Baseline compared with, and added to in record mode
+     * @param threshold Slowdown factor above which a series is slower
+     * @param noiseMs   Slowdowns up to this many milliseconds are ignored
+     */
+    public PerformanceGate(Mode mode, PerformanceBaseline baseline, double threshold, double noiseMs) {
+        this.mode = mode;
+        this.baseline = baseline;
+        this.threshold = threshold;
+        this.noiseMs = noiseMs;
+    }
+
+    /**
+     * @return The gate shared by the whole test suite
+     */
+    public static PerformanceGate shared() {
+        return Holder.SHARED;
+    }
+
+    private static PerformanceGate fromSystemProperties() {
+        Mode mode = Mode.valueOf(System.getProperty(MODE_PROPERTY, "off").trim().toUpperCase());
+        PerformanceBaseline baseline = mode == Mode.OFF ? new PerformanceBaseline() : PerformanceBaseline.load(baselinePath());
+        return new PerformanceGate(mode, baseline,
+                Double.parseDouble(System.getProperty(THRESHOLD_PROPERTY, "2")),
+                Double.parseDouble(System.getProperty(NOISE_PROPERTY, "10")));
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public PerformanceBaseline baseline() {
+        return baseline;
+    }
+
+    /**
+     * Starts timing the requests of a test on this thread and the threads it starts; the test is named when it
+     * {@link #finish(String, double) finishes}.
+     */
+    public void start() {
+        if (mode != Mode.OFF) {
+            running.set(new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Drops the timings of the test started on this thread.
+     */
+    public void discard() {
+        running.remove();
+    }
+
+    /**
+     * Ends a test started on this thread: adds its timings to the baseline in record mode, compares them with the
+     * baseline in check and flag mode.
+     *
+     * @param test           Test key, e.g. "ReqresGetTests.testGetUsers"
+     * @param durationMillis The test's own duration
+     * @return The comparisons of the test's series; empty unless checking or flagging
+     */
+    public List<Comparison> finish(String test, double durationMillis) {
+        Map<String, Queue<Double>> timings = running.get();
+        running.remove();
+        if (timings == null) {
+            return List.of();
+        }
+        Map<String, double[]> series = new TreeMap<>();
+        series.put(TEST_SERIES, new double[]{durationMillis});
+        timings.forEach((endpoint, samples) -> series.put(endpoint, samples.stream().mapToDouble(Double::doubleValue).toArray()));
+
+        if (mode == Mode.RECORD) {
+            series.forEach((name, samples) -> baseline.add(test, name, samples));
+            return List.of();
+        }
+        List<Comparison> results = new ArrayList<>();
+        series.forEach((name, samples) -> results.add(compare(test, name, baseline.samples(test, name), samples)));
+        synchronized (comparisons) {
+            comparisons.addAll(results);
+        }
+        return results;
+    }
+
+    /**
+     * The test's own duration is only flagged: it also carries one-time costs, such as class loading and schema
+     * compilation, that fall on whichever test runs first. So are endpoint series with fewer than
+     * {@value #MIN_TEST_SAMPLES} samples, where one slow request would be enough to fail the test.
+     *
+     * @return The test's endpoint series that are slower than their baseline, or null if there are none or the gate
+     * only flags them; the caller fails the test with it
+     */
+    public String failureMessage(List<Comparison> results) {
+        List<Comparison> slower = slower(results).stream()
+                .filter(result -> !result.series().equals(TEST_SERIES))
+                .filter(result -> result.samples() >= MIN_TEST_SAMPLES)
+                .toList();
+        if (slower.isEmpty() || mode != Mode.CHECK) {
+            return null;
+        }
+        return "Slower than the performance baseline (threshold " + threshold + "x, noise " + noiseMs + " ms):\n  "
+                + slower.stream().map(Comparison::toString).collect(Collectors.joining("\n  "));
+    }
+
+    public static List<Comparison> slower(List<Comparison> results) {
+        return results.stream().filter(result -> result.verdict() == Verdict.SLOWER).toList();
+    }
+
+    /**
+     * Compares one series of a test with its baseline samples; times in milliseconds.
+     */
+    public Comparison compare(String test, String series, double[] baselineSamples, double[] samples) {
+        double baselineMedian = SampleStatistics.median(baselineSamples);
+        double median = SampleStatistics.median(samples);
+        double baselineP95 = SampleStatistics.percentile(baselineSamples, 95);
+        double p95 = SampleStatistics.percentile(samples, 95);
+        if (baselineSamples.length < MIN_BASELINE_SAMPLES) {
+            return new Comparison(test, series, Verdict.NO_BASELINE, baselineSamples.length, samples.length,
+                    baselineMedian, median, baselineP95, p95, Double.NaN);
+        }
+        // A test's own duration is one sample per run: judge it against the slowest recorded run, not the middle
+        double reference = samples.length >= MIN_TEST_SAMPLES ? baselineMedian : SampleStatistics.percentile(baselineSamples, 100);
+        boolean medianSlower = median > reference * threshold && median - reference > noiseMs;
+        boolean tailSlower = samples.length >= MIN_TAIL_SAMPLES
+                && p95 > baselineP95 * threshold && p95 - baselineP95 > noiseMs;
+        double pValue = samples.length >= MIN_TEST_SAMPLES && baselineSamples.length >= MIN_TEST_SAMPLES
+                ? SampleStatistics.slowerPValue(samples, baselineSamples) : Double.NaN;
+        boolean significant = Double.isNaN(pValue) || pValue < ALPHA;
+        Verdict verdict = (medianSlower || tailSlower) && significant ? Verdict.SLOWER : Verdict.OK;
+        return new Comparison(test, series, verdict, baselineSamples.length, samples.length,
+                baselineMedian, median, baselineP95, p95, pValue);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Map<String, Queue<Double>> timings = running.get();
+        if (timings == null) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        double elapsedMillis = (System.nanoTime() - start) / 1e6;
+        timings.computeIfAbsent(LatencyRecordingFilter.endpointKey(requestSpec.getMethod(), requestSpec.getURI()),
+                k -> new ConcurrentLinkedQueue<>()).add(elapsedMillis);
+        return response;
+    }
+
+    @Override
+    public int getOrder() {
+        // Same order as the latency filter and registered after it, so waiting for a host permit is not counted
+        return LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * Saves the baseline in record mode; writes the comparisons in check and flag mode.
+     */
+    public void close() {
+        if (mode == Mode.RECORD) {
+            baseline.save(baselinePath());
+        } else if (mode != Mode.OFF) {
+            writeReport(reportPath());
+        }
+    }
+
+    /**
+     * Writes every comparison of the run as JSON, slower series first.
+     */
+    public void writeReport(Path file) {
+        List<Comparison> snapshot;
+        synchronized (comparisons) {
+            snapshot = new ArrayList<>(comparisons);
+        }
+        snapshot.sort((a, b) -> a.verdict() == b.verdict()
+                ? (a.test() + a.series()).compareTo(b.test() + b.series())
+                : Boolean.compare(a.verdict() != Verdict.SLOWER, b.verdict() != Verdict.SLOWER));
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode report = mapper.createObjectNode()
+                .put("generatedAt", Instant.now().toString())
+                .put("mode", mode.name().toLowerCase())
+                .put("threshold", threshold)
+                .put("noiseMs", noiseMs)
+                .put("unit", "ms");
+        ArrayNode entries = report.putArray("comparisons");
+        snapshot.forEach(comparison -> entries.add(mapper.valueToTree(comparison)));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            mapper.writeValue(file.toFile(), report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write performance gate report to " + file, e);
+        }
+    }
+
+    /**
+     * @return One line with the gate counters, e.g. for the end of the run
+     */
+    public String summary() {
+        List<Comparison> snapshot;
+        synchronized (comparisons) {
+            snapshot = new ArrayList<>(comparisons);
+        }
+        return switch (mode) {
+            case OFF -> "Performance gate: off";
+            case RECORD -> "Performance gate: baseline of " + baseline.testCount() + " tests written to " + baselinePath();
+            case CHECK, FLAG -> String.format("Performance gate (%s): %d series compared, %d slower, %d without baseline -> %s",
+                    mode.name().toLowerCase(), snapshot.size(), slower(snapshot).size(),
+                    snapshot.stream().filter(c -> c.verdict() == Verdict.NO_BASELINE).count(), reportPath());
+        };
+    }
+
+    public static Path baselinePath() {
+        return Paths.get(System.getProperty(BASELINE_PROPERTY, DEFAULT_BASELINE));
+    }
+
+    public static Path reportPath() {
+        return Paths.get(System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT));
+    }
+}
@@ -0,0 +1,61 @@
+package basetest.metrics;
+
+import basetest.reporting.AttachmentService;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Times each test and the requests it sends for the {@link PerformanceGate}, keyed by class and method, e.g.
+ * {@code ReqresGetTests.testGetUsers}. Only passing tests are recorded or compared. A test slower than its baseline
+ * gets a "Performance" attachment, and fails when the gate checks and one of its requests got slower. Dynamic tests
+ * run after their factory method returns and are timed as part of no test.
+ */
+public class PerformanceGateExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(PerformanceGateExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        PerformanceGate gate = PerformanceGate.shared();
+        if (gate.mode() == PerformanceGate.Mode.OFF) {
+            return;
+        }
+        gate.start();
+        context.getStore(NAMESPACE).put(context.getUniqueId(), System.nanoTime());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        PerformanceGate gate = PerformanceGate.shared();
+        Long start = context.getStore(NAMESPACE).remove(context.getUniqueId(), Long.class);
+        if (start == null) {
+            return;
+        }
+        double durationMillis = (System.nanoTime() - start) / 1e6;
+        String test = testKey(context);
+        if (context.getExecutionException().isPresent()) {
+            // A failed test's duration says nothing about its speed
+            gate.discard();
+            return;
+        }
+        List<PerformanceGate.Comparison> results = gate.finish(test, durationMillis);
+        List<PerformanceGate.Comparison> slower = PerformanceGate.slower(results);
+        if (slower.isEmpty()) {
+            return;
+        }
+        AttachmentService.shared().attach("Performance", "text/plain",
+                slower.stream().map(PerformanceGate.Comparison::toString).collect(Collectors.joining("\n")));
+        String failure = gate.failureMessage(results);
+        if (failure != null) {
+            throw new AssertionError(failure);
+        }
+    }
+
+    static String testKey(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+    }
+}
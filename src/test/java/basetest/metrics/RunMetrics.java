@@ -0,0 +1,278 @@
+package basetest.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live instrumentation of the test run: every request and every JSON schema validation is counted per endpoint
+ * while the suite runs, and emitted as a JDK Flight Recorder event ({@link ApiRequestEvent},
+ * {@link SchemaValidationEvent}). Events cost next to nothing unless a recording is running, e.g.
+ * {@code -DargLine="-XX:StartFlightRecording=filename=target/api-run.jfr"}; the counters can be watched during
+ * the run through a {@link MetricsEndpoint} ({@code -Dapi.metrics.port=N}).
+ * <p>
+ * A schema validation given the response it checks is attributed to the request that produced that response,
+ * whichever thread validates it; one without is attributed to the last request sent on the same thread.
+ */
+public final class RunMetrics {
+
+    private static final double[] REPORTED_PERCENTILES = {50, 95, 99};
+
+    /**
+     * Lazy holder for the instance shared by the suite.
+     */
+    private static final class Holder {
+        private static final RunMetrics SHARED = new RunMetrics();
+    }
+
+    /**
+     * Counters of one endpoint, updated concurrently.
+     */
+    private static final class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram schemaValidation = new LatencyHistogram();
+        final Map<Integer, LongAdder> statusClasses = new ConcurrentHashMap<>();
+        final LongAdder errors = new LongAdder();
+        final LongAdder requestBytes = new LongAdder();
+        final LongAdder responseBytes = new LongAdder();
+        final LongAdder invalidBodies = new LongAdder();
+    }
+
+    /**
+     * The endpoint and id of the last request sent on a thread.
+     */
+    private record LastRequest(long id, String endpoint, EndpointStats stats) {
+    }
+
+    private final long startedNanos = System.nanoTime();
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong requestIds = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> schemas = new ConcurrentHashMap<>();
+    private final ThreadLocal<LastRequest> lastRequest = new ThreadLocal<>();
+    // The request behind each timed response, dropped together with the response
+    private final Map<Response, LastRequest> requestsByResponse = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @return The metrics shared by the whole test suite
+     */
+    public static RunMetrics shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * @return A REST Assured filter that times every request; register it after the per-host limit filter, so
+     * waiting for a permit is not counted
+     */
+    public OrderedFilter captureFilter() {
+        return new OrderedFilter() {
+            @Override
+            public Response filter(FilterableRequestSpecification requestSpec,
+                                   FilterableResponseSpecification responseSpec,
+                                   FilterContext ctx) {
+                return record(requestSpec, responseSpec, ctx);
+            }
+
+            @Override
+            public int getOrder() {
+                return LOWEST_PRECEDENCE;
+            }
+        };
+    }
+
+    private Response record(FilterableRequestSpecification requestSpec,
+                            FilterableResponseSpecification responseSpec,
+                            FilterContext ctx) {
+        String endpoint = LatencyRecordingFilter.endpointKey(requestSpec.getMethod(), requestSpec.getURI());
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, k -> new EndpointStats());
+        long id = requestIds.incrementAndGet();
+        long requestBytes = requestBytes(requestSpec.getBody());
+        LastRequest request = new LastRequest(id, endpoint, stats);
+        lastRequest.set(request);
+
+        ApiRequestEvent event = new ApiRequestEvent();
+        event.begin();
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            requestsByResponse.put(response, request);
+            return response;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            inFlight.decrementAndGet();
+            event.end();
+            int status = response == null ? 0 : response.statusCode();
+            long responseBytes = response == null ? -1 : contentLength(response);
+
+            stats.latency.recordNanos(elapsed);
+            stats.requestBytes.add(requestBytes);
+            if (responseBytes > 0) {
+                stats.responseBytes.add(responseBytes);
+            }
+            if (response == null) {
+                stats.errors.increment();
+            } else {
+                stats.statusClasses.computeIfAbsent(status / 100, k -> new LongAdder()).increment();
+            }
+
+            if (event.shouldCommit()) {
+                event.requestId = id;
+                event.method = requestSpec.getMethod();
+                event.endpoint = endpoint.substring(endpoint.indexOf(' ') + 1);
+                event.uri = requestSpec.getURI();
+                event.status = status;
+                event.requestBytes = requestBytes;
+                event.responseBytes = responseBytes;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Starts timing a schema validation, attributed to the last request sent on the current thread.
+     *
+     * @param schema Schema file name, e.g. "Rsingle-user-schema.json"
+     * @return Call {@link SchemaValidation#finish(boolean)} on it once the validation is done
+     */
+    public SchemaValidation startSchemaValidation(String schema) {
+        return startSchemaValidation(schema, null);
+    }
+
+    /**
+     * Starts timing the schema validation of a response, attributed to the request that produced it, so a response
+     * fetched on a fan-out thread is counted against its own endpoint wherever it is checked. A response that was
+     * not sent through {@link #captureFilter()}, e.g. a replayed one, is counted per schema only.
+     *
+     * @param schema   Schema file name, e.g. "Rsingle-user-schema.json"
+     * @param response The response being validated, or null for the last request sent on the current thread
+     * @return Call {@link SchemaValidation#finish(boolean)} on it once the validation is done
+     */
+    public SchemaValidation startSchemaValidation(String schema, Response response) {
+        return new SchemaValidation(schema, response == null ? lastRequest.get() : requestsByResponse.get(response));
+    }
+
+    /**
+     * A schema validation in progress.
+     */
+    public final class SchemaValidation {
+
+        private final String schema;
+        private final LastRequest request;
+        private final SchemaValidationEvent event = new SchemaValidationEvent();
+        private final long start;
+
+        private SchemaValidation(String schema, LastRequest request) {
+            this.schema = schema;
+            this.request = request;
+            event.begin();
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * @param valid Whether the body matched the schema
+         */
+        public void finish(boolean valid) {
+            long elapsed = System.nanoTime() - start;
+            event.end();
+            schemas.computeIfAbsent(schema, k -> new LatencyHistogram()).recordNanos(elapsed);
+            if (request != null) {
+                request.stats().schemaValidation.recordNanos(elapsed);
+                if (!valid) {
+                    request.stats().invalidBodies.increment();
+                }
+            }
+            if (event.shouldCommit()) {
+                event.requestId = request == null ? 0 : request.id();
+                event.endpoint = request == null ? null : request.endpoint();
+                event.schema = schema;
+                event.valid = valid;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * @return Requests sent so far
+     */
+    public long requests() {
+        return requestIds.get();
+    }
+
+    /**
+     * @return The live counters as JSON: requests in flight, and per endpoint the status classes, bytes,
+     * latency and schema validation time percentiles (in milliseconds)
+     */
+    public ObjectNode snapshot(ObjectMapper mapper) {
+        ObjectNode root = mapper.createObjectNode()
+                .put("startedAt", startedAt.toString())
+                .put("uptimeSeconds", Math.round((System.nanoTime() - startedNanos) / 1e7) / 100.0)
+                .put("requests", requests())
+                .put("inFlight", inFlight.get())
+                .put("unit", "ms");
+        ArrayNode endpointEntries = root.putArray("endpoints");
+        new TreeMap<>(endpoints).forEach((endpoint, stats) -> {
+            ObjectNode entry = endpointEntries.addObject()
+                    .put("endpoint", endpoint)
+                    .put("count", stats.latency.count())
+                    .put("errors", stats.errors.sum())
+                    .put("requestBytes", stats.requestBytes.sum())
+                    .put("responseBytes", stats.responseBytes.sum());
+            ObjectNode statuses = entry.putObject("status");
+            new TreeMap<>(stats.statusClasses).forEach((statusClass, count) -> statuses.put(statusClass + "xx", count.sum()));
+            putPercentiles(entry.putObject("latency"), stats.latency);
+            putPercentiles(entry.putObject("schemaValidation"), stats.schemaValidation)
+                    .put("invalid", stats.invalidBodies.sum());
+        });
+        ArrayNode schemaEntries = root.putArray("schemas");
+        new TreeMap<>(schemas).forEach((schema, histogram) ->
+                putPercentiles(schemaEntries.addObject().put("schema", schema), histogram));
+        return root;
+    }
+
+    private static ObjectNode putPercentiles(ObjectNode node, LatencyHistogram histogram) {
+        node.put("count", histogram.count())
+                .put("mean", Math.round(histogram.meanMicros()) / 1000.0);
+        for (double percentile : REPORTED_PERCENTILES) {
+            node.put("p" + (int) percentile, histogram.percentileMillis(percentile));
+        }
+        return node.put("max", histogram.maxMicros() / 1000.0);
+    }
+
+    private static long requestBytes(Object body) {
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        return body instanceof String text ? text.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+
+    private static long contentLength(Response response) {
+        String header = response.getHeader("Content-Length");
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
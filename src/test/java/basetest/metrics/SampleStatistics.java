@@ -0,0 +1,79 @@
+package basetest.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Order statistics and a rank test over small samples of timings.
+ */
+public final class SampleStatistics {
+
+    private SampleStatistics() {
+    }
+
+    public static double median(double[] samples) {
+        return percentile(samples, 50);
+    }
+
+    /**
+     * @return The percentile by linear interpolation between closest ranks, or NaN for no samples
+     */
+    public static double percentile(double[] samples, double percentile) {
+        if (samples.length == 0) {
+            return Double.NaN;
+        }
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        double rank = percentile / 100 * (sorted.length - 1);
+        int below = (int) Math.floor(rank);
+        int above = (int) Math.ceil(rank);
+        return sorted[below] + (sorted[above] - sorted[below]) * (rank - below);
+    }
+
+    /**
+     * One-sided Mann-Whitney U test, normal approximation with continuity correction. Tied values share their
+     * average rank.
+     *
+     * @return The probability of seeing {@code current} rank this far above {@code baseline} if both came from the
+     * same distribution; small values mean {@code current} is really slower
+     */
+    public static double slowerPValue(double[] current, double[] baseline) {
+        int n1 = current.length;
+        int n2 = baseline.length;
+        double[][] all = new double[n1 + n2][];
+        for (int i = 0; i < n1; i++) {
+            all[i] = new double[]{current[i], 1};
+        }
+        for (int i = 0; i < n2; i++) {
+            all[n1 + i] = new double[]{baseline[i], 0};
+        }
+        Arrays.sort(all, (a, b) -> Double.compare(a[0], b[0]));
+
+        double currentRanks = 0;
+        for (int i = 0; i < all.length; ) {
+            int end = i;
+            while (end + 1 < all.length && all[end + 1][0] == all[i][0]) {
+                end++;
+            }
+            double rank = (i + end) / 2.0 + 1;
+            for (int j = i; j <= end; j++) {
+                currentRanks += all[j][1] * rank;
+            }
+            i = end + 1;
+        }
+        double u = currentRanks - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        double deviation = Math.sqrt(n1 * (double) n2 * (n1 + n2 + 1) / 12);
+        return 1 - normalCdf((u - mean - 0.5) / deviation);
+    }
+
+    /**
+     * Standard normal CDF (Abramowitz and Stegun 7.1.26, error below 1.5e-7).
+     */
+    private static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))))
+                * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
@@ -0,0 +1,36 @@
+package basetest.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for one JSON schema validation of a response body. It carries the id of the request
+ * that produced the response, whichever thread validates it, so a recording can put the two together; without a
+ * response, the last request sent on the validating thread. Emitted through
+ * {@link RunMetrics#startSchemaValidation(String, io.restassured.response.Response)}.
+ */
+@Name("basetest.SchemaValidation")
+@Label("Schema Validation")
+@Category({"API Tests", "JSON Schema"})
+@Description("A response body validated against a JSON schema")
+@StackTrace(false)
+class SchemaValidationEvent extends Event {
+
+    @Label("Request Id")
+    @Description("Id of the API request behind the validated response, or 0 if it was not captured")
+    long requestId;
+
+    @Label("Endpoint")
+    @Description("Method and endpoint of that request, e.g. GET /api/users/{id}")
+    String endpoint;
+
+    @Label("Schema")
+    String schema;
+
+    @Label("Valid")
+    boolean valid;
+}
@@ -0,0 +1,90 @@
+package basetest.replay;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A response as kept in the {@link ReplayStore}: status, headers and body, plus when it was recorded.
+ *
+ * @param statusCode       HTTP status code
+ * @param statusLine       Full status line, e.g. "HTTP/1.1 200 OK"
+ * @param contentType      Content-Type header value, or "" if there was none
+ * @param headers          All response headers, in the order received
+ * @param body             Response body bytes
+ * @param recordedAtMillis Recording time, epoch milliseconds
+ */
+public record RecordedResponse(int statusCode, String statusLine, String contentType,
+                               List<Header> headers, byte[] body, long recordedAtMillis) {
+
+    /**
+     * Copies a live response. The body is read fully, which also returns a pooled connection.
+     */
+    static RecordedResponse of(Response response, long recordedAtMillis) {
+        List<Header> headers = new ArrayList<>(response.getHeaders().asList());
+        String contentType = response.getContentType() == null ? "" : response.getContentType();
+        return new RecordedResponse(response.getStatusCode(), response.getStatusLine(), contentType,
+                headers, response.asByteArray(), recordedAtMillis);
+    }
+
+    /**
+     * @return A RestAssured response that can be asserted on like one that came over the network
+     */
+    Response toResponse() {
+        return new ResponseBuilder()
+                .setStatusCode(statusCode)
+                .setStatusLine(statusLine)
+                .setHeaders(new Headers(headers))
+                .setContentType(contentType)
+                .setBody(body)
+                .build();
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(recordedAtMillis);
+            out.writeShort(statusCode);
+            out.writeUTF(statusLine);
+            out.writeUTF(contentType);
+            out.writeShort(headers.size());
+            for (Header header : headers) {
+                out.writeUTF(header.getName());
+                out.writeUTF(header.getValue());
+            }
+            out.writeInt(body.length);
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static RecordedResponse decode(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            long recordedAtMillis = in.readLong();
+            int statusCode = in.readUnsignedShort();
+            String statusLine = in.readUTF();
+            String contentType = in.readUTF();
+            int headerCount = in.readUnsignedShort();
+            List<Header> headers = new ArrayList<>(headerCount);
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(new Header(in.readUTF(), in.readUTF()));
+            }
+            byte[] body = in.readNBytes(in.readInt());
+            return new RecordedResponse(statusCode, statusLine, contentType, headers, body, recordedAtMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt replay record", e);
+        }
+    }
+}
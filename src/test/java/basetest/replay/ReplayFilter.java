@@ -0,0 +1,140 @@
+package basetest.replay;
+
+import basetest.schema.SchemaRegistry;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records responses to a {@link ReplayStore} and serves them back without touching the network, so reruns of
+ * the read-only suites (ReqresGetTests, JSONPlaceholderGet, ...) are fast and deterministic.
+ * <p>
+ * Configured with system properties:
+ * <ul>
+ *     <li>{@code api.replay.mode}: {@code off} (default), {@code record} (every request goes to the network and
+ *     its response is stored) or {@code replay} (stored responses are served; other requests go to the network)</li>
+ *     <li>{@code api.replay.dir}: store directory, default {@code src/test/resources/replay}</li>
+ *     <li>{@code api.replay.maxAge}: ISO-8601 duration, e.g. {@code P7D}; older recordings are ignored</li>
+ *     <li>{@code api.replay.strict}: in replay mode, fail requests that have no recording instead of sending them</li>
+ * </ul>
+ * Recordings made while the schema files were different are ignored, see {@link SchemaRegistry#contentHash()}.
+ * <p>
+ * A replayed response takes no host permit and is not timed: the latency recorder, run metrics and performance
+ * gate only see requests that went to the network. Logging and attachments see replayed responses too.
+ */
+public class ReplayFilter implements OrderedFilter, AutoCloseable {
+
+    public static final String MODE_PROPERTY = "api.replay.mode";
+    public static final String DIRECTORY_PROPERTY = "api.replay.dir";
+    public static final String MAX_AGE_PROPERTY = "api.replay.maxAge";
+    public static final String STRICT_PROPERTY = "api.replay.strict";
+    public static final String DEFAULT_DIRECTORY = "src/test/resources/replay";
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    private final Mode mode;
+    private final ReplayStore store;
+    private final boolean strict;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder recordings = new LongAdder();
+
+    public ReplayFilter(Mode mode, ReplayStore store, boolean strict) {
+        this.mode = mode;
+        this.store = store;
+        this.strict = strict;
+    }
+
+    /**
+     * @return A filter configured from the {@code api.replay.*} system properties
+     */
+    public static ReplayFilter fromSystemProperties() {
+        Mode mode = Mode.valueOf(System.getProperty(MODE_PROPERTY, "off").trim().toUpperCase());
+        if (mode == Mode.OFF) {
+            return new ReplayFilter(mode, null, false);
+        }
+        ReplayStore store = openStore();
+        if (store.ignoredReason() != null) {
+            System.out.println("Replay store not used: " + store.ignoredReason());
+        }
+        return new ReplayFilter(mode, store, Boolean.getBoolean(STRICT_PROPERTY));
+    }
+
+    /**
+     * @return The store in {@code api.replay.dir}, with the {@code api.replay.maxAge} limit applied
+     */
+    public static ReplayStore openStore() {
+        String maxAge = System.getProperty(MAX_AGE_PROPERTY);
+        return ReplayStore.open(Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY)),
+                SchemaRegistry.getInstance().contentHash(),
+                maxAge == null || maxAge.isBlank() ? null : Duration.parse(maxAge));
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (mode == Mode.OFF) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        RequestFingerprint fingerprint = RequestFingerprint.of(requestSpec);
+
+        if (mode == Mode.REPLAY) {
+            Optional<RecordedResponse> recorded = store.find(fingerprint);
+            if (recorded.isPresent()) {
+                hits.increment();
+                return recorded.get().toResponse();
+            }
+            misses.increment();
+            if (strict) {
+                throw new IllegalStateException("No recorded response for " + requestSpec.getMethod() + " "
+                        + requestSpec.getURI() + " (" + STRICT_PROPERTY + "=true)");
+            }
+            return ctx.next(requestSpec, responseSpec);
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+        store.record(fingerprint, RecordedResponse.of(response, System.currentTimeMillis()));
+        recordings.increment();
+        return response;
+    }
+
+    /**
+     * @return One line with the replay counters, e.g. for the end of the run
+     */
+    public String summary() {
+        return switch (mode) {
+            case OFF -> "Replay: off";
+            case RECORD -> "Replay: recorded " + recordings.sum() + " responses";
+            case REPLAY -> "Replay: " + hits.sum() + " served from the store, " + misses.sum() + " not recorded";
+        };
+    }
+
+    /**
+     * Writes this run's recordings to the store files.
+     */
+    @Override
+    public void close() {
+        if (store != null) {
+            store.flush();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // After logging, attachment capture and retries, before the host limit and the timing filters, so
+        // responses served from the store do not count as network latency
+        return DEFAULT_PRECEDENCE + 2;
+    }
+}
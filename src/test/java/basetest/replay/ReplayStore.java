@@ -0,0 +1,229 @@
+package basetest.replay;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * On-disk store of recorded responses, keyed by {@link RequestFingerprint}, made of two files:
+ * <ul>
+ *     <li>{@code responses.dat}: the encoded {@link RecordedResponse}s, back to back</li>
+ *     <li>{@code responses.idx}: a header (format version, the schema hash the store was recorded with and the
+ *     expected data file length) followed by fixed-size entries sorted by fingerprint: fingerprint, record
+ *     offset, record length and recording time</li>
+ * </ul>
+ * Both files are memory-mapped when the store is opened; a lookup is a binary search over the index and a copy
+ * of one record, with no parsing of the rest of the store.
+ * <p>
+ * A store recorded against a different set of schemas (see {@code SchemaRegistry.contentHash()}) is ignored as a
+ * whole, and entries older than the maximum age are treated as missing. New recordings are kept in memory and
+ * merged into the files by {@link #flush()}.
+ */
+public final class ReplayStore implements AutoCloseable {
+
+    public static final String INDEX_FILE = "responses.idx";
+    public static final String DATA_FILE = "responses.dat";
+
+    private static final int MAGIC = 0x52504C59; // "RPLY"
+    private static final int VERSION = 1;
+    private static final int HASH_BYTES = 32;
+    // magic, version, schema hash, data file length, entry count
+    private static final int HEADER_BYTES = 4 + 4 + HASH_BYTES + 8 + 4;
+    // high, low, offset, length, recordedAtMillis
+    private static final int ENTRY_BYTES = 8 + 8 + 8 + 4 + 8;
+
+    private final Path directory;
+    private final byte[] schemaHash;
+    private final Duration maxAge;
+    private final MappedByteBuffer index;
+    private final MappedByteBuffer data;
+    private final int entryCount;
+    private final String ignoredReason;
+    private final Map<RequestFingerprint, byte[]> recorded = new ConcurrentSkipListMap<>();
+
+    private ReplayStore(Path directory, byte[] schemaHash, Duration maxAge,
+                        MappedByteBuffer index, MappedByteBuffer data, String ignoredReason) {
+        this.directory = directory;
+        this.schemaHash = schemaHash;
+        this.maxAge = maxAge;
+        this.index = index;
+        this.data = data;
+        this.entryCount = index == null ? 0 : (index.capacity() - HEADER_BYTES) / ENTRY_BYTES;
+        this.ignoredReason = ignoredReason;
+    }
+
+    /**
+     * Opens (or starts) the store in a directory.
+     *
+     * @param directory  Store directory, e.g. src/test/resources/replay
+     * @param schemaHash Hash of the current schema files; a store recorded with another hash is ignored
+     * @param maxAge     Maximum age of a usable entry, or null for no limit
+     * @return The store; empty if the directory holds no usable store yet
+     */
+    public static ReplayStore open(Path directory, String schemaHash, Duration maxAge) {
+        byte[] hash = Arrays.copyOf(schemaHash.getBytes(StandardCharsets.US_ASCII), HASH_BYTES);
+        Path indexFile = directory.resolve(INDEX_FILE);
+        Path dataFile = directory.resolve(DATA_FILE);
+        if (!Files.isRegularFile(indexFile) || !Files.isRegularFile(dataFile)) {
+            return new ReplayStore(directory, hash, maxAge, null, null, null);
+        }
+        try {
+            MappedByteBuffer index = map(indexFile);
+            if (index.capacity() < HEADER_BYTES || index.getInt(0) != MAGIC || index.getInt(4) != VERSION) {
+                return new ReplayStore(directory, hash, maxAge, null, null, indexFile + " is not a version " + VERSION + " replay index");
+            }
+            byte[] storedHash = new byte[HASH_BYTES];
+            index.get(8, storedHash);
+            if (!Arrays.equals(storedHash, hash)) {
+                return new ReplayStore(directory, hash, maxAge, null, null, "the schema files changed since it was recorded");
+            }
+            MappedByteBuffer data = map(dataFile);
+            if (data.capacity() != index.getLong(8 + HASH_BYTES)) {
+                return new ReplayStore(directory, hash, maxAge, null, null, dataFile + " does not match its index");
+            }
+            return new ReplayStore(directory, hash, maxAge, index, data, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open replay store in " + directory, e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Looks a request up, preferring responses recorded during this run.
+     *
+     * @param fingerprint The request fingerprint
+     * @return The recorded response, or empty if there is none or it is older than the maximum age
+     */
+    public Optional<RecordedResponse> find(RequestFingerprint fingerprint) {
+        byte[] fresh = recorded.get(fingerprint);
+        if (fresh != null) {
+            return Optional.of(RecordedResponse.decode(fresh));
+        }
+        int entry = search(fingerprint);
+        if (entry < 0 || isExpired(index.getLong(entryPosition(entry) + 28))) {
+            return Optional.empty();
+        }
+        int position = entryPosition(entry);
+        byte[] record = new byte[index.getInt(position + 24)];
+        data.get((int) index.getLong(position + 16), record);
+        return Optional.of(RecordedResponse.decode(record));
+    }
+
+    private int search(RequestFingerprint fingerprint) {
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int position = entryPosition(middle);
+            int comparison = new RequestFingerprint(index.getLong(position), index.getLong(position + 8)).compareTo(fingerprint);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static int entryPosition(int entry) {
+        return HEADER_BYTES + entry * ENTRY_BYTES;
+    }
+
+    private boolean isExpired(long recordedAtMillis) {
+        return maxAge != null && recordedAtMillis < System.currentTimeMillis() - maxAge.toMillis();
+    }
+
+    /**
+     * Keeps a response for the request, replacing any earlier recording once {@link #flush()} runs.
+     */
+    public void record(RequestFingerprint fingerprint, RecordedResponse response) {
+        recorded.put(fingerprint, response.encode());
+    }
+
+    /**
+     * @return Number of usable entries: stored ones plus those recorded during this run
+     */
+    public int size() {
+        return (int) (entryCount + recorded.keySet().stream().filter(f -> search(f) < 0).count());
+    }
+
+    /**
+     * @return Why the files found in the store directory were not used, or null if they were (or there were none)
+     */
+    public String ignoredReason() {
+        return ignoredReason;
+    }
+
+    /**
+     * Writes the stored entries that are still within the maximum age plus this run's recordings to the store
+     * files. Nothing is written if nothing was recorded.
+     */
+    public synchronized void flush() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        Map<RequestFingerprint, byte[]> entries = new TreeMap<>();
+        for (int entry = 0; entry < entryCount; entry++) {
+            int position = entryPosition(entry);
+            if (!isExpired(index.getLong(position + 28))) {
+                byte[] record = new byte[index.getInt(position + 24)];
+                data.get((int) index.getLong(position + 16), record);
+                entries.put(new RequestFingerprint(index.getLong(position), index.getLong(position + 8)), record);
+            }
+        }
+        entries.putAll(recorded);
+
+        try {
+            Files.createDirectories(directory);
+            Path dataFile = Files.createTempFile(directory, DATA_FILE, ".tmp");
+            Path indexFile = Files.createTempFile(directory, INDEX_FILE, ".tmp");
+            ByteBuffer indexBytes = ByteBuffer.allocate(HEADER_BYTES + entries.size() * ENTRY_BYTES)
+                    .putInt(MAGIC).putInt(VERSION).put(schemaHash)
+                    .putLong(entries.values().stream().mapToLong(record -> record.length).sum())
+                    .putInt(entries.size());
+            try (OutputStream out = Files.newOutputStream(dataFile)) {
+                long offset = 0;
+                for (Map.Entry<RequestFingerprint, byte[]> entry : entries.entrySet()) {
+                    byte[] record = entry.getValue();
+                    out.write(record);
+                    indexBytes.putLong(entry.getKey().high()).putLong(entry.getKey().low())
+                            .putLong(offset).putInt(record.length)
+                            .putLong(RecordedResponse.decode(record).recordedAtMillis());
+                    offset += record.length;
+                }
+            }
+            Files.write(indexFile, indexBytes.array());
+            // An index left next to a data file it was not written with is rejected by its length check
+            Files.move(dataFile, directory.resolve(DATA_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(indexFile, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write replay store in " + directory, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,103 @@
+package basetest.replay;
+
+import io.restassured.specification.FilterableRequestSpecification;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 128-bit identity of a request: the first half of a SHA-256 over method, host, path, query and body.
+ * The port is left out on purpose, so responses recorded against a local stand-in on one random port
+ * replay on the next run's port.
+ */
+public final class RequestFingerprint implements Comparable<RequestFingerprint> {
+
+    private final long high;
+    private final long low;
+
+    RequestFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * @param method HTTP method
+     * @param uri    Full request URI, including the query string
+     * @param body   Request body, or null/empty for none
+     * @return The fingerprint of the request
+     */
+    public static RequestFingerprint of(String method, String uri, byte[] body) {
+        URI parsed = URI.create(uri);
+        String target = method.toUpperCase() + " " + parsed.getHost() + parsed.getRawPath()
+                + (parsed.getRawQuery() == null ? "" : "?" + parsed.getRawQuery()) + "\n";
+        MessageDigest digest = sha256();
+        digest.update(target.getBytes(StandardCharsets.UTF_8));
+        if (body != null) {
+            digest.update(body);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new RequestFingerprint(hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * @param requestSpec A request about to be sent, e.g. in a filter
+     * @return The fingerprint of the request
+     */
+    public static RequestFingerprint of(FilterableRequestSpecification requestSpec) {
+        Object body = requestSpec.getBody();
+        byte[] bytes = body == null ? null
+                : body instanceof byte[] raw ? raw : body.toString().getBytes(StandardCharsets.UTF_8);
+        return of(requestSpec.getMethod(), requestSpec.getURI(), bytes);
+    }
+
+    /**
+     * @param hex A fingerprint as written by {@link #toString()}
+     * @return The fingerprint
+     */
+    public static RequestFingerprint parse(String hex) {
+        if (hex.length() != 32) {
+            throw new IllegalArgumentException("Not a request fingerprint: " + hex);
+        }
+        return new RequestFingerprint(Long.parseUnsignedLong(hex, 0, 16, 16), Long.parseUnsignedLong(hex, 16, 32, 16));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    long high() {
+        return high;
+    }
+
+    long low() {
+        return low;
+    }
+
+    @Override
+    public int compareTo(RequestFingerprint other) {
+        int byHigh = Long.compare(high, other.high);
+        return byHigh != 0 ? byHigh : Long.compare(low, other.low);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RequestFingerprint that && high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -0,0 +1,31 @@
+package basetest.reporting;
+
+import com.rafiatu.client.ApiCall;
+import com.rafiatu.client.ApiCallListener;
+import io.restassured.response.Response;
+
+/**
+ * Attaches every {@link com.rafiatu.client.ApiClient} call to the Allure report: the request payload before it
+ * is sent, then the request line and the response status and headers (bodies go through {@link AttachmentService}).
+ */
+public class AllureApiCallListener implements ApiCallListener {
+
+    private final AttachmentService attachments;
+
+    public AllureApiCallListener(AttachmentService attachments) {
+        this.attachments = attachments;
+    }
+
+    @Override
+    public void beforeRequest(ApiCall call) {
+        if (call.payload() != null) {
+            attachments.attach("Request Payload", "application/json", call.payloadText());
+        }
+    }
+
+    @Override
+    public void afterResponse(ApiCall call, Response response) {
+        attachments.attach("API Request", "text/plain", call.toString());
+        attachments.attachResponse(response);  // Status and headers; the body is attached if the test fails
+    }
+}
@@ -0,0 +1,314 @@
+package basetest.reporting;
+
+import basetest.body.ResponseBody;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shared Allure attachment service for API responses.
+ * <p>
+ * Passing tests only get a small "API Response" attachment with the status line and headers. The response body is
+ * attached, pretty-printed, only when the test fails ({@link FailureAttachmentExtension}) or when
+ * {@code -Dapi.attachments.verbose=true} is set. Bodies are streamed from the shared {@link ResponseBody} straight
+ * into the attachment and cut off after {@code api.attachments.maxBytes} (default 256 KB).
+ * <p>
+ * Attachment files are written on a background thread, once per distinct content, see {@link AttachmentWriter}.
+ * With {@code -Dapi.attachments.compressAbove=N}, attachments larger than N bytes are stored gzip-compressed.
+ * <p>
+ * Responses are remembered per test by {@link #captureFilter()}, including those received on the threads a test
+ * starts (fan-out calls), so the body of a response that failed its status code check (and so never reached the
+ * test's own attachment call) is still attached on failure.
+ */
+public final class AttachmentService {
+
+    public static final String VERBOSE_PROPERTY = "api.attachments.verbose";
+    public static final String MAX_BYTES_PROPERTY = "api.attachments.maxBytes";
+    public static final String COMPRESS_ABOVE_PROPERTY = "api.attachments.compressAbove";
+
+    // Only the last few responses of a test are worth attaching on failure
+    private static final int MAX_PENDING_PER_TEST = 8;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final boolean verbose;
+    private final long maxBytes;
+    private final AttachmentWriter writer;
+    // Responses of the test running on this thread, shared with the threads it starts (fan-out calls)
+    private final InheritableThreadLocal<TestResponses> current = new InheritableThreadLocal<>();
+
+    /**
+     * Lazy holder for the service configured from system properties.
+     */
+    private static final class Holder {
+        private static final AttachmentService SHARED = new AttachmentService(
+                Boolean.getBoolean(VERBOSE_PROPERTY),
+                Long.getLong(MAX_BYTES_PROPERTY, 256 * 1024),
+                Long.getLong(COMPRESS_ABOVE_PROPERTY, 0),
+                Paths.get(System.getProperty("allure.results.directory", "allure-results")),
+                Allure.getLifecycle());
+    }
+
+    /**
+     * @param verbose          Attach bodies of passing tests too
+     * @param maxBytes         Maximum size of one attachment
+     * @param compressAbove    Size above which attachment files are gzip-compressed; 0 never compresses
+     * @param resultsDirectory Allure results directory the attachment files are written to
+     * @param lifecycle        Allure lifecycle the attachments are registered with
+     */
+    public AttachmentService(boolean verbose, long maxBytes, long compressAbove, Path resultsDirectory,
+                             AllureLifecycle lifecycle) {
+        this.verbose = verbose;
+        this.maxBytes = Math.max(1, maxBytes);
+        this.writer = new AttachmentWriter(resultsDirectory, compressAbove, lifecycle);
+    }
+
+    /**
+     * @return The service shared by the whole test suite
+     */
+    public static AttachmentService shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Starts remembering the responses of a test on this thread and the threads it starts; called before every
+     * test.
+     */
+    public void start() {
+        current.set(new TestResponses());
+    }
+
+    /**
+     * @return A REST Assured filter that remembers each response for the current test
+     */
+    public Filter captureFilter() {
+        return (requestSpec, responseSpec, ctx) -> {
+            Response response = ctx.next(requestSpec, responseSpec);
+            responses().add(response);
+            return response;
+        };
+    }
+
+    /**
+     * Attaches the status line and headers of a response; the body only in verbose mode. Otherwise the body is
+     * kept back and attached if the test fails.
+     *
+     * @param response The API response to report
+     */
+    public void attachResponse(Response response) {
+        String summary = "Status Code: " + response.statusCode() + "\n" + "Headers: " + response.headers();
+        attach("API Response", "text/plain", summary);
+        if (verbose) {
+            attachBody(response);
+        }
+    }
+
+    /**
+     * Attaches text to the current test, like {@code Allure.addAttachment}, with the file written in the background.
+     *
+     * @param name    Attachment name shown in the report
+     * @param type    MIME type; JSON types get a .json file, anything else .txt
+     * @param content Attachment text
+     */
+    public void attach(String name, String type, String content) {
+        writer.attach(name, type, type.contains("json") ? ".json" : ".txt", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Attaches the bodies of the current test's responses that are not attached yet. Called when a test fails.
+     */
+    public void attachPendingResponses() {
+        for (Response response : responses().pending()) {
+            attachBody(response);
+        }
+    }
+
+    /**
+     * Forgets the current test's responses; called after every test.
+     */
+    public void clear() {
+        current.remove();
+    }
+
+    /**
+     * @return The responses of the current test; a thread outside any started test keeps its own
+     */
+    private TestResponses responses() {
+        TestResponses responses = current.get();
+        if (responses == null) {
+            responses = new TestResponses();
+            current.set(responses);
+        }
+        return responses;
+    }
+
+    private void attachBody(Response response) {
+        if (!responses().markAttached(response)) {
+            return;
+        }
+        ResponseBody body = ResponseBody.of(response);
+        if (body.size() == 0) {
+            return;
+        }
+        String contentType = response.contentType() == null ? "" : response.contentType();
+        if (contentType.contains("json")) {
+            write("Response Body", "application/json", ".json", out -> prettyPrint(body, out));
+        } else {
+            write("Response Body", "text/plain", ".txt", out -> copy(body, out));
+        }
+    }
+
+    /**
+     * Re-indents JSON token by token, without building a tree or a String. Invalid JSON is copied as is.
+     */
+    private static void prettyPrint(ResponseBody json, OutputStream out) throws IOException {
+        try (InputStream in = json.openStream();
+             JsonParser parser = JSON.createParser(in);
+             JsonGenerator generator = JSON.createGenerator(out).useDefaultPrettyPrinter()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        } catch (JsonProcessingException e) {
+            out.write(("\n[not valid JSON, raw body follows: " + e.getOriginalMessage() + "]\n").getBytes(StandardCharsets.UTF_8));
+            copy(json, out);
+        }
+    }
+
+    private static void copy(ResponseBody body, OutputStream out) throws IOException {
+        try (InputStream in = body.openStream()) {
+            in.transferTo(out);
+        }
+    }
+
+    /**
+     * Renders an attachment, capped at the maximum size, and hands it to the writer.
+     */
+    private void write(String name, String type, String extension, BodyWriter content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(maxBytes, 8192) + 64);
+        try (CappedOutputStream out = new CappedOutputStream(bytes, maxBytes)) {
+            content.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to render attachment " + name, e);
+        }
+        writer.attach(name, type, extension, bytes.toByteArray());
+    }
+
+    /**
+     * Blocks until every attachment file is written; called when the run ends and before results are read.
+     */
+    public void flush() {
+        writer.flush();
+    }
+
+    /**
+     * @return Number of attachment files written so far
+     */
+    public long filesWritten() {
+        return writer.filesWritten();
+    }
+
+    /**
+     * @return One line with the attachment counters, e.g. for the end of the run
+     */
+    public String summary() {
+        return writer.summary();
+    }
+
+    /**
+     * The last responses of one test and those whose body is attached already, shared by the test's threads.
+     */
+    private static final class TestResponses {
+        private final Deque<Response> pending = new ArrayDeque<>();
+        private final Set<Response> bodyAttached = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        synchronized void add(Response response) {
+            if (pending.size() == MAX_PENDING_PER_TEST) {
+                pending.removeFirst();
+            }
+            pending.addLast(response);
+        }
+
+        synchronized List<Response> pending() {
+            return new ArrayList<>(pending);
+        }
+
+        /**
+         * @return Whether the body was not attached yet
+         */
+        synchronized boolean markAttached(Response response) {
+            return bodyAttached.add(response);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Passes bytes through until the limit is reached, then drops the rest and adds a truncation note on close.
+     */
+    private static final class CappedOutputStream extends FilterOutputStream {
+        private final long limit;
+        private long written;
+        private boolean truncated;
+
+        private CappedOutputStream(OutputStream out, long limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (written < limit) {
+                out.write(b);
+                written++;
+            } else {
+                truncated = true;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            int allowed = (int) Math.min(length, limit - written);
+            if (allowed > 0) {
+                out.write(bytes, offset, allowed);
+                written += allowed;
+            }
+            if (allowed < length) {
+                truncated = true;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (truncated) {
+                out.write(("\n... [truncated at " + limit + " bytes]\n").getBytes(StandardCharsets.UTF_8));
+            }
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package basetest.reporting;
+
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes Allure attachment files on a background thread, so a test only registers the attachment with its Allure
+ * result and queues the content. The queue is drained in batches of up to {@value #BATCH} files.
+ * <p>
+ * Files are named after the SHA-256 of their content, and every attachment with the same content points to the
+ * same file, so identical attachments (the same schema location, the same payload) are written once per results
+ * directory. Content larger than {@code compressAbove} bytes is gzip-compressed and attached as
+ * {@code application/gzip} with a {@code .gz} extension, which the Allure report offers as a download.
+ * <p>
+ * Attachments of a step or a fixture are handed to Allure as usual and written at once; in this suite steps do
+ * not carry attachments, so that is rare. Files still queued are written by {@link #flush()}, which the suite
+ * calls when the run ends.
+ * <p>
+ * Fan-out calls of one test attach from several threads, and Allure's attachment lists are not thread-safe, so
+ * both paths add to them under this writer's lock; the files themselves are written outside it.
+ */
+final class AttachmentWriter {
+
+    private static final int BATCH = 256;
+    // Bounds the memory held by queued content; callers wait when the writer falls this far behind
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final String GZIP_TYPE = "application/gzip";
+
+    private record Pending(Path file, byte[] content, boolean compress, CompletableFuture<Void> flushed) {
+    }
+
+    private final Path directory;
+    private final long compressAbove;
+    private final AllureLifecycle lifecycle;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Set<String> queuedSources = ConcurrentHashMap.newKeySet();
+    private final LongAdder attachments = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder filesWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile Thread worker;
+
+    /**
+     * @param directory     Allure results directory
+     * @param compressAbove Content size above which files are gzip-compressed; 0 or less never compresses
+     * @param lifecycle     Allure lifecycle the attachments are registered with
+     */
+    AttachmentWriter(Path directory, long compressAbove, AllureLifecycle lifecycle) {
+        this.directory = directory;
+        this.compressAbove = compressAbove;
+        this.lifecycle = lifecycle;
+    }
+
+    /**
+     * Attaches content to the current test and queues the file.
+     *
+     * @param name      Attachment name shown in the report
+     * @param type      MIME type, e.g. "application/json"
+     * @param extension File extension including the dot, e.g. ".json"
+     * @param content   Attachment content; not modified afterwards by the caller
+     */
+    void attach(String name, String type, String extension, byte[] content) {
+        attachments.increment();
+        boolean compress = compressAbove > 0 && content.length > compressAbove;
+        String source = HexFormat.of().formatHex(sha256(content), 0, 16)
+                + "-attachment" + extension + (compress ? ".gz" : "");
+        if (!register(name, compress ? GZIP_TYPE : type, source)) {
+            // Not directly inside a test: let Allure place it, then write it on this thread
+            String stepSource;
+            synchronized (this) {
+                stepSource = lifecycle.prepareAttachment(name, type, extension);
+            }
+            lifecycle.writeAttachment(stepSource, new ByteArrayInputStream(content));
+            return;
+        }
+        if (!queuedSources.add(source)) {
+            deduplicated.increment();
+            return;
+        }
+        enqueue(new Pending(directory.resolve(source), content, compress, null));
+    }
+
+    /**
+     * Adds the attachment to the running test case, unless a step or fixture is open on this thread.
+     */
+    private boolean register(String name, String type, String source) {
+        Optional<String> testCase = lifecycle.getCurrentTestCase();
+        if (testCase.isEmpty() || !testCase.equals(lifecycle.getCurrentTestCaseOrStep())) {
+            return false;
+        }
+        Attachment attachment = new Attachment().setName(name).setType(type).setSource(source);
+        synchronized (this) {
+            lifecycle.updateTestCase(testCase.get(), result -> result.getAttachments().add(attachment));
+        }
+        return true;
+    }
+
+    /**
+     * Blocks until every file queued so far is written.
+     */
+    void flush() {
+        if (worker == null) {
+            return;
+        }
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        enqueue(new Pending(null, null, false, flushed));
+        flushed.join();
+    }
+
+    private void enqueue(Pending pending) {
+        start();
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing an attachment", e);
+        }
+    }
+
+    private void start() {
+        if (worker != null) {
+            return;
+        }
+        synchronized (this) {
+            if (worker == null) {
+                Thread thread = new Thread(this::drain, "allure-attachment-writer");
+                thread.setDaemon(true);
+                thread.start();
+                worker = thread;
+            }
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(BATCH);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            System.err.println("Unable to create Allure results directory " + directory + ": " + e.getMessage());
+        }
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, BATCH - 1);
+            for (Pending pending : batch) {
+                if (pending.flushed() != null) {
+                    pending.flushed().complete(null);
+                } else {
+                    write(pending);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(Pending pending) {
+        // Content-named files from an earlier run in the same directory are already right
+        if (Files.exists(pending.file())) {
+            return;
+        }
+        try {
+            byte[] content = pending.compress() ? gzip(pending.content()) : pending.content();
+            Files.write(pending.file(), content);
+            if (pending.compress()) {
+                compressed.increment();
+            }
+            filesWritten.increment();
+            bytesWritten.add(content.length);
+        } catch (IOException e) {
+            if (failures.sum() == 0) {
+                System.err.println("Unable to write attachment " + pending.file() + ": " + e.getMessage());
+            }
+            failures.increment();
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    long filesWritten() {
+        return filesWritten.sum();
+    }
+
+    /**
+     * @return One line with the writer counters, e.g. for the end of the run
+     */
+    String summary() {
+        return String.format("Attachments: %d attached, %d deduplicated, %d files written (%,d KB, %d compressed)%s",
+                attachments.sum(), deduplicated.sum(), filesWritten.sum(), bytesWritten.sum() / 1024, compressed.sum(),
+                failures.sum() == 0 ? "" : ", " + failures.sum() + " failed");
+    }
+}
@@ -0,0 +1,30 @@
+package basetest.reporting;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Collects the responses of each test, including those of the threads it starts, and attaches their bodies to
+ * the Allure result if the test fails, then forgets them. Runs on the test's own thread while Allure still
+ * considers the test running.
+ */
+public class FailureAttachmentExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        AttachmentService.shared().start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        AttachmentService attachments = AttachmentService.shared();
+        try {
+            if (context.getExecutionException().isPresent()) {
+                attachments.attachPendingResponses();
+            }
+        } finally {
+            attachments.clear();
+        }
+    }
+}
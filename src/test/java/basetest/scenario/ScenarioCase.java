@@ -0,0 +1,62 @@
+package basetest.scenario;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One data-driven API call and its expectations, read from a scenario file.
+ *
+ * @param name           Display name; defaults to "METHOD endpoint -> status"
+ * @param api            API the endpoint belongs to, e.g. "reqres" or "jsonplaceholder"
+ * @param method         HTTP method
+ * @param endpoint       Endpoint relative to the API's base URL, e.g. "/users?page=2"
+ * @param payload        JSON request body, or null for none
+ * @param expectedStatus Expected HTTP status code
+ * @param schema         Schema file name the response must match, or null to skip schema validation
+ */
+public record ScenarioCase(String name, String api, String method, String endpoint,
+                           String payload, int expectedStatus, String schema) {
+
+    /**
+     * Reads a case from one record of a scenario file. Field names are {@code name, api, method, endpoint,
+     * payload, status, schema}; payload may be a JSON object or JSON text, empty values count as absent.
+     *
+     * @param record   The record as a JSON object (CSV rows and YAML entries are read into the same shape)
+     * @param location Where the record was read from, for error messages, e.g. "scenarios/users.csv:12"
+     */
+    static ScenarioCase from(JsonNode record, String location) {
+        String api = required(record, "api", location);
+        String method = required(record, "method", location).toUpperCase();
+        String endpoint = required(record, "endpoint", location);
+        String status = required(record, "status", location);
+        int expectedStatus;
+        try {
+            expectedStatus = Integer.parseInt(status.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(location + ": status '" + status + "' is not a number", e);
+        }
+
+        JsonNode payloadNode = record.path("payload");
+        String payload = payloadNode.isContainerNode() ? payloadNode.toString() : optional(record, "payload");
+        String name = optional(record, "name");
+        if (name == null) {
+            name = method + " " + endpoint + " -> " + expectedStatus;
+        }
+        return new ScenarioCase(name, api, method, endpoint, payload, expectedStatus, optional(record, "schema"));
+    }
+
+    private static String required(JsonNode record, String field, String location) {
+        String value = optional(record, field);
+        if (value == null) {
+            throw new IllegalArgumentException(location + ": missing '" + field + "'");
+        }
+        return value;
+    }
+
+    private static String optional(JsonNode record, String field) {
+        JsonNode value = record.get(field);
+        if (value == null || value.isNull() || value.asText().isBlank()) {
+            return null;
+        }
+        return value.asText();
+    }
+}
@@ -0,0 +1,76 @@
+package basetest.scenario;
+
+import basetest.body.ResponseBody;
+import basetest.reporting.AttachmentService;
+import basetest.schema.SchemaRegistry;
+import com.rafiatu.client.ApiClient;
+import io.qameta.allure.Allure;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.DynamicTest;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Turns scenario files into JUnit dynamic tests. Each {@link ScenarioCase} is sent with the {@link ApiClient}
+ * of its API, its status code is checked and, if it names one, the body is validated against the
+ * compiled schema from the {@link SchemaRegistry}. Cases are read and run one at a time:
+ * <pre>
+ * &#64;TestFactory
+ * Stream&lt;DynamicTest&gt; users() {
+ *     return engine.dynamicTests("scenarios/reqres-users.csv");
+ * }
+ * </pre>
+ */
+public final class ScenarioEngine {
+
+    private final Map<String, ApiClient> clientsByApi;
+    private final SchemaRegistry schemas = SchemaRegistry.getInstance();
+
+    /**
+     * @param clientsByApi Client per API name used in the scenario files, e.g. "reqres"
+     */
+    public ScenarioEngine(Map<String, ApiClient> clientsByApi) {
+        this.clientsByApi = Map.copyOf(clientsByApi);
+    }
+
+    /**
+     * @param resource Classpath location of a .csv, .json or .yaml scenario file
+     * @return One dynamic test per case, created as JUnit asks for the next one
+     */
+    public Stream<DynamicTest> dynamicTests(String resource) {
+        return ScenarioSource.stream(resource)
+                .map(scenario -> DynamicTest.dynamicTest(scenario.name(), () -> run(scenario)));
+    }
+
+    /**
+     * Sends one case and checks its status code and schema.
+     *
+     * @param scenario The case to run
+     * @return The response, for further checks
+     */
+    public Response run(ScenarioCase scenario) {
+        ApiClient client = clientsByApi.get(scenario.api());
+        if (client == null) {
+            throw new IllegalArgumentException("Unknown API '" + scenario.api() + "' in scenario '" + scenario.name()
+                    + "', known APIs: " + clientsByApi.keySet());
+        }
+        Allure.step("Start test: " + scenario.name());
+
+        // The client attaches the payload, the request line and the response to the report
+        Response response = client.send(scenario.method(), scenario.endpoint(), scenario.payload());
+        response.then().statusCode(scenario.expectedStatus());
+
+        if (scenario.schema() != null) {
+            // Validates the shared copy of the body, item by item once it has spilled to disk
+            schemas.assertMatches(scenario.schema(), response);
+            AttachmentService.shared().attach("JSON Schema", "text/plain", SchemaRegistry.SCHEMA_DIRECTORY + "/" + scenario.schema());
+        } else {
+            // Read the body even when nothing checks it, so the pooled connection is handed back
+            ResponseBody.of(response);
+        }
+
+        Allure.step("Finish test: " + scenario.name());
+        return response;
+    }
+}
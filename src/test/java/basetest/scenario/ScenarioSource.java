@@ -0,0 +1,177 @@
+package basetest.scenario;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads {@link ScenarioCase}s from a classpath file one record at a time, so a file with tens of thousands of
+ * cases is never held in memory as a whole. The format follows the file extension:
+ * <ul>
+ *     <li>{@code .csv}: a header row naming the fields, then one case per line; lines starting with # are
+ *     comments, and a field containing commas or quotes is quoted with "..." (quotes doubled inside)</li>
+ *     <li>{@code .json}: an array of case objects</li>
+ *     <li>{@code .yaml} / {@code .yml}: a sequence of case mappings</li>
+ * </ul>
+ * The returned stream holds the open file; close it (JUnit closes {@code @TestFactory} streams itself).
+ */
+public final class ScenarioSource {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory());
+
+    private ScenarioSource() {
+    }
+
+    /**
+     * @param resource Classpath location of the scenario file, e.g. "scenarios/reqres-users.csv"
+     * @return The cases in file order, read lazily
+     */
+    public static Stream<ScenarioCase> stream(String resource) {
+        InputStream in = ScenarioSource.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Scenario file not found on classpath: " + resource);
+        }
+        String lowerCase = resource.toLowerCase();
+        try {
+            if (lowerCase.endsWith(".csv")) {
+                return csv(resource, new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            } else if (lowerCase.endsWith(".json")) {
+                return tree(resource, JSON, in);
+            } else if (lowerCase.endsWith(".yaml") || lowerCase.endsWith(".yml")) {
+                return tree(resource, YAML, in);
+            }
+            in.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read scenario file " + resource, e);
+        }
+        throw new IllegalArgumentException("Unsupported scenario file type (csv, json, yaml): " + resource);
+    }
+
+    private static Stream<ScenarioCase> tree(String resource, ObjectMapper mapper, InputStream in) throws IOException {
+        JsonFactory factory = mapper.getFactory();
+        JsonParser parser = factory.createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalArgumentException(resource + ": expected a list of scenario cases");
+        }
+        return lazily(parser::close, action -> {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return false;
+            }
+            // Only the current case is read into a tree
+            String location = resource + ":" + parser.getCurrentLocation().getLineNr();
+            action.accept(ScenarioCase.from(mapper.readTree(parser), location));
+            return true;
+        });
+    }
+
+    private static Stream<ScenarioCase> csv(String resource, BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            reader.close();
+            return Stream.empty();
+        }
+        List<String> columns = splitCsvLine(header.strip());
+        long[] lineNumber = {1};
+        return lazily(reader::close, action -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                List<String> values = splitCsvLine(line);
+                ObjectNode record = JSON.createObjectNode();
+                for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                    record.put(columns.get(i), values.get(i));
+                }
+                action.accept(ScenarioCase.from(record, resource + ":" + lineNumber[0]));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Splits one CSV line into fields, honouring "quoted, fields" and doubled "" quotes.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+
+    /**
+     * Reads the next case, if any, and hands it to the consumer.
+     */
+    @FunctionalInterface
+    private interface CaseReader {
+        boolean next(Consumer<? super ScenarioCase> action) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Closer {
+        void close() throws IOException;
+    }
+
+    private static Stream<ScenarioCase> lazily(Closer closer, CaseReader reader) {
+        Spliterator<ScenarioCase> cases = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super ScenarioCase> action) {
+                try {
+                    return reader.next(action);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to read scenario file", e);
+                }
+            }
+        };
+        return StreamSupport.stream(cases, false).onClose(() -> {
+            try {
+                closer.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package basetest.schema;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+/**
+ * Hamcrest matcher that validates a JSON body against a schema compiled once by {@link SchemaRegistry}.
+ * Holds no per-match state, so a single instance can be shared across tests and threads.
+ */
+public final class CompiledSchemaMatcher extends TypeSafeMatcher<String> {
+
+    private final String schemaName;
+    private final SchemaRegistry registry;
+
+    CompiledSchemaMatcher(String schemaName, SchemaRegistry registry) {
+        this.schemaName = schemaName;
+        this.registry = registry;
+        registry.schema(schemaName); // Fail fast on unknown schema names
+    }
+
+    @Override
+    protected boolean matchesSafely(String body) {
+        return report(body).isSuccess();
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("JSON matching schema ").appendValue(schemaName);
+    }
+
+    @Override
+    protected void describeMismatchSafely(String body, Description mismatchDescription) {
+        mismatchDescription.appendText("schema validation failed:\n").appendText(String.valueOf(report(body)));
+    }
+
+    private ProcessingReport report(String body) {
+        try {
+            return registry.validate(schemaName, SchemaRegistry.mapper().readTree(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Response body is not valid JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+}
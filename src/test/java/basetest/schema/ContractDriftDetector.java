@@ -0,0 +1,150 @@
+package basetest.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects contract drift: differences between what an endpoint actually returns and its checked-in JSON schema.
+ * <p>
+ * Responses are read one at a time into an {@link InferredSchema}, in a single streaming pass with bounded
+ * memory, so the detector can be pointed at every page of a large paginated endpoint. The diff is incremental:
+ * each field path and type is compared with the schema once, when it first shows up, so later responses of the
+ * same shape cost only the parse. Added and retyped fields are found that way; removed fields (declared but
+ * missing from the responses) are found by {@link #report()}.
+ * <pre>
+ * ContractDriftDetector detector = new ContractDriftDetector("RUser-list-schema.json", SchemaRegistry.getInstance());
+ * detector.observe(response.asInputStream());
+ * ContractDriftReport report = detector.report();
+ * </pre>
+ */
+public final class ContractDriftDetector {
+
+    public static final String MAX_PATHS_PROPERTY = "api.drift.maxPaths";
+    public static final int DEFAULT_MAX_PATHS = 10_000;
+
+    private final String schemaName;
+    private final JsonNode schema;
+    private final InferredSchema inferred;
+    private final Set<SchemaDrift> drifts = new LinkedHashSet<>();
+
+    /**
+     * @param schemaName Schema file name, e.g. "RUser-list-schema.json"
+     * @param registry   Registry holding the schema
+     */
+    public ContractDriftDetector(String schemaName, SchemaRegistry registry) {
+        this(schemaName, registry, Integer.getInteger(MAX_PATHS_PROPERTY, DEFAULT_MAX_PATHS));
+    }
+
+    /**
+     * @param maxPaths Maximum number of distinct field paths to infer, see {@link InferredSchema}
+     */
+    public ContractDriftDetector(String schemaName, SchemaRegistry registry, int maxPaths) {
+        this.schemaName = schemaName;
+        this.schema = registry.document(schemaName);
+        this.inferred = new InferredSchema(maxPaths, this::compare);
+    }
+
+    /**
+     * Reads one response body and compares any new field paths and types with the schema.
+     *
+     * @param body Response body, e.g. {@code response.asInputStream()}; it is closed afterwards
+     */
+    public void observe(InputStream body) {
+        inferred.observe(body);
+    }
+
+    /**
+     * @return The drift found so far, plus the declared fields the responses so far did not always have
+     */
+    public ContractDriftReport report() {
+        List<SchemaDrift> found = new ArrayList<>(drifts);
+        if (inferred.documents() > 0) {
+            findRemoved(schema, inferred.root(), found);
+        }
+        return new ContractDriftReport(schemaName, inferred.documents(), inferred.skippedFields(), found,
+                inferred.toJsonSchema());
+    }
+
+    private void compare(InferredSchema.Node node, String type, boolean newPath) {
+        List<String> segments = node.segments();
+        if (newPath && !segments.isEmpty()) {
+            JsonNode parent = schemaAt(segments.subList(0, segments.size() - 1));
+            String name = segments.get(segments.size() - 1);
+            if (parent != null && !InferredSchema.ITEMS.equals(name)
+                    && parent.has("properties") && !parent.get("properties").has(name)) {
+                drifts.add(new SchemaDrift(SchemaDrift.Kind.ADDED, node.path(), "not declared", type));
+                return;
+            }
+        }
+        JsonNode declared = schemaAt(segments);
+        if (declared != null && !allows(declared, type)) {
+            drifts.add(new SchemaDrift(SchemaDrift.Kind.RETYPED, node.path(), typeOf(declared), type));
+        }
+    }
+
+    /**
+     * @return The schema of a path, or null if the schema does not describe it (undeclared or unconstrained)
+     */
+    private JsonNode schemaAt(List<String> segments) {
+        JsonNode node = schema;
+        for (String segment : segments) {
+            node = InferredSchema.ITEMS.equals(segment) ? node.get("items") : node.path("properties").get(segment);
+            if (node == null || !node.isObject()) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private static boolean allows(JsonNode declared, String type) {
+        JsonNode types = declared.get("type");
+        if (types == null) {
+            return true;  // No type constraint
+        }
+        for (JsonNode allowed : types.isArray() ? types : List.of(types)) {
+            String name = allowed.asText();
+            if (name.equals(type) || ("number".equals(name) && "integer".equals(type))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String typeOf(JsonNode declared) {
+        JsonNode types = declared.get("type");
+        return types == null ? "any" : types.isArray() ? types.toString() : types.asText();
+    }
+
+    private void findRemoved(JsonNode declared, InferredSchema.Node node, List<SchemaDrift> found) {
+        if (node.objects() > 0) {
+            Set<String> required = new LinkedHashSet<>();
+            declared.path("required").forEach(name -> required.add(name.asText()));
+            Iterator<Map.Entry<String, JsonNode>> properties = declared.path("properties").fields();
+            while (properties.hasNext()) {
+                Map.Entry<String, JsonNode> property = properties.next();
+                InferredSchema.Node field = node.fields().get(property.getKey());
+                String path = node.path() + "." + property.getKey();
+                if (field == null) {
+                    found.add(new SchemaDrift(SchemaDrift.Kind.REMOVED, path,
+                            (required.contains(property.getKey()) ? "required " : "optional ") + typeOf(property.getValue()),
+                            "never present"));
+                } else if (required.contains(property.getKey()) && field.present() < node.objects()) {
+                    found.add(new SchemaDrift(SchemaDrift.Kind.REMOVED, path, "required " + typeOf(property.getValue()),
+                            "missing from " + (node.objects() - field.present()) + " of " + node.objects() + " objects"));
+                } else {
+                    findRemoved(property.getValue(), field, found);
+                }
+            }
+        }
+        if (node.arrays() > 0 && node.items() != null && declared.path("items").isObject()) {
+            findRemoved(declared.get("items"), node.items(), found);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package basetest.schema;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outcome of a {@link ContractDriftDetector} run: the drift found against one schema and the schema inferred
+ * from the responses, which can be reviewed and checked in when the change is intended.
+ *
+ * @param schemaName     Schema file name the responses were compared with
+ * @param documents      Number of responses read
+ * @param skippedFields  Values skipped because the inferred schema reached its path cap
+ * @param drifts         The differences, in the order they were found
+ * @param inferredSchema Draft-07 schema of everything the responses contained
+ */
+public record ContractDriftReport(String schemaName, long documents, long skippedFields, List<SchemaDrift> drifts,
+                                  ObjectNode inferredSchema) {
+
+    public ContractDriftReport {
+        drifts = List.copyOf(drifts);
+    }
+
+    public boolean hasDrift() {
+        return !drifts.isEmpty();
+    }
+
+    /**
+     * Fails with the list of differences if the responses drifted from the schema.
+     */
+    public void assertNoDrift() {
+        if (hasDrift()) {
+            throw new AssertionError(String.format("Responses drifted from JSON schema '%s' (%d response(s)):%n  %s",
+                    schemaName, documents, String.join(System.lineSeparator() + "  ",
+                            drifts.stream().map(SchemaDrift::toString).toList())));
+        }
+    }
+
+    /**
+     * Writes the report, including the inferred schema, as JSON.
+     *
+     * @param file Target file; parent folders are created
+     */
+    public void writeTo(Path file) {
+        ObjectNode json = SchemaRegistry.mapper().createObjectNode();
+        json.put("schema", schemaName);
+        json.put("documents", documents);
+        json.put("skippedFields", skippedFields);
+        json.set("drifts", SchemaRegistry.mapper().valueToTree(drifts));
+        json.set("inferredSchema", inferredSchema);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            SchemaRegistry.mapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write contract drift report " + file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Schema " + schemaName + ": " + documents + " responses, " + drifts.size() + " drift(s)"
+                + (skippedFields > 0 ? ", " + skippedFields + " values skipped" : "");
+    }
+}
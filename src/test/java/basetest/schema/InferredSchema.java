@@ -0,0 +1,276 @@
+package basetest.schema;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Infers a JSON schema from JSON documents, e.g. the responses of one endpoint, reading each document in a single
+ * streaming pass. Only the shape is kept: per field path the JSON types seen and how often the field was present,
+ * with all items of an array merged into one item shape. Memory grows with the number of distinct field paths,
+ * not with the size or number of documents, and is capped: fields beyond {@code maxPaths} are skipped and counted.
+ * <p>
+ * Paths are written JSONPath style, e.g. {@code $.data[*].email}. A {@link Listener} is told about every path and
+ * type the first time it is seen, so the shape can be compared with a schema while documents are still coming in
+ * (see {@link ContractDriftDetector}).
+ */
+public final class InferredSchema {
+
+    /**
+     * Path segment standing for the items of an array.
+     */
+    public static final String ITEMS = "[*]";
+
+    private static final JsonFactory JSON = SchemaRegistry.mapper().getFactory();
+
+    /**
+     * Receives every path and type combination the first time it is seen.
+     */
+    public interface Listener {
+
+        /**
+         * @param node    The shape node of the path
+         * @param type    JSON schema type seen: object, array, string, integer, number, boolean or null
+         * @param newPath Whether the path itself has not been seen before
+         */
+        void typeSeen(Node node, String type, boolean newPath);
+    }
+
+    private final Node root = new Node(List.of());
+    private final int maxPaths;
+    private final Listener listener;
+    private int paths = 1;
+    private long documents;
+    private long skippedFields;
+
+    /**
+     * @param maxPaths Maximum number of distinct field paths to keep
+     * @param listener Told about new paths and types, may be a no-op
+     */
+    public InferredSchema(int maxPaths, Listener listener) {
+        this.maxPaths = maxPaths;
+        this.listener = listener;
+    }
+
+    /**
+     * Reads one JSON document and merges its shape in. The stream is closed afterwards, which also hands a
+     * pooled HTTP connection back.
+     *
+     * @param body The document, e.g. {@code response.asInputStream()}
+     */
+    public void observe(InputStream body) {
+        try (InputStream in = body; JsonParser parser = JSON.createParser(in)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                return;  // Empty body, nothing to infer
+            }
+            documents++;
+            root.present++;
+            read(parser, first, root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read JSON document", e);
+        }
+    }
+
+    private void read(JsonParser parser, JsonToken token, Node node) throws IOException {
+        String type = typeOf(token);
+        if (node.types.add(type)) {
+            listener.typeSeen(node, type, node.types.size() == 1);
+        }
+        if (token == JsonToken.START_OBJECT) {
+            node.objects++;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                Node field = node.fields.get(name);
+                if (field == null && paths < maxPaths) {
+                    field = new Node(append(node.segments, name));
+                    node.fields.put(name, field);
+                    paths++;
+                }
+                if (field == null) {
+                    skippedFields++;
+                    parser.skipChildren();
+                } else {
+                    field.present++;
+                    read(parser, value, field);
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            node.arrays++;
+            JsonToken item;
+            while ((item = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (node.items == null && paths < maxPaths) {
+                    node.items = new Node(append(node.segments, ITEMS));
+                    paths++;
+                }
+                if (node.items == null) {
+                    skippedFields++;
+                    parser.skipChildren();
+                } else {
+                    node.items.present++;
+                    read(parser, item, node.items);
+                }
+            }
+        }
+    }
+
+    private static String typeOf(JsonToken token) {
+        return switch (token) {
+            case START_OBJECT -> "object";
+            case START_ARRAY -> "array";
+            case VALUE_STRING -> "string";
+            case VALUE_NUMBER_INT -> "integer";
+            case VALUE_NUMBER_FLOAT -> "number";
+            case VALUE_TRUE, VALUE_FALSE -> "boolean";
+            case VALUE_NULL -> "null";
+            default -> throw new IllegalStateException("Unexpected JSON token " + token);
+        };
+    }
+
+    private static List<String> append(List<String> segments, String segment) {
+        List<String> path = new ArrayList<>(segments.size() + 1);
+        path.addAll(segments);
+        path.add(segment);
+        return Collections.unmodifiableList(path);
+    }
+
+    /**
+     * @return The shape of the whole document
+     */
+    public Node root() {
+        return root;
+    }
+
+    /**
+     * @return Number of documents read
+     */
+    public long documents() {
+        return documents;
+    }
+
+    /**
+     * @return Number of field and item values skipped because the path cap was reached
+     */
+    public long skippedFields() {
+        return skippedFields;
+    }
+
+    /**
+     * @return A draft-07 JSON schema of everything seen so far; fields present in every object are required
+     */
+    public ObjectNode toJsonSchema() {
+        ObjectNode schema = JsonNodeFactory.instance.objectNode();
+        schema.put("$schema", "http://json-schema.org/draft-07/schema#");
+        schema.setAll(toJsonSchema(root));
+        return schema;
+    }
+
+    private static ObjectNode toJsonSchema(Node node) {
+        ObjectNode schema = JsonNodeFactory.instance.objectNode();
+        Set<String> types = new LinkedHashSet<>(node.types);
+        if (types.contains("number")) {
+            types.remove("integer");  // Every integer is a number
+        }
+        if (types.size() == 1) {
+            schema.put("type", types.iterator().next());
+        } else if (!types.isEmpty()) {
+            ArrayNode list = schema.putArray("type");
+            types.forEach(list::add);
+        }
+        if (node.objects > 0) {
+            ArrayNode required = JsonNodeFactory.instance.arrayNode();
+            node.fields.forEach((name, field) -> {
+                if (field.present == node.objects) {
+                    required.add(name);
+                }
+            });
+            schema.set("required", required);
+            ObjectNode properties = schema.putObject("properties");
+            node.fields.forEach((name, field) -> properties.set(name, toJsonSchema(field)));
+        }
+        if (node.items != null) {
+            schema.set("items", toJsonSchema(node.items));
+        }
+        return schema;
+    }
+
+    /**
+     * The inferred shape of one path.
+     */
+    public static final class Node {
+
+        private final List<String> segments;
+        private final Set<String> types = new LinkedHashSet<>();
+        private final Map<String, Node> fields = new LinkedHashMap<>();
+        private Node items;
+        // Times the path had a value, and times that value was an object or an array
+        private long present;
+        private long objects;
+        private long arrays;
+
+        private Node(List<String> segments) {
+            this.segments = segments;
+        }
+
+        /**
+         * @return Field names and {@link #ITEMS} from the document root down to this path
+         */
+        public List<String> segments() {
+            return segments;
+        }
+
+        /**
+         * @return The path, e.g. {@code $.data[*].email}
+         */
+        public String path() {
+            StringBuilder path = new StringBuilder("$");
+            segments.forEach(segment -> path.append(ITEMS.equals(segment) ? segment : "." + segment));
+            return path.toString();
+        }
+
+        public Set<String> types() {
+            return Collections.unmodifiableSet(types);
+        }
+
+        /**
+         * @return The field shapes, by name; empty unless the path held an object
+         */
+        public Map<String, Node> fields() {
+            return Collections.unmodifiableMap(fields);
+        }
+
+        /**
+         * @return The merged shape of all array items, or null
+         */
+        public Node items() {
+            return items;
+        }
+
+        public long present() {
+            return present;
+        }
+
+        public long objects() {
+            return objects;
+        }
+
+        public long arrays() {
+            return arrays;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package basetest.schema;
+
+/**
+ * One difference between the shape of live responses and a checked-in JSON schema.
+ *
+ * @param kind     What changed
+ * @param path     JSONPath of the field, e.g. {@code $.data[*].email}
+ * @param expected What the schema declares, e.g. "string" or "not declared"
+ * @param actual   What the responses contained, e.g. "integer" or "never present"
+ */
+public record SchemaDrift(Kind kind, String path, String expected, String actual) {
+
+    public enum Kind {
+        /** The responses have a field the schema does not declare. */
+        ADDED,
+        /** The schema declares a field the responses do not (always) have. */
+        REMOVED,
+        /** The responses have a field with a type the schema does not allow. */
+        RETYPED
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + path + ": expected " + expected + ", actual " + actual;
+    }
+}
@@ -0,0 +1,321 @@
+package basetest.schema;
+
+import basetest.body.ResponseBody;
+import basetest.metrics.RunMetrics;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Loads every JSON schema under the {@code schemas} classpath folder once, compiles it,
+ * and hands out thread-safe validators keyed by file name (e.g. "RUser-list-schema.json").
+ * Compiled {@link JsonSchema} instances are immutable, so a single instance is shared by all tests and threads.
+ */
+public final class SchemaRegistry {
+
+    // Classpath folder that holds the JSON schema files (src/test/resources/schemas)
+    public static final String SCHEMA_DIRECTORY = "schemas";
+
+    // Shared mapper used to parse schema files and response bodies
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, JsonNode> documents;
+    private final Map<String, JsonSchema> schemas;
+    private final JsonSchemaFactory factory;
+    // Sub-schemas (e.g. the item schema of a list), compiled on first use
+    private final Map<String, JsonSchema> subSchemas = new ConcurrentHashMap<>();
+
+    private SchemaRegistry(Map<String, JsonNode> documents, JsonSchemaFactory factory) {
+        this.documents = Collections.unmodifiableMap(documents);
+        this.factory = factory;
+        Map<String, JsonSchema> compiled = new TreeMap<>();
+        documents.forEach((name, document) -> compiled.put(name, compile(name, document)));
+        this.schemas = Collections.unmodifiableMap(compiled);
+    }
+
+    /**
+     * Lazy holder so the schema folder is scanned and compiled exactly once, on first use.
+     */
+    private static final class Holder {
+        private static final SchemaRegistry INSTANCE = load(SCHEMA_DIRECTORY);
+    }
+
+    /**
+     * @return The shared registry for the default {@code schemas} classpath folder
+     */
+    public static SchemaRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Scans a classpath folder and compiles every {@code *.json} file found in it.
+     *
+     * @param directory Classpath folder containing JSON schema files
+     * @return A registry holding the compiled schemas
+     */
+    public static SchemaRegistry load(String directory) {
+        URL url = SchemaRegistry.class.getClassLoader().getResource(directory);
+        if (url == null) {
+            throw new IllegalStateException("Schema folder not found on classpath: " + directory);
+        }
+
+        Map<String, JsonNode> documents = new TreeMap<>();
+        try {
+            URI uri = url.toURI();
+            if ("jar".equals(uri.getScheme())) {
+                // Schemas packaged inside a jar are listed through a zip file system
+                try (FileSystem jar = FileSystems.newFileSystem(uri, Collections.emptyMap())) {
+                    readSchemas(jar.getPath(directory), documents);
+                }
+            } else {
+                readSchemas(Path.of(uri), documents);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read schema folder: " + directory, e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid schema folder location: " + url, e);
+        }
+        return new SchemaRegistry(documents, JsonSchemaFactory.byDefault());
+    }
+
+    private static void readSchemas(Path folder, Map<String, JsonNode> documents) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".json"))::iterator) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    documents.put(file.getFileName().toString(), MAPPER.readTree(in));
+                }
+            }
+        }
+    }
+
+    private JsonSchema compile(String name, JsonNode document) {
+        try {
+            return factory.getJsonSchema(document);
+        } catch (ProcessingException e) {
+            throw new IllegalStateException("Unable to compile JSON schema: " + name, e);
+        }
+    }
+
+    /**
+     * @return The names of all registered schemas, sorted
+     */
+    public Set<String> names() {
+        return schemas.keySet();
+    }
+
+    /**
+     * Returns the compiled schema registered under the given file name.
+     *
+     * @param name Schema file name, e.g. "RUser-list-schema.json"
+     * @return The compiled, thread-safe schema
+     * @throws IllegalArgumentException if no schema with that name exists
+     */
+    public JsonSchema schema(String name) {
+        JsonSchema schema = schemas.get(name);
+        if (schema == null) {
+            // Names are case-sensitive on most file systems; point out a reference that only differs in case
+            String hint = names().stream()
+                    .filter(known -> known.equalsIgnoreCase(name))
+                    .map(known -> " (did you mean '" + known + "'?)")
+                    .findFirst()
+                    .orElse("");
+            throw new IllegalArgumentException("Unknown JSON schema '" + name + "'" + hint + ", known schemas: " + names());
+        }
+        return schema;
+    }
+
+    /**
+     * Returns the raw schema document registered under the given file name.
+     *
+     * @param name Schema file name
+     * @return The parsed schema document
+     */
+    public JsonNode document(String name) {
+        schema(name); // Fails with the same message as schema(name) for unknown names
+        return documents.get(name);
+    }
+
+    /**
+     * Returns a part of a registered schema, compiled on its own, e.g. {@code /properties/data/items}
+     * for the schema of one element of a list.
+     *
+     * @param name    Schema file name
+     * @param pointer Location of the sub-schema inside the schema document
+     * @return The compiled, thread-safe sub-schema
+     * @throws IllegalArgumentException if there is no sub-schema at that location
+     */
+    public JsonSchema subSchema(String name, JsonPointer pointer) {
+        JsonNode document = document(name);
+        return subSchemas.computeIfAbsent(name + "#" + pointer, key -> {
+            JsonNode subDocument = document.at(pointer);
+            if (!subDocument.isObject()) {
+                throw new IllegalArgumentException("JSON schema '" + name + "' has no sub-schema at " + pointer);
+            }
+            return compile(key, subDocument);
+        });
+    }
+
+    /**
+     * Returns a schema derived from a registered one, e.g. a list envelope without the constraints on its array,
+     * compiled once per key.
+     *
+     * @param key      Cache key, starting with the schema file name
+     * @param document Builds the derived schema document on first use
+     * @return The compiled, thread-safe schema
+     */
+    JsonSchema derivedSchema(String key, Supplier<JsonNode> document) {
+        return subSchemas.computeIfAbsent(key, k -> compile(k, document.get()));
+    }
+
+    /**
+     * Creates a validator that checks a list response item by item while it is read, see
+     * {@link StreamingSchemaValidator}.
+     *
+     * @param name Schema file name of a list schema
+     * @return A reusable streaming validator
+     */
+    public StreamingSchemaValidator streamingValidator(String name) {
+        return new StreamingSchemaValidator(name, this);
+    }
+
+    /**
+     * Validates an already-parsed JSON document against a registered schema.
+     *
+     * @param name     Schema file name
+     * @param instance The JSON document to validate
+     * @return The validation report
+     */
+    public ProcessingReport validate(String name, JsonNode instance) {
+        return validate(name, instance, null);
+    }
+
+    private ProcessingReport validate(String name, JsonNode instance, Response response) {
+        JsonSchema schema = schema(name);
+        RunMetrics.SchemaValidation timing = RunMetrics.shared().startSchemaValidation(name, response);
+        ProcessingReport report = null;
+        try {
+            report = schema.validate(instance);
+            return report;
+        } catch (ProcessingException e) {
+            throw new IllegalStateException("JSON schema validation could not run for: " + name, e);
+        } finally {
+            timing.finish(report != null && report.isSuccess());
+        }
+    }
+
+    /**
+     * Validates a response body against a registered schema, reading it from its shared copy. A body held in
+     * memory is parsed into a tree; a body spilled to disk is validated item by item when the schema describes
+     * a list, so it never has to fit on the heap.
+     *
+     * @param name Schema file name
+     * @param body The response body, e.g. {@code ResponseBody.of(response)}
+     * @throws AssertionError if the body does not match the schema
+     */
+    public void assertMatches(String name, ResponseBody body) {
+        assertMatches(name, body, null);
+    }
+
+    /**
+     * Same as {@link #assertMatches(String, ResponseBody)} with the response's shared body, timed against the
+     * request that produced the response whichever thread validates it.
+     *
+     * @param name     Schema file name
+     * @param response The API response
+     * @throws AssertionError if the body does not match the schema
+     */
+    public void assertMatches(String name, Response response) {
+        assertMatches(name, ResponseBody.of(response), response);
+    }
+
+    private void assertMatches(String name, ResponseBody body, Response response) {
+        if (!body.inMemory() && StreamingSchemaValidator.supports(document(name))) {
+            streamingValidator(name).validate(body.openStream(), response).assertValid();
+            return;
+        }
+        JsonNode instance;
+        try (InputStream in = body.openStream()) {
+            instance = MAPPER.readTree(in);
+        } catch (JsonProcessingException e) {
+            throw new AssertionError("Response body is not valid JSON: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read response body for schema " + name, e);
+        }
+        ProcessingReport report = validate(name, instance, response);
+        if (!report.isSuccess()) {
+            throw new AssertionError("Response does not match JSON schema '" + name + "':\n" + report);
+        }
+    }
+
+    /**
+     * Creates a Hamcrest matcher backed by a compiled schema, usable with {@code response.then().body(...)}.
+     *
+     * @param name Schema file name
+     * @return A reusable matcher for JSON response bodies
+     */
+    public CompiledSchemaMatcher matcher(String name) {
+        return new CompiledSchemaMatcher(name, this);
+    }
+
+    /**
+     * Shortcut for {@code SchemaRegistry.getInstance().matcher(name)}, mirroring
+     * {@code JsonSchemaValidator.matchesJsonSchema(...)}.
+     *
+     * @param name Schema file name
+     * @return A reusable matcher for JSON response bodies
+     */
+    public static CompiledSchemaMatcher matchesSchema(String name) {
+        return getInstance().matcher(name);
+    }
+
+    /**
+     * Hashes the content of every registered schema, so caches of responses checked against them
+     * (see {@code basetest.replay.ReplayStore}) can tell when a schema has changed.
+     *
+     * @return Hex SHA-256 over the schema names and documents, in name order
+     */
+    public String contentHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            documents.forEach((name, document) -> {
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                digest.update(document.toString().getBytes(StandardCharsets.UTF_8));
+            });
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static ObjectMapper mapper() {
+        return MAPPER;
+    }
+}
@@ -0,0 +1,205 @@
+package basetest.schema;
+
+import basetest.metrics.RunMetrics;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates a list response against a list schema while the body is being read, one array item at a time,
+ * so memory use does not grow with the number of items.
+ * <p>
+ * The list is either the whole document (a schema of {@code "type": "array"}) or the array property of an
+ * envelope object, like {@code data} in RUser-list-schema.json. Each item is read into a small tree, validated
+ * against the item sub-schema ({@code items}) and dropped. The other envelope fields (page, total, support, ...)
+ * are collected and validated against the full schema with the array left empty.
+ * <p>
+ * The array's own constraints ({@code minItems}, {@code maxItems}, {@code uniqueItems}) are checked against the items
+ * counted while streaming, and left out of the envelope check. {@code uniqueItems} keeps every item seen, so memory
+ * does grow with the list for schemas that ask for it.
+ */
+public final class StreamingSchemaValidator {
+
+    private static final ObjectMapper MAPPER = SchemaRegistry.mapper();
+    private static final List<String> ARRAY_CONSTRAINTS = List.of("minItems", "maxItems", "uniqueItems");
+
+    private final String schemaName;
+    private final JsonSchema envelopeSchema;
+    private final JsonSchema itemSchema;
+    // Name of the array property inside the envelope object, or null when the document itself is the array
+    private final String arrayField;
+    private final long minItems;
+    private final long maxItems;
+    private final boolean uniqueItems;
+
+    StreamingSchemaValidator(String schemaName, SchemaRegistry registry) {
+        JsonNode document = registry.document(schemaName);
+        this.schemaName = schemaName;
+        this.arrayField = "array".equals(document.path("type").asText()) ? null : findArrayField(schemaName, document);
+        this.itemSchema = registry.subSchema(schemaName, JsonPointer.compile(
+                arrayField == null ? "/items" : "/properties/" + arrayField + "/items"));
+
+        JsonNode array = arrayField == null ? document : document.path("properties").path(arrayField);
+        this.minItems = array.path("minItems").asLong(0);
+        this.maxItems = array.path("maxItems").asLong(Long.MAX_VALUE);
+        this.uniqueItems = array.path("uniqueItems").asBoolean(false);
+        // The envelope is checked with the array left empty, which its own constraints would reject
+        this.envelopeSchema = arrayField == null || ARRAY_CONSTRAINTS.stream().noneMatch(array::has)
+                ? registry.schema(schemaName)
+                : registry.derivedSchema(schemaName + "#envelope", () -> {
+                    ObjectNode envelope = document.deepCopy();
+                    ((ObjectNode) envelope.path("properties").path(arrayField)).remove(ARRAY_CONSTRAINTS);
+                    return envelope;
+                });
+    }
+
+    /**
+     * @return Whether the schema document describes a list that can be validated item by item
+     */
+    static boolean supports(JsonNode document) {
+        return "array".equals(document.path("type").asText()) ? document.path("items").isObject()
+                : arrayField(document) != null;
+    }
+
+    private static String findArrayField(String schemaName, JsonNode document) {
+        String field = arrayField(document);
+        if (field == null) {
+            throw new IllegalArgumentException("JSON schema '" + schemaName + "' describes no list of items to stream");
+        }
+        return field;
+    }
+
+    private static String arrayField(JsonNode document) {
+        Iterator<Map.Entry<String, JsonNode>> properties = document.path("properties").fields();
+        while (properties.hasNext()) {
+            Map.Entry<String, JsonNode> property = properties.next();
+            if ("array".equals(property.getValue().path("type").asText()) && property.getValue().path("items").isObject()) {
+                return property.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads and validates the whole body. The stream is closed afterwards, which also hands a pooled
+     * HTTP connection back.
+     *
+     * @param body Response body, e.g. {@code response.asInputStream()}
+     * @return Number of items seen and the validation errors found
+     */
+    public StreamingValidationReport validate(InputStream body) {
+        return validate(body, null);
+    }
+
+    /**
+     * Same as {@link #validate(InputStream)}, timed against the request that produced the response.
+     *
+     * @param body     Response body, e.g. {@code ResponseBody.of(response).openStream()}
+     * @param response The response the body belongs to
+     * @return Number of items seen and the validation errors found
+     */
+    public StreamingValidationReport validate(InputStream body, Response response) {
+        StreamingValidationReport report = new StreamingValidationReport(schemaName);
+        // Reading and validating are interleaved, so the time includes reading the body
+        RunMetrics.SchemaValidation timing = RunMetrics.shared().startSchemaValidation(schemaName, response);
+        try {
+            validateBody(body, report);
+        } finally {
+            timing.finish(report.isSuccess());
+        }
+        return report;
+    }
+
+    private void validateBody(InputStream body, StreamingValidationReport report) {
+        try (InputStream in = body; JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            JsonToken first = parser.nextToken();
+            if (arrayField == null) {
+                if (first != JsonToken.START_ARRAY) {
+                    report.error("", "expected a JSON array but found " + first);
+                    return;
+                }
+                readItems(parser, "", report);
+            } else {
+                if (first != JsonToken.START_OBJECT) {
+                    report.error("", "expected a JSON object but found " + first);
+                    return;
+                }
+                ObjectNode envelope = MAPPER.createObjectNode();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (field.equals(arrayField) && value == JsonToken.START_ARRAY) {
+                        readItems(parser, "/" + field, report);
+                        envelope.putArray(field);
+                    } else {
+                        envelope.set(field, MAPPER.readTree(parser));
+                    }
+                }
+                check(envelopeSchema, envelope, "", report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read response body for schema " + schemaName, e);
+        }
+    }
+
+    private void readItems(JsonParser parser, String arrayPointer, StreamingValidationReport report) throws IOException {
+        long index = 0;
+        Set<JsonNode> seen = uniqueItems ? new HashSet<>() : null;
+        boolean duplicates = false;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            // Only this one item is held in memory, unless the items must be unique
+            JsonNode item = MAPPER.readTree(parser);
+            check(itemSchema, item, arrayPointer + "/" + index, report);
+            report.itemValidated();
+            if (seen != null && !seen.add(item)) {
+                duplicates = true;
+            }
+            index++;
+        }
+        // Same wording as the buffered validator's messages
+        if (index < minItems) {
+            report.error(arrayPointer, "array is too short: must have at least " + minItems
+                    + " elements but instance has " + index + " elements");
+        }
+        if (index > maxItems) {
+            report.error(arrayPointer, "array is too long: must have at most " + maxItems
+                    + " elements but instance has " + index + " elements");
+        }
+        if (duplicates) {
+            report.error(arrayPointer, "array must not contain duplicate elements");
+        }
+    }
+
+    private void check(JsonSchema schema, JsonNode instance, String pointerPrefix, StreamingValidationReport report) {
+        ProcessingReport result;
+        try {
+            result = schema.validate(instance);
+        } catch (ProcessingException e) {
+            throw new IllegalStateException("JSON schema validation could not run for: " + schemaName, e);
+        }
+        if (result.isSuccess()) {
+            return;
+        }
+        for (ProcessingMessage message : result) {
+            String pointer = message.asJson().path("instance").path("pointer").asText("");
+            report.error(pointerPrefix + pointer, message.getMessage());
+        }
+    }
+}
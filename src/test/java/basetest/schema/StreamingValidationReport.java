@@ -0,0 +1,75 @@
+package basetest.schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a {@link StreamingSchemaValidator} run. Only the first few errors are kept in full,
+ * so a broken list of any length still produces a small report.
+ */
+public final class StreamingValidationReport {
+
+    static final int MAX_REPORTED_ERRORS = 20;
+
+    private final String schemaName;
+    private final List<String> errors = new ArrayList<>();
+    private long items;
+    private long errorCount;
+
+    StreamingValidationReport(String schemaName) {
+        this.schemaName = schemaName;
+    }
+
+    void itemValidated() {
+        items++;
+    }
+
+    void error(String pointer, String message) {
+        errorCount++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add((pointer.isEmpty() ? "/" : pointer) + ": " + message);
+        }
+    }
+
+    /**
+     * @return Number of list items read and validated
+     */
+    public long items() {
+        return items;
+    }
+
+    /**
+     * @return Total number of validation errors, including those not kept in {@link #errors()}
+     */
+    public long errorCount() {
+        return errorCount;
+    }
+
+    /**
+     * @return The first validation errors, each prefixed with the JSON pointer of the failing value
+     */
+    public List<String> errors() {
+        return List.copyOf(errors);
+    }
+
+    public boolean isSuccess() {
+        return errorCount == 0;
+    }
+
+    /**
+     * Fails with the collected errors if the body did not match the schema.
+     */
+    public void assertValid() {
+        if (!isSuccess()) {
+            throw new AssertionError(String.format("Response does not match JSON schema '%s': %d error(s) in %d item(s)%s:%n  %s",
+                    schemaName, errorCount, items,
+                    errorCount > errors.size() ? ", first " + errors.size() + " shown" : "",
+                    String.join(System.lineSeparator() + "  ", errors)));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Schema " + schemaName + ": " + items + " items, " + errorCount + " errors";
+    }
+}
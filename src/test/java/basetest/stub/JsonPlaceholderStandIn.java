@@ -0,0 +1,93 @@
+package basetest.stub;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+
+import static basetest.stub.StandInServer.MAPPER;
+
+/**
+ * Serves the jsonplaceholder.typicode.com post endpoints with the same status codes and body shapes as the real API:
+ * <ul>
+ *     <li>GET /posts - all 100 posts as a JSON array</li>
+ *     <li>GET /posts/{id} - 200 with the post, or 404 with an empty object</li>
+ *     <li>POST /posts - 201, echoes the payload with "id": 101</li>
+ *     <li>PUT /posts/{id} - 200, echoes the payload with the path id; 500 for unknown ids (as upstream does)</li>
+ *     <li>PATCH /posts/{id} - 200, the stored post merged with the payload</li>
+ *     <li>DELETE /posts/{id} - 200 with an empty object, for any id</li>
+ * </ul>
+ */
+class JsonPlaceholderStandIn implements HttpHandler {
+
+    private static final int POST_COUNT = 100;
+    private static final int POSTS_PER_USER = 10;
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String[] segments = exchange.getRequestURI().getPath().split("/");
+        String method = exchange.getRequestMethod();
+
+        // segments: ["", "posts"] or ["", "posts", "{id}"]
+        if (segments.length < 2 || !"posts".equals(segments[1]) || segments.length > 3) {
+            StandInServer.sendJson(exchange, 404, MAPPER.createObjectNode());
+        } else if (segments.length == 2) {
+            handleCollection(exchange, method);
+        } else {
+            handleItem(exchange, method, StandInServer.parseId(segments[2]));
+        }
+    }
+
+    private void handleCollection(HttpExchange exchange, String method) throws IOException {
+        switch (method) {
+            case "GET" -> {
+                ArrayNode posts = MAPPER.createArrayNode();
+                for (int id = 1; id <= POST_COUNT; id++) {
+                    posts.add(post(id));
+                }
+                StandInServer.sendJson(exchange, 200, posts);
+            }
+            case "POST" -> {
+                ObjectNode created = StandInServer.readObject(exchange);
+                created.put("id", POST_COUNT + 1);
+                StandInServer.sendJson(exchange, 201, created);
+            }
+            default -> StandInServer.sendEmpty(exchange, 405);
+        }
+    }
+
+    private void handleItem(HttpExchange exchange, String method, int id) throws IOException {
+        boolean exists = id >= 1 && id <= POST_COUNT;
+        switch (method) {
+            case "GET" -> StandInServer.sendJson(exchange, exists ? 200 : 404, exists ? post(id) : MAPPER.createObjectNode());
+            case "PUT" -> {
+                ObjectNode replaced = StandInServer.readObject(exchange);
+                if (exists) {
+                    replaced.put("id", id);
+                    StandInServer.sendJson(exchange, 200, replaced);
+                } else {
+                    // Upstream fails with an internal error when replacing a post that does not exist
+                    StandInServer.sendJson(exchange, 500, MAPPER.createObjectNode());
+                }
+            }
+            case "PATCH" -> {
+                ObjectNode patched = exists ? post(id) : MAPPER.createObjectNode();
+                patched.setAll(StandInServer.readObject(exchange));
+                StandInServer.sendJson(exchange, 200, patched);
+            }
+            case "DELETE" -> StandInServer.sendJson(exchange, 200, MAPPER.createObjectNode());
+            default -> StandInServer.sendEmpty(exchange, 405);
+        }
+    }
+
+    private static ObjectNode post(int id) {
+        ObjectNode post = MAPPER.createObjectNode();
+        post.put("userId", (id - 1) / POSTS_PER_USER + 1);
+        post.put("id", id);
+        post.put("title", "Post title " + id);
+        post.put("body", "Body of post " + id + ".\nServed by the local JSONPlaceholder stand-in.");
+        return post;
+    }
+}
@@ -0,0 +1,143 @@
+package basetest.stub;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static basetest.stub.StandInServer.MAPPER;
+
+/**
+ * Serves the reqres.in user endpoints with the same status codes and body shapes as the real API:
+ * <ul>
+ *     <li>GET /users?page=N&amp;per_page=M - paginated list (12 users, 6 per page by default)</li>
+ *     <li>GET /users/{id} - 200 with the user, or 404 with an empty object</li>
+ *     <li>POST /users - 201, echoes the payload plus "id" and "createdAt"</li>
+ *     <li>PUT/PATCH /users/{id} - 200, echoes the payload plus "updatedAt"</li>
+ *     <li>DELETE /users/{id} - 204 with no body</li>
+ * </ul>
+ */
+class ReqresStandIn implements HttpHandler {
+
+    private static final String[][] USERS = {
+            {"George", "Bluth"}, {"Janet", "Weaver"}, {"Emma", "Wong"}, {"Eve", "Holt"},
+            {"Charles", "Morris"}, {"Tracey", "Ramos"}, {"Michael", "Lawson"}, {"Lindsay", "Ferguson"},
+            {"Tobias", "Funke"}, {"Byron", "Fields"}, {"George", "Edwards"}, {"Rachel", "Howell"}
+    };
+    private static final int DEFAULT_PER_PAGE = 6;
+
+    private final String contextPath;
+    // Reqres hands out increasing ids for created users; nothing is actually stored
+    private final AtomicInteger nextId = new AtomicInteger(100);
+
+    ReqresStandIn(String contextPath) {
+        this.contextPath = contextPath;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String[] segments = exchange.getRequestURI().getPath().substring(contextPath.length()).split("/");
+        String method = exchange.getRequestMethod();
+
+        // segments: ["", "users"] or ["", "users", "{id}"]
+        if (segments.length < 2 || !"users".equals(segments[1]) || segments.length > 3) {
+            StandInServer.sendJson(exchange, 404, MAPPER.createObjectNode());
+        } else if (segments.length == 2) {
+            handleCollection(exchange, method);
+        } else {
+            handleItem(exchange, method, StandInServer.parseId(segments[2]));
+        }
+    }
+
+    private void handleCollection(HttpExchange exchange, String method) throws IOException {
+        switch (method) {
+            case "GET" -> StandInServer.sendJson(exchange, 200, userPage(query(exchange)));
+            case "POST" -> {
+                ObjectNode created = StandInServer.readObject(exchange);
+                created.put("id", String.valueOf(nextId.incrementAndGet()));
+                created.put("createdAt", Instant.now().toString());
+                StandInServer.sendJson(exchange, 201, created);
+            }
+            default -> StandInServer.sendEmpty(exchange, 405);
+        }
+    }
+
+    private void handleItem(HttpExchange exchange, String method, int id) throws IOException {
+        switch (method) {
+            case "GET" -> {
+                if (id < 1 || id > USERS.length) {
+                    StandInServer.sendJson(exchange, 404, MAPPER.createObjectNode());
+                } else {
+                    ObjectNode single = MAPPER.createObjectNode();
+                    single.set("data", user(id));
+                    single.set("support", support());
+                    StandInServer.sendJson(exchange, 200, single);
+                }
+            }
+            case "PUT", "PATCH" -> {
+                // Reqres accepts updates for any id and simply echoes the payload
+                ObjectNode updated = StandInServer.readObject(exchange);
+                updated.put("updatedAt", Instant.now().toString());
+                StandInServer.sendJson(exchange, 200, updated);
+            }
+            case "DELETE" -> StandInServer.sendEmpty(exchange, 204);
+            default -> StandInServer.sendEmpty(exchange, 405);
+        }
+    }
+
+    private static ObjectNode userPage(Map<String, String> query) {
+        int page = Math.max(1, StandInServer.parseId(query.getOrDefault("page", "1")));
+        int perPage = Math.max(1, StandInServer.parseId(query.getOrDefault("per_page", String.valueOf(DEFAULT_PER_PAGE))));
+
+        ObjectNode list = MAPPER.createObjectNode();
+        list.put("page", page);
+        list.put("per_page", perPage);
+        list.put("total", USERS.length);
+        list.put("total_pages", (USERS.length + perPage - 1) / perPage);
+        ArrayNode data = list.putArray("data");
+        long first = (long) (page - 1) * perPage + 1;
+        for (long id = first; id < first + perPage && id <= USERS.length; id++) {
+            data.add(user((int) id));
+        }
+        list.set("support", support());
+        return list;
+    }
+
+    private static ObjectNode user(int id) {
+        String[] name = USERS[id - 1];
+        ObjectNode user = MAPPER.createObjectNode();
+        user.put("id", id);
+        user.put("email", name[0].toLowerCase() + "." + name[1].toLowerCase() + "@reqres.in");
+        user.put("first_name", name[0]);
+        user.put("last_name", name[1]);
+        user.put("avatar", "https://reqres.in/img/faces/" + id + "-image.jpg");
+        return user;
+    }
+
+    private static ObjectNode support() {
+        ObjectNode support = MAPPER.createObjectNode();
+        support.put("url", "https://reqres.in/#support-heading");
+        support.put("text", "To keep ReqRes free, contributions towards server costs are appreciated!");
+        return support;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw != null) {
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(pair.substring(0, eq), pair.substring(eq + 1));
+                }
+            }
+        }
+        return params;
+    }
+}
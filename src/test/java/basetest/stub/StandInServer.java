@@ -0,0 +1,130 @@
+package basetest.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process HTTP stand-in for one of the public APIs under test, bound to an ephemeral localhost port.
+ * Runs on the JDK's built-in HTTP server, so the suite can run offline and without network latency
+ * ({@code -Dapi.target=local}). Exchanges are handled by a small pool of daemon platform threads rather than
+ * virtual threads: client-side virtual threads pinned inside HttpClient's synchronized sections would otherwise
+ * starve the shared carrier pool that the server needs to answer them.
+ */
+public final class StandInServer implements AutoCloseable {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Handlers only build small JSON documents, so a few threads per core keep up with any client
+    private static final int HANDLER_THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String contextPath;
+
+    private StandInServer(String contextPath, HttpHandler handler) {
+        this.contextPath = contextPath;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start stand-in server", e);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(HANDLER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "stand-in" + contextPath.replace('/', '-') + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(contextPath.isEmpty() ? "/" : contextPath, handler);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return A running stand-in for https://reqres.in/api
+     */
+    public static StandInServer reqres() {
+        return new StandInServer("/api", new ReqresStandIn("/api"));
+    }
+
+    /**
+     * @return A running stand-in for https://jsonplaceholder.typicode.com
+     */
+    public static StandInServer jsonPlaceholder() {
+        return new StandInServer("", new JsonPlaceholderStandIn());
+    }
+
+    /**
+     * @return The base URL to use in place of the real host, e.g. http://127.0.0.1:54321/api
+     */
+    public String baseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort() + contextPath;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ---- helpers shared by the API handlers ----
+
+    /**
+     * Reads a JSON object request body; an empty body is treated as an empty object.
+     */
+    static ObjectNode readObject(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readAllBytes();
+            if (body.length == 0) {
+                return MAPPER.createObjectNode();
+            }
+            JsonNode node = MAPPER.readTree(body);
+            return node instanceof ObjectNode object ? object : MAPPER.createObjectNode();
+        }
+    }
+
+    /**
+     * Writes a JSON response with the given status code.
+     */
+    static void sendJson(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Writes an empty response (e.g. 204 No Content).
+     */
+    static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    /**
+     * Parses a numeric path id, returning -1 for anything that is not a positive integer.
+     */
+    static int parseId(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
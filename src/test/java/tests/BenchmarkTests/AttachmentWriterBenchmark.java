@@ -0,0 +1,210 @@
+package tests.BenchmarkTests;
+
+import basetest.benchmark.JmhRunner;
+import basetest.reporting.AttachmentService;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.TestResult;
+import org.junit.jupiter.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Attaches the same mix of attachments from {@value #THREADS} threads, once with Allure's synchronous
+ * {@code addAttachment} (one file write per attachment on the test thread) and once through
+ * {@link AttachmentService} (background writes, one file per distinct content).
+ * <p>
+ * JMH measures the time each test thread spends attaching a batch of {@value #CALLS_PER_THREAD} calls, and the bytes
+ * allocated; the background writer is held to a wide margin on the time, since the times of a short run move with the
+ * machine's load. The number of files written for one run of the mix is checked separately.
+ * <p>
+ * The mix per call: a unique request line, a status-and-headers summary that repeats often, the schema location and
+ * payload shared by many tests, and a 4 KB body for one call in ten. A third run also compresses attachments above
+ * 1 KB, which only the bodies are. Each run writes to its own temporary results directory.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=AttachmentWriterBenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(batchSize = AttachmentWriterBenchmark.CALLS_PER_THREAD)
+@Measurement(batchSize = AttachmentWriterBenchmark.CALLS_PER_THREAD)
+@Threads(AttachmentWriterBenchmark.THREADS)
+public class AttachmentWriterBenchmark {
+
+    static final int THREADS = 8;
+    static final int CALLS_PER_THREAD = 500;
+
+    private static final String BODY = "{\"id\": 1, \"title\": \"" + "x".repeat(4000) + "\"}";
+
+    private Path syncDirectory;
+    private Path serviceDirectory;
+    private AllureLifecycle syncLifecycle;
+    private AllureLifecycle serviceLifecycle;
+    private AttachmentService service;
+    private final AtomicLong calls = new AtomicLong();
+
+    @Test
+    @DisplayName("Allure attachment writes: synchronous vs background")
+    public void compareAttachmentWriters() {
+        Map<String, JmhRunner.Score> scores = JmhRunner.runWithAllocation(AttachmentWriterBenchmark.class);
+        scores.forEach((benchmark, score) -> System.out.printf("[benchmark] %-20s %,10.1f ms/%d calls %,14.0f B/%d calls%n",
+                benchmark, score.score(), CALLS_PER_THREAD, score.allocatedBytesPerOp(), CALLS_PER_THREAD));
+        System.out.println("[benchmark] results: " + JmhRunner.resultFile(AttachmentWriterBenchmark.class));
+
+        JmhRunner.Score sync = scores.get("allureAddAttachment");
+        JmhRunner.Score background = scores.get("attachmentService");
+        assertTrue(background.score() < sync.score() / 2,
+                "Test threads should no longer wait on file writes: " + background.score() + " vs " + sync.score() + " ms");
+    }
+
+    @Test
+    @DisplayName("Allure attachment files: one per attachment vs one per distinct content")
+    public void compareAttachmentFiles() throws Exception {
+        Path syncDirectory = Files.createTempDirectory("allure-sync");
+        Path batchedDirectory = Files.createTempDirectory("allure-batched");
+        Path compressedDirectory = Files.createTempDirectory("allure-compressed");
+        try {
+            AllureLifecycle syncLifecycle = new AllureLifecycle(new FileSystemResultsWriter(syncDirectory));
+            run(syncLifecycle, (name, content) ->
+                    syncLifecycle.addAttachment(name, "text/plain", ".txt", content.getBytes(StandardCharsets.UTF_8)), () -> { });
+
+            AllureLifecycle batchedLifecycle = new AllureLifecycle(new FileSystemResultsWriter(batchedDirectory));
+            AttachmentService service = new AttachmentService(false, 256 * 1024, 0, batchedDirectory, batchedLifecycle);
+            run(batchedLifecycle, (name, content) -> service.attach(name, "text/plain", content), service::flush);
+
+            AllureLifecycle compressedLifecycle = new AllureLifecycle(new FileSystemResultsWriter(compressedDirectory));
+            AttachmentService compressing = new AttachmentService(false, 256 * 1024, 1024, compressedDirectory, compressedLifecycle);
+            run(compressedLifecycle, (name, content) -> compressing.attach(name, "text/plain", content), compressing::flush);
+
+            long syncFiles = countFiles(syncDirectory);
+            long batchedFiles = countFiles(batchedDirectory);
+            System.out.printf("[benchmark] %d attachments on %d threads  Allure.addAttachment: %,d files  AttachmentService: %,d files%n",
+                    THREADS * CALLS_PER_THREAD * 4L, THREADS, syncFiles, batchedFiles);
+            System.out.println("[benchmark] " + service.summary());
+            System.out.println("[benchmark] " + compressing.summary() + " with -D" + AttachmentService.COMPRESS_ABOVE_PROPERTY + "=1024");
+
+            assertEquals(THREADS * CALLS_PER_THREAD * 4L, syncFiles);
+            assertTrue(batchedFiles < syncFiles / 2, "Repeated attachments should share files");
+        } finally {
+            delete(syncDirectory);
+            delete(batchedDirectory);
+            delete(compressedDirectory);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createResultDirectories() throws IOException {
+        syncDirectory = Files.createTempDirectory("allure-sync");
+        serviceDirectory = Files.createTempDirectory("allure-batched");
+        syncLifecycle = new AllureLifecycle(new FileSystemResultsWriter(syncDirectory));
+        serviceLifecycle = new AllureLifecycle(new FileSystemResultsWriter(serviceDirectory));
+        service = new AttachmentService(false, 256 * 1024, 0, serviceDirectory, serviceLifecycle);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteResultDirectories() throws IOException {
+        service.flush();
+        delete(syncDirectory);
+        delete(serviceDirectory);
+    }
+
+    /**
+     * The test case each benchmark thread attaches to, in both lifecycles.
+     */
+    @State(Scope.Thread)
+    public static class TestThread {
+        @Setup(Level.Trial)
+        public void startTestCases(AttachmentWriterBenchmark benchmark) {
+            for (AllureLifecycle lifecycle : List.of(benchmark.syncLifecycle, benchmark.serviceLifecycle)) {
+                String uuid = UUID.randomUUID().toString();
+                lifecycle.scheduleTestCase(new TestResult().setUuid(uuid).setName("attachments"));
+                lifecycle.startTestCase(uuid);
+            }
+        }
+    }
+
+    @Benchmark
+    public void allureAddAttachment(TestThread thread) {
+        attachCall(calls.getAndIncrement(), (name, content) ->
+                syncLifecycle.addAttachment(name, "text/plain", ".txt", content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public void attachmentService(TestThread thread) {
+        attachCall(calls.getAndIncrement(), (name, content) -> service.attach(name, "text/plain", content));
+    }
+
+    /**
+     * Attaches the mix of one call; the request line is unique per call number.
+     */
+    private static void attachCall(long call, BiConsumer<String, String> attach) {
+        attach.accept("API Request", "GET /posts/" + call);
+        attach.accept("API Response", "Status Code: 200\nHeaders: Content-Type=application/json\nX-Page=" + call % 20);
+        attach.accept("JSON Schema", "schemas/jsingle-user-schema.json");
+        attach.accept(call % 10 == 0 ? "Response Body" : "Request Payload",
+                call % 10 == 0 ? BODY + call % CALLS_PER_THREAD : "{\"title\": \"foo\", \"body\": \"bar\", \"userId\": 1}");
+    }
+
+    /**
+     * Attaches the mix from every thread inside one running test case, then waits for the files.
+     */
+    private static void run(AllureLifecycle lifecycle, BiConsumer<String, String> attach, Runnable flush) throws Exception {
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult().setUuid(uuid).setName("attachments"));
+        lifecycle.startTestCase(uuid);
+
+        // Threads are created here, so they inherit the running test case
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                done.add(threads.submit(() -> {
+                    for (int call = 0; call < CALLS_PER_THREAD; call++) {
+                        attachCall((long) thread * CALLS_PER_THREAD + call, attach);
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            threads.shutdown();
+        }
+        flush.run();
+        lifecycle.stopTestCase(uuid);
+    }
+
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package tests.BenchmarkTests;
+
+import basetest.benchmark.JmhRunner;
+import basetest.http.ConnectionPool;
+import basetest.stub.StandInServer;
+import io.restassured.config.RestAssuredConfig;
+import org.junit.jupiter.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH comparison of the GET requests of the suite sent with REST Assured's default client
+ * (a new HttpClient and connection per request) and through a dedicated {@link ConnectionPool},
+ * against the local stand-ins of both APIs. Reports the time and bytes allocated per pass over the endpoints,
+ * and the connection setups the pool avoided; only the allocation and connection counts are checked,
+ * since the times of a short run move with the machine's load.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=ConnectionReuseBenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConnectionReuseBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    // The read-only requests made by the GET and schema test classes
+    private static final List<String> REQRES_ENDPOINTS = List.of("/users?page=2", "/users/2", "/users/999");
+    private static final List<String> JSONPLACEHOLDER_ENDPOINTS = List.of("/posts", "/posts/1", "/posts/9999");
+
+    private StandInServer reqres;
+    private StandInServer jsonPlaceholder;
+    private ConnectionPool pool;
+    private RestAssuredConfig pooledConfig;
+
+    @Test
+    @DisplayName("Connection setups and allocation avoided by the pooled client")
+    public void benchmarkConnectionReuse() {
+        Map<String, JmhRunner.Score> scores = JmhRunner.runWithAllocation(ConnectionReuseBenchmark.class);
+        scores.forEach((benchmark, score) -> System.out.printf("[benchmark] %-16s %,10.2f µs/pass %,12.0f B/pass%n",
+                benchmark, score.score(), score.allocatedBytesPerOp()));
+        System.out.println("[benchmark] results: " + JmhRunner.resultFile(ConnectionReuseBenchmark.class));
+
+        JmhRunner.Score unpooled = scores.get("defaultClient");
+        JmhRunner.Score pooled = scores.get("pooledClient");
+        assertTrue(pooled.allocatedBytesPerOp() < unpooled.allocatedBytesPerOp(),
+                "The pooled client should allocate less per request than building a client for each: "
+                        + pooled.allocatedBytesPerOp() + " vs " + unpooled.allocatedBytesPerOp() + " B/pass");
+
+        // Connection counts of a few passes, outside JMH so the pool's statistics can be read
+        startServers();
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                replaySuite(pooledConfig);
+            }
+            // The default client builds a new HttpClient, and so opens a new connection, for every request
+            int requests = ROUNDS * (REQRES_ENDPOINTS.size() + JSONPLACEHOLDER_ENDPOINTS.size());
+            System.out.printf("[benchmark] default client: %d requests, %d connections%n", requests, requests);
+            System.out.printf("[benchmark] pooled client:  %d requests, %d connections (%d TLS handshakes)%n",
+                    pool.requests(), pool.connectionsOpened(), pool.tlsHandshakes());
+            System.out.printf("[benchmark] %d connection setups avoided%n", pool.connectionsAvoided());
+
+            assertTrue(pool.connectionsOpened() < pool.requests(), "Pooled client should reuse connections");
+            assertEquals(0, pool.leasedConnections(), "Every response should hand its connection back to the pool");
+        } finally {
+            stopServers();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startServers() {
+        reqres = StandInServer.reqres();
+        jsonPlaceholder = StandInServer.jsonPlaceholder();
+        pool = ConnectionPool.fromSystemProperties();
+        pooledConfig = pool.restAssuredConfig();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServers() {
+        pool.close();
+        reqres.close();
+        jsonPlaceholder.close();
+    }
+
+    @Benchmark
+    public int defaultClient() {
+        return replaySuite(RestAssuredConfig.config());
+    }
+
+    @Benchmark
+    public int pooledClient() {
+        return replaySuite(pooledConfig);
+    }
+
+    /**
+     * Sends every endpoint of both APIs once with the given config.
+     *
+     * @param config REST Assured config used for all requests
+     * @return Total bytes read, so the work is not optimised away
+     */
+    private int replaySuite(RestAssuredConfig config) {
+        return replay(reqres.baseUrl(), REQRES_ENDPOINTS, config)
+                + replay(jsonPlaceholder.baseUrl(), JSONPLACEHOLDER_ENDPOINTS, config);
+    }
+
+    private static int replay(String baseUrl, List<String> endpoints, RestAssuredConfig config) {
+        int bytes = 0;
+        for (String endpoint : endpoints) {
+            bytes += given()
+                    .baseUri(baseUrl)
+                    .config(config)
+                    .when()
+                    .get(endpoint)
+                    .asByteArray()  // Reading the body hands the pooled connection back
+                    .length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,155 @@
+package tests.BenchmarkTests;
+
+import basetest.benchmark.JmhRunner;
+import basetest.schema.CompiledSchemaMatcher;
+import basetest.schema.SchemaRegistry;
+import com.rafiatu.client.PayloadSerializer;
+import com.rafiatu.client.model.UserJob;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.TestResult;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.module.jsv.JsonSchemaValidator;
+import io.restassured.response.Response;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH benchmarks of the work every API test repeats, measured on the checked-in schemas and fixed payloads:
+ * building the payload of a POST/PUT test with org.json and with Jackson, compiling and running JsonSchemaValidator.matchesJsonSchema
+ * versus the shared {@link SchemaRegistry}, GPath extraction, asPrettyString and Allure.addAttachment.
+ * <p>
+ * The results are written to {@code target/jmh/FrameworkHotPathBenchmark.json} for comparison across releases.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=FrameworkHotPathBenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FrameworkHotPathBenchmark {
+
+    private static final String SCHEMA = "RUser-list-schema.json";
+    private static final String USER_LIST_FIXTURE = "fixtures/reqres-users-page2.json";
+
+    private String userListBody;
+    private Response userListResponse;
+    private CompiledSchemaMatcher registryMatcher;
+    private Path allureResults;
+    private String testCase;
+
+    @Test
+    @DisplayName("Per-test framework overhead of the common hot paths")
+    public void measureHotPaths() {
+        Map<String, Double> micros = JmhRunner.run(FrameworkHotPathBenchmark.class);
+        micros.forEach((benchmark, score) -> System.out.printf("[benchmark] %-32s %,10.2f µs/op%n", benchmark, score));
+        System.out.println("[benchmark] results: " + JmhRunner.resultFile(FrameworkHotPathBenchmark.class));
+
+        assertEquals(7, micros.size(), micros.toString());
+        assertTrue(micros.get("schemaRegistryValidate") < micros.get("schemaCompileAndValidate"),
+                "The precompiled schema should validate faster than compiling it on every call");
+    }
+
+    @Setup(Level.Trial)
+    public void loadFixtures() throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(USER_LIST_FIXTURE)) {
+            userListBody = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        userListResponse = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody(userListBody)
+                .build();
+        registryMatcher = SchemaRegistry.getInstance().matcher(SCHEMA);
+
+        // Attachments need a running test case; they go to a scratch results folder
+        allureResults = Files.createTempDirectory("allure-benchmark");
+        Allure.setLifecycle(new AllureLifecycle(new FileSystemResultsWriter(allureResults)));
+    }
+
+    @Setup(Level.Iteration)
+    public void startTestCase() {
+        // A fresh test case per iteration, so its attachment list does not grow for the whole run
+        testCase = UUID.randomUUID().toString();
+        Allure.getLifecycle().scheduleTestCase(new TestResult().setUuid(testCase).setName("benchmark"));
+        Allure.getLifecycle().startTestCase(testCase);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopTestCase() {
+        Allure.getLifecycle().stopTestCase(testCase);
+        deleteAttachments();
+    }
+
+    @TearDown(Level.Trial)
+    public void removeResults() throws IOException {
+        deleteAttachments();
+        Files.deleteIfExists(allureResults);
+    }
+
+    private void deleteAttachments() {
+        try (Stream<Path> files = Files.list(allureResults)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public String jsonObjectPayload() {
+        return new JSONObject().put("name", "Abdul Rehman").put("job", "QA Engineer").toString();
+    }
+
+    @Benchmark
+    public byte[] jacksonPayload() {
+        return PayloadSerializer.toJson(new UserJob("Abdul Rehman", "QA Engineer"));
+    }
+
+    @Benchmark
+    public boolean schemaCompileAndValidate() {
+        return JsonSchemaValidator.matchesJsonSchemaInClasspath(SchemaRegistry.SCHEMA_DIRECTORY + "/" + SCHEMA)
+                .matches(userListBody);
+    }
+
+    @Benchmark
+    public boolean schemaRegistryValidate() {
+        return registryMatcher.matches(userListBody);
+    }
+
+    @Benchmark
+    public Object gpathExtract() {
+        return userListResponse.path("data[0].email");
+    }
+
+    @Benchmark
+    public String asPrettyString() {
+        return userListResponse.asPrettyString();
+    }
+
+    @Benchmark
+    public void allureAddAttachment() {
+        Allure.addAttachment("Response Body", "application/json", userListBody);
+    }
+}
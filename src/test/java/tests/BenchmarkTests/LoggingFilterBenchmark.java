@@ -0,0 +1,171 @@
+package tests.BenchmarkTests;
+
+import basetest.benchmark.JmhRunner;
+import basetest.logging.AsyncLogWriter;
+import basetest.logging.AsyncLoggingFilter;
+import basetest.stub.StandInServer;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSender;
+import org.junit.jupiter.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH comparison of the per-request cost of REST Assured's synchronous, pretty-printing
+ * RequestLoggingFilter + ResponseLoggingFilter with {@link AsyncLoggingFilter} in each of its modes.
+ * <p>
+ * Every benchmark logs the same captured GET /posts exchange (100 posts, about 27 KB) and writes to a discarding
+ * stream, so only the work done on the request thread is measured, not the console itself.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggingFilterBenchmark {
+
+    private FilterableRequestSpecification request;
+    private CannedResponseContext context;
+
+    private RequestLoggingFilter requestLogging;
+    private ResponseLoggingFilter responseLogging;
+    private AsyncLoggingFilter asyncAll;
+    private AsyncLoggingFilter asyncFailures;
+    private AsyncLoggingFilter asyncSampled;
+
+    @Test
+    @DisplayName("Logging overhead per request: REST Assured filters vs async logging")
+    public void compareLoggingFilters() {
+        Map<String, Double> microsPerRequest = JmhRunner.run(LoggingFilterBenchmark.class);
+        microsPerRequest.forEach((benchmark, micros) ->
+                System.out.printf("[benchmark] %-24s %,10.2f µs/request%n", benchmark, micros));
+
+        double before = microsPerRequest.get("restAssuredLoggingFilters");
+        assertTrue(microsPerRequest.get("asyncFailuresOnly") < before, "Failures-only logging should be cheaper than logging everything");
+        assertTrue(microsPerRequest.get("asyncAll") < before, "Async logging should cost less on the request thread than synchronous pretty printing");
+    }
+
+    @Setup(Level.Trial)
+    public void captureExchange() {
+        // Send one real request to the stand-in and keep its request specification and (fully read) response
+        try (StandInServer jsonPlaceholder = StandInServer.jsonPlaceholder()) {
+            Filter capture = new CaptureFilter();
+            given().baseUri(jsonPlaceholder.baseUrl()).filter(capture).when().get("/posts");
+        }
+
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        requestLogging = new RequestLoggingFilter(LogDetail.ALL, discard);
+        responseLogging = new ResponseLoggingFilter(LogDetail.ALL, discard);
+        asyncAll = new AsyncLoggingFilter(AsyncLoggingFilter.Mode.ALL, 1, 4096, new AsyncLogWriter(discard, 1024));
+        asyncFailures = new AsyncLoggingFilter(AsyncLoggingFilter.Mode.FAILURES, 1, 4096, new AsyncLogWriter(discard, 1024));
+        asyncSampled = new AsyncLoggingFilter(AsyncLoggingFilter.Mode.SAMPLED, 10, 4096, new AsyncLogWriter(discard, 1024));
+    }
+
+    @TearDown(Level.Trial)
+    public void closeWriters() {
+        asyncAll.close();
+        asyncFailures.close();
+        asyncSampled.close();
+    }
+
+    @Benchmark
+    public Response noLogging() {
+        return context.next(request, null);
+    }
+
+    @Benchmark
+    public Response restAssuredLoggingFilters() {
+        requestLogging.filter(request, null, context);
+        return responseLogging.filter(request, null, context);
+    }
+
+    @Benchmark
+    public Response asyncAll() {
+        return asyncAll.filter(request, null, context);
+    }
+
+    @Benchmark
+    public Response asyncFailuresOnly() {
+        return asyncFailures.filter(request, null, context);
+    }
+
+    @Benchmark
+    public Response asyncSampledOneInTen() {
+        return asyncSampled.filter(request, null, context);
+    }
+
+    /**
+     * Keeps the request specification and response of the exchange it sees.
+     */
+    private final class CaptureFilter implements Filter {
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec,
+                               FilterableResponseSpecification responseSpec,
+                               FilterContext ctx) {
+            Response response = ctx.next(requestSpec, responseSpec);
+            response.asString(); // Cache the body so it can be read on every invocation
+            request = requestSpec;
+            context = new CannedResponseContext(response);
+            return response;
+        }
+    }
+
+    /**
+     * Filter context that answers every request with the captured response instead of sending it.
+     */
+    private static final class CannedResponseContext implements FilterContext {
+        private final Response response;
+        private final Map<String, Object> values = new HashMap<>();
+
+        private CannedResponseContext(Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public Response next(FilterableRequestSpecification request, FilterableResponseSpecification response) {
+            return this.response;
+        }
+
+        @Override
+        public Response send(RequestSender requestSender) {
+            throw new UnsupportedOperationException("The benchmark never sends requests");
+        }
+
+        @Override
+        public void setValue(String name, Object value) {
+            values.put(name, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getValue(String name) {
+            return (T) values.get(name);
+        }
+
+        @Override
+        public boolean hasValue(String name) {
+            return values.containsKey(name);
+        }
+
+        @Override
+        public boolean hasValue(String name, Object value) {
+            return values.containsKey(name) && Objects.equals(values.get(name), value);
+        }
+    }
+}
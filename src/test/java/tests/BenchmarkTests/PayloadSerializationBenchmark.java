@@ -0,0 +1,82 @@
+package tests.BenchmarkTests;
+
+import basetest.benchmark.JmhRunner;
+import com.rafiatu.client.PayloadSerializer;
+import com.rafiatu.client.model.Post;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH benchmark of request payload serialization, from 100 B to 1 MB: the org.json way the tests used to build
+ * payloads (JSONObject, toString, then the String's bytes) versus a typed record written by the shared
+ * Jackson {@link PayloadSerializer} straight to bytes. Reports throughput and bytes allocated per payload.
+ * <p>
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=PayloadSerializationBenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PayloadSerializationBenchmark {
+
+    private static final String[] SIZES = {"100", "1024", "102400", "1048576"};
+
+    // Approximate size of the serialized payload in bytes
+    @Param({"100", "1024", "102400", "1048576"})
+    public int size;
+
+    private String title;
+    private String body;
+
+    @Test
+    @DisplayName("Jackson serializes payloads with fewer allocated bytes than org.json")
+    public void measurePayloadSerialization() {
+        Map<String, JmhRunner.Score> scores = JmhRunner.runWithAllocation(PayloadSerializationBenchmark.class);
+        scores.forEach((benchmark, score) -> System.out.printf("[benchmark] %-30s %,14.0f ops/s %,14.0f B/op%n",
+                benchmark, score.score(), score.allocatedBytesPerOp()));
+        System.out.println("[benchmark] results: " + JmhRunner.resultFile(PayloadSerializationBenchmark.class));
+
+        assertEquals(2 * SIZES.length, scores.size(), scores.toString());
+        for (String size : SIZES) {
+            JmhRunner.Score jsonObject = scores.get("jsonObject[size=" + size + "]");
+            JmhRunner.Score jackson = scores.get("jackson[size=" + size + "]");
+            assertTrue(jackson.allocatedBytesPerOp() < jsonObject.allocatedBytesPerOp(),
+                    "Jackson should allocate less than org.json for a " + size + " B payload: "
+                            + jackson.allocatedBytesPerOp() + " vs " + jsonObject.allocatedBytesPerOp() + " B/op");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createPayload() {
+        title = "Payload of " + size + " bytes";
+        // Prose with line breaks and quotes, so both serializers also have to escape
+        String sentence = "The \"quick\" brown fox jumps over the lazy dog.\n";
+        StringBuilder text = new StringBuilder(size);
+        while (text.length() < Math.max(size - 60, 10)) {
+            text.append(sentence);
+        }
+        body = text.substring(0, Math.max(size - 60, 10));
+    }
+
+    @Benchmark
+    public byte[] jsonObject() {
+        return new JSONObject()
+                .put("title", title)
+                .put("body", body)
+                .put("userId", 1)
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] jackson() {
+        return PayloadSerializer.toJson(Post.draft(1, title, body));
+    }
+}
@@ -0,0 +1,110 @@
+package tests.BenchmarkTests;
+
+import basetest.metrics.PerformanceBaseline;
+import basetest.metrics.PerformanceGate;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Records a baseline for a test that pages through {@code /api/users?page=2} on a local host, then checks a run at
+ * the same latency and a run with the endpoint three times slower against it. Without the gate both runs pass;
+ * with it only the slow one is reported.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=PerformanceGateBenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PerformanceGateBenchmark {
+
+    private static final String TEST = "ReqresGetTests.testGetUsers";
+    private static final int BASELINE_RUNS = 5;
+    private static final int REQUESTS_PER_RUN = 10;
+    private static final int DELAY_MS = 20;
+
+    private HttpServer server;
+    private volatile int delayMs = DELAY_MS;
+
+    @BeforeAll
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/users", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"page\": 2, \"data\": []}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterAll
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("A 3x latency regression on /users?page=2 fails the check; the same latency passes")
+    public void detectsRegression() {
+        PerformanceBaseline baseline = new PerformanceBaseline();
+        PerformanceGate recorder = new PerformanceGate(PerformanceGate.Mode.RECORD, baseline, 2, 10);
+        // Warm up connections and the JIT outside the baseline
+        run(new PerformanceGate(PerformanceGate.Mode.OFF, baseline, 2, 10));
+        for (int run = 0; run < BASELINE_RUNS; run++) {
+            run(recorder);
+        }
+
+        PerformanceGate checker = new PerformanceGate(PerformanceGate.Mode.CHECK, baseline, 2, 10);
+        List<PerformanceGate.Comparison> same = run(checker);
+        delayMs = DELAY_MS * 3;
+        List<PerformanceGate.Comparison> slower;
+        try {
+            slower = run(checker);
+        } finally {
+            delayMs = DELAY_MS;
+        }
+
+        System.out.printf("[benchmark] baseline: %d runs of %d requests at %d ms%n", BASELINE_RUNS, REQUESTS_PER_RUN, DELAY_MS);
+        same.forEach(comparison -> System.out.println("[benchmark] same latency  " + comparison.verdict() + "  " + comparison));
+        slower.forEach(comparison -> System.out.println("[benchmark] 3x latency    " + comparison.verdict() + "  " + comparison));
+
+        assertTrue(PerformanceGate.slower(same).isEmpty(), "The same latency should be within the noise tolerance");
+        assertNull(checker.failureMessage(same));
+        assertTrue(PerformanceGate.slower(slower).stream().anyMatch(comparison -> comparison.series().equals("GET /api/users")),
+                "The endpoint should be slower");
+        assertNotNull(checker.failureMessage(slower));
+    }
+
+    /**
+     * One run of the test: {@value #REQUESTS_PER_RUN} requests through the gate, timed like the extension does.
+     */
+    private List<PerformanceGate.Comparison> run(PerformanceGate gate) {
+        RequestSpecification spec = new RequestSpecBuilder()
+                .setBaseUri("http://127.0.0.1:" + server.getAddress().getPort())
+                .addFilter(gate)
+                .build();
+        gate.start();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS_PER_RUN; i++) {
+            given().spec(spec).queryParam("page", 2).get("/api/users").then().statusCode(200);
+        }
+        return gate.finish(TEST, (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -0,0 +1,183 @@
+package tests.BenchmarkTests;
+
+import basetest.benchmark.JmhRunner;
+import basetest.http.ConnectionPool;
+import basetest.replay.ReplayFilter;
+import basetest.replay.ReplayStore;
+import basetest.schema.SchemaRegistry;
+import basetest.stub.StandInServer;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH comparison of the GET requests of ReqresGetTests and JSONPlaceholderGet sent over the (pooled) network to the
+ * local stand-ins, with the same requests served by a {@link ReplayFilter} from a store recorded in the trial's setup.
+ * Reports the time and bytes allocated per pass over the endpoints; replay is held to a wide margin on both,
+ * since the times of a short run move with the machine's load.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=ReplayBenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReplayBenchmark {
+
+    private static final List<String> REQRES_ENDPOINTS = List.of("/users?page=2", "/users/2", "/users/999");
+    private static final List<String> JSONPLACEHOLDER_ENDPOINTS = List.of("/posts", "/posts/1", "/posts/9999");
+
+    private StandInServer reqres;
+    private StandInServer jsonPlaceholder;
+    private ConnectionPool pool;
+    private RestAssuredConfig config;
+
+    private Path storeDirectory;
+    private ReplayFilter replay;
+
+    @Test
+    @DisplayName("Suite rerun cost: network vs replay store")
+    public void compareNetworkAndReplay() {
+        Map<String, JmhRunner.Score> scores = JmhRunner.runWithAllocation(ReplayBenchmark.class);
+        scores.forEach((benchmark, score) -> System.out.printf("[benchmark] %-8s %,12.2f µs/pass %,12.0f B/pass%n",
+                benchmark, score.score(), score.allocatedBytesPerOp()));
+        System.out.println("[benchmark] results: " + JmhRunner.resultFile(ReplayBenchmark.class));
+
+        JmhRunner.Score network = scores.get("network");
+        JmhRunner.Score replayed = scores.get("replay");
+        assertTrue(replayed.score() < network.score() / 2,
+                "Replaying should take well under the network time: " + replayed.score() + " vs " + network.score() + " µs");
+        assertTrue(replayed.allocatedBytesPerOp() < network.allocatedBytesPerOp(),
+                "Replaying should allocate less than going to the network: "
+                        + replayed.allocatedBytesPerOp() + " vs " + network.allocatedBytesPerOp() + " B");
+    }
+
+    @Test
+    @DisplayName("Replayed responses match the recorded ones")
+    public void replayMatchesRecording(@TempDir Path directory) {
+        startServers();
+        try {
+            List<String> recordedBodies = new ArrayList<>();
+            record(directory, recordedBodies);
+
+            ReplayStore store = ReplayStore.open(directory, SchemaRegistry.getInstance().contentHash(), null);
+            assertNull(store.ignoredReason());
+            List<String> replayedBodies = new ArrayList<>();
+            sendSuite(new ReplayFilter(ReplayFilter.Mode.REPLAY, store, true), replayedBodies);
+
+            assertEquals(recordedBodies, replayedBodies, "Replayed responses should match the recorded ones");
+        } finally {
+            stopServers();
+        }
+    }
+
+    @Test
+    @DisplayName("Replay store is ignored once the schemas change")
+    public void ignoresStoreRecordedWithOtherSchemas(@TempDir Path directory) {
+        startServers();
+        try (ReplayFilter recorder = new ReplayFilter(ReplayFilter.Mode.RECORD,
+                ReplayStore.open(directory, "previous-schemas", null), false)) {
+            sendSuite(recorder, new ArrayList<>());
+        } finally {
+            stopServers();
+        }
+
+        ReplayStore store = ReplayStore.open(directory, SchemaRegistry.getInstance().contentHash(), null);
+        assertNotNull(store.ignoredReason());
+        assertEquals(0, store.size());
+    }
+
+    @Setup(Level.Trial)
+    public void recordStore() throws IOException {
+        startServers();
+        storeDirectory = Files.createTempDirectory("replay-benchmark");
+        record(storeDirectory, new ArrayList<>());
+        replay = new ReplayFilter(ReplayFilter.Mode.REPLAY,
+                ReplayStore.open(storeDirectory, SchemaRegistry.getInstance().contentHash(), null), true);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() throws IOException {
+        stopServers();
+        try (Stream<Path> files = Files.walk(storeDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int network() {
+        return sendSuite(null, null);
+    }
+
+    @Benchmark
+    public int replay() {
+        return sendSuite(replay, null);
+    }
+
+    private void startServers() {
+        reqres = StandInServer.reqres();
+        jsonPlaceholder = StandInServer.jsonPlaceholder();
+        pool = ConnectionPool.fromSystemProperties();
+        config = pool.restAssuredConfig();
+    }
+
+    private void stopServers() {
+        pool.close();
+        reqres.close();
+        jsonPlaceholder.close();
+    }
+
+    /**
+     * Sends every endpoint once over the network, recording the responses into a store in the given directory.
+     */
+    private void record(Path directory, List<String> bodies) {
+        try (ReplayFilter recorder = new ReplayFilter(ReplayFilter.Mode.RECORD,
+                ReplayStore.open(directory, SchemaRegistry.getInstance().contentHash(), null), false)) {
+            sendSuite(recorder, bodies);
+        }
+    }
+
+    /**
+     * Sends every endpoint of both APIs once.
+     *
+     * @param replay Replay filter to send through, or null to go to the network
+     * @param bodies Collects the status and body of each response, if not null
+     * @return Total length of the response bodies, so the work is not optimised away
+     */
+    private int sendSuite(ReplayFilter replay, List<String> bodies) {
+        return send(reqres.baseUrl(), REQRES_ENDPOINTS, replay, bodies)
+                + send(jsonPlaceholder.baseUrl(), JSONPLACEHOLDER_ENDPOINTS, replay, bodies);
+    }
+
+    private int send(String baseUrl, List<String> endpoints, ReplayFilter replay, List<String> bodies) {
+        int length = 0;
+        for (String endpoint : endpoints) {
+            RequestSpecification request = given().baseUri(baseUrl).config(config);
+            if (replay != null) {
+                request.filter(replay);
+            }
+            Response response = request.when().get(endpoint);
+            String body = response.asString();
+            length += body.length();
+            if (bodies != null) {
+                bodies.add(response.getStatusCode() + " " + body);
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,111 @@
+package tests.BenchmarkTests;
+
+import basetest.benchmark.JmhRunner;
+import basetest.http.ConnectionPool;
+import com.rafiatu.client.ApiCatalog;
+import com.rafiatu.client.ApiClient;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH benchmark of the client-side cost of setting up one request, up to the point where it would go on the wire:
+ * the ad-hoc ways of building a call (the base URL and path concatenated per request with the content type set on
+ * the call, or a REST Assured {@code {id}} path parameter resolved per request) versus a named
+ * {@link com.rafiatu.client.RequestTemplate} from the {@link ApiCatalog}. The last filter answers with a fixed
+ * response, so no network time is included. Reports the time and bytes allocated per request; only the allocation
+ * is checked, since REST Assured's Groovy call sites need more warm-up than the default short run gives them
+ * ({@code -Djmh.iterations=10} for comparable times).
+ * <p>
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=RequestTemplateBenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestTemplateBenchmark {
+
+    private static final String BASE_URL = "https://jsonplaceholder.typicode.com";
+
+    private RestAssuredConfig config;
+    private Filter cannedResponse;
+    private RequestSpecification spec;
+    private ApiCatalog api;
+    private int id;
+
+    @Test
+    @DisplayName("Per-request setup: ad-hoc calls vs precompiled request templates")
+    public void measureRequestSetup() {
+        Map<String, JmhRunner.Score> scores = JmhRunner.runWithAllocation(RequestTemplateBenchmark.class);
+        scores.forEach((benchmark, score) -> System.out.printf("[benchmark] %-20s %,10.2f µs/op %,10.0f B/op%n",
+                benchmark, score.score(), score.allocatedBytesPerOp()));
+        System.out.println("[benchmark] results: " + JmhRunner.resultFile(RequestTemplateBenchmark.class));
+
+        assertEquals(3, scores.size(), scores.toString());
+        JmhRunner.Score template = scores.get("template");
+        for (String adHoc : new String[]{"concatenatedUrl", "pathParameter"}) {
+            assertTrue(template.allocatedBytesPerOp() < scores.get(adHoc).allocatedBytesPerOp(),
+                    "A request template should allocate less per request than " + adHoc + ": "
+                            + template.allocatedBytesPerOp() + " vs " + scores.get(adHoc).allocatedBytesPerOp() + " B/op");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void buildSpecifications() {
+        Response canned = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody("{\"id\":1}")
+                .build();
+        cannedResponse = (requestSpec, responseSpec, ctx) -> canned;
+        config = ConnectionPool.shared().restAssuredConfig();
+        spec = new RequestSpecBuilder()
+                .setBaseUri(BASE_URL)
+                .setContentType(ContentType.JSON)
+                .setConfig(config)
+                .addFilter(cannedResponse)
+                .build();
+        ApiClient client = new ApiClient(spec);
+        api = new ApiCatalog(client, client);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextId() {
+        id = id % 100 + 1;
+    }
+
+    @Benchmark
+    public Response concatenatedUrl() {
+        return given()
+                .config(config)
+                .filter(cannedResponse)
+                .header("Content-Type", "application/json")
+                .when()
+                .get(BASE_URL + "/posts/" + id);
+    }
+
+    @Benchmark
+    public Response pathParameter() {
+        return given()
+                .spec(spec)
+                .when()
+                .get("/posts/{id}", id);
+    }
+
+    @Benchmark
+    public Response template() {
+        return api.posts().byId().call(id);
+    }
+}
@@ -0,0 +1,147 @@
+package tests.BenchmarkTests;
+
+import basetest.BaseTest;
+import basetest.http.CircuitOpenException;
+import basetest.http.ResilienceFilter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends requests to a local host that fails every other request and to one that is slow and always fails,
+ * with and without the {@link ResilienceFilter}, and compares the outcome and the time the run spends on them.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=ResilienceBenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ResilienceBenchmark extends BaseTest {
+
+    private static final int REQUESTS = 20;
+    private static final int SLOW_FAILURE_MS = 300;
+
+    private HttpServer server;
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+
+    @BeforeAll
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Every other request is answered with 503
+        server.createContext("/flaky", exchange -> {
+            respond(exchange, flakyCalls.incrementAndGet() % 2 == 0 ? 503 : 200);
+        });
+        // Answers slowly and always fails, like an overloaded upstream
+        server.createContext("/down", exchange -> {
+            try {
+                Thread.sleep(SLOW_FAILURE_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 503);
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterAll
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Retries turn a flaky host's 503s into successes; POST is not retried")
+    public void flakyHost() {
+        flakyCalls.set(0);
+        int withoutFilter = successes(spec(null), REQUESTS);
+
+        ResilienceFilter filter = new ResilienceFilter(new ResilienceFilter.Policy(3, 10, 50, 5_000, Set.of(503), 0, 1_000));
+        flakyCalls.set(0);
+        int withFilter = successes(spec(filter), REQUESTS);
+
+        flakyCalls.set(1);  // The next request fails
+        Response post = given().spec(spec(filter)).post("/flaky");
+        post.asByteArray();
+        int postStatus = post.statusCode();
+
+        System.out.printf("[benchmark] flaky host, %d GETs  without filter: %d succeeded  with filter: %d succeeded%n",
+                REQUESTS, withoutFilter, withFilter);
+        System.out.println("[benchmark] " + filter.summary());
+        assertEquals(REQUESTS / 2, withoutFilter);
+        assertEquals(REQUESTS, withFilter);
+        assertEquals(503, postStatus, "POST must not be retried");
+        assertTrue(filter.retries() >= REQUESTS / 2 - 1, filter.summary());
+    }
+
+    @Test
+    @DisplayName("An open circuit fails fast instead of waiting on a host that is down")
+    public void hostDown() {
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            given().spec(spec(null)).get("/down").then().statusCode(503).extract().asByteArray();
+        }
+        long withoutMillis = (System.nanoTime() - start) / 1_000_000;
+
+        ResilienceFilter filter = new ResilienceFilter(new ResilienceFilter.Policy(1, 10, 50, 5_000, Set.of(503), 3, 60_000));
+        RequestSpecification spec = spec(filter);
+        int rejected = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            try {
+                given().spec(spec).get("/down").asByteArray();
+            } catch (CircuitOpenException e) {
+                rejected++;
+            }
+        }
+        long withMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("[benchmark] host down, %d GETs  without breaker: %,d ms  with breaker: %,d ms (%d rejected)%n",
+                REQUESTS, withoutMillis, withMillis, rejected);
+        System.out.println("[benchmark] " + filter.summary());
+        assertEquals(REQUESTS - 3, rejected);
+        assertTrue(withMillis < withoutMillis / 2, "The open circuit should save most of the waiting");
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private int successes(RequestSpecification spec, int requests) {
+        int succeeded = 0;
+        for (int i = 0; i < requests; i++) {
+            Response response = given().spec(spec).get("/flaky");
+            response.asByteArray();  // Hands the pooled connection back
+            if (response.statusCode() == 200) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    private RequestSpecification spec(ResilienceFilter filter) {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri("http://127.0.0.1:" + server.getAddress().getPort())
+                .setConfig(connectionPool.restAssuredConfig());
+        if (filter != null) {
+            builder.addFilter(filter);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,79 @@
+package tests.BenchmarkTests;
+
+import basetest.assertion.ResponseAssertions;
+import basetest.benchmark.JmhRunner;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH comparison of checking N response fields with one {@code response.then().body(key, equalTo(value))} call
+ * per key (the previous executePostTest / executePutTest approach) against a single {@link ResponseAssertions}
+ * pass over a body parsed once, for a growing number of keys.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseAssertionBenchmark {
+
+    @Param({"2", "8", "32"})
+    public int keys;
+
+    private Response response;
+    private Map<String, Object> expected;
+
+    @Test
+    @DisplayName("Field assertion cost by number of keys: GPath per key vs single parse")
+    public void compareAssertionEngines() {
+        Map<String, Double> microsPerCheck = JmhRunner.run(ResponseAssertionBenchmark.class);
+        microsPerCheck.forEach((benchmark, micros) ->
+                System.out.printf("[benchmark] %-32s %,10.2f µs/response%n", benchmark, micros));
+
+        for (String keys : new String[]{"2", "8", "32"}) {
+            double before = microsPerCheck.get("gpathPerKey[keys=" + keys + "]");
+            double after = microsPerCheck.get("singleParse[keys=" + keys + "]");
+            assertTrue(after < before, "Single-parse assertions should be faster for " + keys + " keys");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void buildResponse() {
+        // A flat JSON object like the POST/PUT echoes, mixing strings and numbers
+        expected = new LinkedHashMap<>();
+        for (int i = 0; i < keys; i++) {
+            expected.put("field" + i, i % 2 == 0 ? "value " + i : i);
+        }
+        StringBuilder json = new StringBuilder("{");
+        expected.forEach((key, value) -> json.append(json.length() > 1 ? "," : "")
+                .append('"').append(key).append("\":")
+                .append(value instanceof String ? "\"" + value + "\"" : value));
+        json.append(",\"id\":101,\"createdAt\":\"2024-01-01T00:00:00.000Z\"}");
+
+        response = new ResponseBuilder()
+                .setStatusCode(201)
+                .setContentType(ContentType.JSON)
+                .setBody(json.toString())
+                .build();
+    }
+
+    @Benchmark
+    public void gpathPerKey() {
+        expected.forEach((key, value) -> response.then().body(key, equalTo(value)));
+    }
+
+    @Benchmark
+    public void singleParse() {
+        ResponseAssertions.assertThat(response).hasFields(expected).assertAll();
+    }
+}
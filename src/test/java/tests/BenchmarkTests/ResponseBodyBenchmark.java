@@ -0,0 +1,173 @@
+package tests.BenchmarkTests;
+
+import basetest.assertion.ResponseAssertions;
+import basetest.benchmark.JmhRunner;
+import basetest.body.ResponseBody;
+import basetest.schema.SchemaRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Downloads a large user list export (tens of thousands of records, several MB) from an in-process server and
+ * compares REST Assured's buffered body with a {@link ResponseBody} that spills to disk, which then serves schema
+ * validation, GPath checks and REST Assured's own {@code then()} from the same single copy.
+ * <p>
+ * JMH measures the time and bytes allocated per download; only the allocation is checked, since the times of a
+ * short run move with the machine's load. The heap retained by each body is sampled separately after forced
+ * collections.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=ResponseBodyBenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResponseBodyBenchmark {
+
+    private static final String SCHEMA = "RUser-list-schema.json";
+    private static final int USERS = 50_000;
+    private static final long MEMORY_LIMIT = 256 * 1024;
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeAll
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users", this::serveUsers);
+        server.start();
+        baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Allocation per download: buffered vs spilled body of a 50,000 user export")
+    public void compareAllocation() {
+        Map<String, JmhRunner.Score> scores = JmhRunner.runWithAllocation(ResponseBodyBenchmark.class);
+        scores.forEach((benchmark, score) -> System.out.printf("[benchmark] %-8s %,10.1f ms/download %,14.0f B/download%n",
+                benchmark, score.score(), score.allocatedBytesPerOp()));
+        System.out.println("[benchmark] results: " + JmhRunner.resultFile(ResponseBodyBenchmark.class));
+
+        JmhRunner.Score buffered = scores.get("buffered");
+        JmhRunner.Score spilled = scores.get("spilled");
+        assertTrue(spilled.allocatedBytesPerOp() < buffered.allocatedBytesPerOp() / 2,
+                "A spilled body should allocate well under the buffered one: "
+                        + spilled.allocatedBytesPerOp() + " vs " + buffered.allocatedBytesPerOp() + " B");
+    }
+
+    @Test
+    @DisplayName("Retained heap: buffered vs spilled body of a 50,000 user export")
+    public void compareRetainedHeap() {
+        // Buffered: REST Assured reads the whole export into one array
+        long baseline = usedHeapAfterGc();
+        Response buffered = export(USERS);
+        long bodyBytes = buffered.asByteArray().length;
+        long bufferedRetained = usedHeapAfterGc() - baseline;
+        buffered.then().body("total", equalTo(USERS));
+        buffered = null;
+
+        // Spilled: everything past the memory limit goes to a temp file while it is read
+        baseline = usedHeapAfterGc();
+        Response spilled = export(USERS);
+        ResponseBody body = ResponseBody.of(spilled, MEMORY_LIMIT);
+        long spilledRetained = usedHeapAfterGc() - baseline;
+
+        assertFalse(body.inMemory());
+        assertEquals(bodyBytes, body.size());
+        assertSame(body, ResponseBody.of(spilled), "Every reader should get the same copy");
+        SchemaRegistry.getInstance().assertMatches(SCHEMA, body);
+
+        System.out.printf("[benchmark] %,d users, %,d KB body  buffered: %,6d KB retained  spilled: %,6d KB retained%n",
+                USERS, bodyBytes / 1024, bufferedRetained / 1024, spilledRetained / 1024);
+        assertTrue(spilledRetained < bufferedRetained / 10,
+                "A spilled body should retain a small fraction of the buffered heap");
+
+        // REST Assured can still check the spilled body, by reading the file back
+        spilled.then().body("data[-1].id", equalTo(USERS));
+        body.close();
+    }
+
+    @Test
+    @DisplayName("A small body is shared with REST Assured, assertions and GPath")
+    public void smallBodyStaysInMemory() {
+        Response response = export(3);
+        ResponseBody body = ResponseBody.of(response);
+
+        assertTrue(body.inMemory());
+        assertEquals(response.asByteArray().length, body.size());
+        assertEquals(3, body.jsonPath().getList("data").size());
+        response.then().body("data[2].id", equalTo(3));
+        ResponseAssertions.assertThat(response)
+                .hasField("data[0].email", "user1@reqres.in")
+                .assertAll();
+        SchemaRegistry.getInstance().assertMatches(SCHEMA, body);
+    }
+
+    @Benchmark
+    public long buffered() {
+        // REST Assured reads the whole export into one array
+        return export(USERS).asByteArray().length;
+    }
+
+    @Benchmark
+    public long spilled() {
+        try (ResponseBody body = ResponseBody.of(export(USERS), MEMORY_LIMIT)) {
+            return body.size();
+        }
+    }
+
+    private Response export(int users) {
+        return given().baseUri(baseUrl).queryParam("count", users).when().get("/users");
+    }
+
+    /**
+     * Streams a Reqres-style user list of the requested length, chunked, without building it in memory.
+     */
+    private void serveUsers(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        int users = Integer.parseInt(query.substring(query.indexOf('=') + 1));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody();
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.write("{\"page\":1,\"per_page\":" + users + ",\"total\":" + users + ",\"total_pages\":1,\"data\":[");
+            for (int id = 1; id <= users; id++) {
+                writer.write((id > 1 ? "," : "") + "{\"id\":" + id + ",\"email\":\"user" + id + "@reqres.in\",\"first_name\":\"First"
+                        + id + "\",\"last_name\":\"Last" + id + "\",\"avatar\":\"https://reqres.in/img/faces/" + id + "-image.jpg\"}");
+            }
+            writer.write("],\"support\":{\"url\":\"https://reqres.in/#support-heading\",\"text\":\"Support\"}}");
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,95 @@
+package tests.BenchmarkTests;
+
+import basetest.benchmark.JmhRunner;
+import basetest.schema.SchemaRegistry;
+import io.restassured.module.jsv.JsonSchemaValidator;
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH comparison of the per-validation cost of re-reading and re-compiling a schema file on every call
+ * (the previous JsonSchemaValidator.matchesJsonSchema(new File(...)) approach) with the shared {@link SchemaRegistry},
+ * for the list schemas of both APIs. Reports the time and bytes allocated per validation; only the allocation is
+ * checked, since the times of a short run move with the machine's load.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=SchemaValidationBenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchemaValidationBenchmark {
+
+    // Path to the folder where JSON schema files are stored (used by the "before" variant)
+    private static final String SCHEMA_PATH = "src/test/resources/schemas/";
+
+    // Fixed list responses of both APIs, by schema
+    private static final Map<String, String> FIXTURES = Map.of(
+            "RUser-list-schema.json", "fixtures/reqres-users-page2.json",
+            "juser-list-schema.json", "fixtures/jsonplaceholder-posts.json");
+
+    @Param({"RUser-list-schema.json", "juser-list-schema.json"})
+    public String schema;
+
+    private File schemaFile;
+    private Matcher<?> compiled;
+    private String body;
+
+    @Test
+    @DisplayName("Per-validation cost: re-compiled per call vs precompiled schemas")
+    public void compareSchemaValidation() {
+        Map<String, JmhRunner.Score> scores = JmhRunner.runWithAllocation(SchemaValidationBenchmark.class);
+        scores.forEach((benchmark, score) -> System.out.printf("[benchmark] %-48s %,10.2f µs/validation %,12.0f B/validation%n",
+                benchmark, score.score(), score.allocatedBytesPerOp()));
+        System.out.println("[benchmark] results: " + JmhRunner.resultFile(SchemaValidationBenchmark.class));
+
+        for (String schema : FIXTURES.keySet()) {
+            JmhRunner.Score before = scores.get("recompilePerCall[schema=" + schema + "]");
+            JmhRunner.Score after = scores.get("precompiled[schema=" + schema + "]");
+            assertTrue(after.allocatedBytesPerOp() < before.allocatedBytesPerOp(),
+                    schema + ": a precompiled schema should allocate less per validation than re-compiling it: "
+                            + after.allocatedBytesPerOp() + " vs " + before.allocatedBytesPerOp() + " B/op");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void loadSchema() {
+        schemaFile = new File(SCHEMA_PATH + schema);
+        compiled = SchemaRegistry.matchesSchema(schema);
+        body = readFixture(FIXTURES.get(schema));
+        if (!JsonSchemaValidator.matchesJsonSchema(schemaFile).matches(body) || !compiled.matches(body)) {
+            throw new IllegalStateException(FIXTURES.get(schema) + " does not match " + schema);
+        }
+    }
+
+    @Benchmark
+    public boolean recompilePerCall() {
+        return JsonSchemaValidator.matchesJsonSchema(schemaFile).matches(body);
+    }
+
+    @Benchmark
+    public boolean precompiled() {
+        return compiled.matches(body);
+    }
+
+    private static String readFixture(String fixture) {
+        try (InputStream in = SchemaValidationBenchmark.class.getClassLoader().getResourceAsStream(fixture)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + fixture);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read fixture " + fixture, e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package tests.BenchmarkTests;
+
+import basetest.benchmark.JmhRunner;
+import basetest.schema.SchemaRegistry;
+import basetest.schema.StreamingValidationReport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares validating a very long user list (tens of thousands of records) by buffering the whole body and validating
+ * the tree, with {@link basetest.schema.StreamingSchemaValidator} reading it item by item.
+ * The list is generated on the fly, so the input itself never sits in memory.
+ * <p>
+ * JMH measures the time and bytes allocated per validation, which are checked only against a wide margin, since both
+ * ways build and validate the same nodes; the heap retained while validating, where streaming pays off, is sampled
+ * separately after forced collections.
+ * Runs only with the "benchmark" profile: {@code mvn test -Pbenchmark -Dtest=StreamingSchemaValidationBenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StreamingSchemaValidationBenchmark {
+
+    private static final String SCHEMA = "RUser-list-schema.json";
+    private static final int USERS = 50_000;
+
+    private final SchemaRegistry schemas = SchemaRegistry.getInstance();
+
+    @Test
+    @DisplayName("Validation cost: buffered vs streaming validation of 50,000 users")
+    public void compareValidationCost() {
+        Map<String, JmhRunner.Score> scores = JmhRunner.runWithAllocation(StreamingSchemaValidationBenchmark.class);
+        scores.forEach((benchmark, score) -> System.out.printf("[benchmark] %-10s %,10.1f ms/validation %,14.0f B/validation%n",
+                benchmark, score.score(), score.allocatedBytesPerOp()));
+        System.out.println("[benchmark] results: " + JmhRunner.resultFile(StreamingSchemaValidationBenchmark.class));
+
+        JmhRunner.Score buffered = scores.get("buffered");
+        JmhRunner.Score streaming = scores.get("streaming");
+        assertTrue(streaming.score() < 2 * buffered.score(),
+                "Streaming validation should cost at most twice the buffered time: "
+                        + streaming.score() + " vs " + buffered.score() + " ms");
+        assertTrue(streaming.allocatedBytesPerOp() < 2 * buffered.allocatedBytesPerOp(),
+                "Streaming validation should allocate at most twice the buffered bytes: "
+                        + streaming.allocatedBytesPerOp() + " vs " + buffered.allocatedBytesPerOp() + " B");
+    }
+
+    @Test
+    @DisplayName("Retained heap: buffered vs streaming validation of 50,000 users")
+    public void compareRetainedHeap() throws IOException {
+        // Buffered: the whole body as bytes (like response.asByteArray()), then the whole tree
+        long baseline = usedHeapAfterGc();
+        byte[] body = userList(USERS).readAllBytes();
+        JsonNode tree = new ObjectMapper().readTree(body);
+        long bufferedRetained = usedHeapAfterGc() - baseline;
+        assertTrue(schemas.validate(SCHEMA, tree).isSuccess());
+        body = null;
+        tree = null;
+
+        // Streaming: heap is sampled half-way through the list, while the validator is busy
+        baseline = usedHeapAfterGc();
+        long[] streamingRetained = new long[1];
+        long measureBaseline = baseline;
+        StreamingValidationReport report = schemas.streamingValidator(SCHEMA)
+                .validate(userList(USERS, () -> streamingRetained[0] = usedHeapAfterGc() - measureBaseline));
+
+        report.assertValid();
+        assertEquals(USERS, report.items());
+        System.out.printf("[benchmark] %,d users  buffered: %,6d KB retained  streaming: %,6d KB retained%n",
+                USERS, bufferedRetained / 1024, streamingRetained[0] / 1024);
+        assertTrue(streamingRetained[0] < bufferedRetained / 10,
+                "Streaming validation should retain a small fraction of the buffered heap");
+    }
+
+    @Benchmark
+    public boolean buffered() throws IOException {
+        // The whole body as bytes (like response.asByteArray()), then the whole tree
+        return schemas.validate(SCHEMA, new ObjectMapper().readTree(userList(USERS).readAllBytes())).isSuccess();
+    }
+
+    @Benchmark
+    public boolean streaming() {
+        return schemas.streamingValidator(SCHEMA).validate(userList(USERS)).isSuccess();
+    }
+
+    @Test
+    @DisplayName("Streaming validation reports broken items with their position")
+    public void reportsInvalidItems() {
+        String body = "{\"page\":1,\"per_page\":2,\"total\":2,\"total_pages\":1,\"data\":["
+                + user(1) + ",{\"id\":\"two\",\"email\":\"x@reqres.in\",\"first_name\":\"A\",\"last_name\":\"B\"}],"
+                + "\"support\":{\"url\":\"https://reqres.in/#support-heading\",\"text\":\"Support\"}}";
+        StreamingValidationReport report = schemas.streamingValidator(SCHEMA)
+                .validate(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, report.items());
+        assertFalse(report.isSuccess());
+        assertTrue(report.errors().stream().anyMatch(e -> e.startsWith("/data/1")), report.errors().toString());
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static InputStream userList(int users) {
+        return userList(users, () -> { });
+    }
+
+    /**
+     * Generates a Reqres-style user list lazily, running a callback when half of the users have been read.
+     */
+    private static InputStream userList(int users, Runnable halfway) {
+        String head = "{\"page\":1,\"per_page\":" + users + ",\"total\":" + users + ",\"total_pages\":1,\"data\":[";
+        String tail = "],\"support\":{\"url\":\"https://reqres.in/#support-heading\",\"text\":\"Support\"}}";
+        Enumeration<InputStream> parts = new Enumeration<>() {
+            private int next = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next <= users;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                int part = next++;
+                if (part == users / 2) {
+                    halfway.run();
+                }
+                String text = part < 0 ? head : part == users ? tail : (part > 0 ? "," : "") + user(part + 1);
+                return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        return new SequenceInputStream(parts);
+    }
+
+    private static String user(int id) {
+        return "{\"id\":" + id + ",\"email\":\"user" + id + "@reqres.in\",\"first_name\":\"First" + id
+                + "\",\"last_name\":\"Last" + id + "\",\"avatar\":\"https://reqres.in/img/faces/" + id + "-image.jpg\"}";
+    }
+}
@@ -0,0 +1,118 @@
+package tests.ContractTests;
+
+import basetest.BaseTest;
+import basetest.body.ResponseBody;
+import basetest.schema.ContractDriftDetector;
+import basetest.schema.ContractDriftReport;
+import basetest.schema.SchemaRegistry;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares live responses of /users, /users/{id}, /posts and /posts/{id} with the checked-in schemas and reports
+ * added, removed and retyped fields. Every page of the user list is read, one response at a time, so the check
+ * also works against large paginated endpoints. Runs only with the "drift" profile, for example:
+ * <pre>
+ * mvn test -Pdrift
+ * mvn test -Pdrift -Dapi.drift.failOnDrift=false -Dapi.drift.sampleSize=50
+ * </pre>
+ * Each report, with the schema inferred from the responses, is written to {@code target/contract-drift/} and
+ * attached to the Allure report. Settings: {@code api.drift.maxPages} (list pages read, default 100),
+ * {@code api.drift.sampleSize} (ids fetched per single-item endpoint, default 10), {@code api.drift.maxPaths}
+ * and {@code api.drift.failOnDrift} (default true).
+ */
+@Epic("RESTful API Testing")
+@Feature("Contract Drift")
+@Tag("drift")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ContractDriftTest extends BaseTest {
+
+    private static final Path REPORT_DIRECTORY = Path.of("target", "contract-drift");
+
+    private final SchemaRegistry schemas = SchemaRegistry.getInstance();
+    private final int maxPages = Integer.getInteger("api.drift.maxPages", 100);
+    private final int sampleSize = Integer.getInteger("api.drift.sampleSize", 10);
+
+    @Test
+    @Story("Reqres Users")
+    @DisplayName("User list pages match RUser-list-schema.json")
+    public void testUserListContract() {
+        ContractDriftDetector detector = new ContractDriftDetector("RUser-list-schema.json", schemas);
+        // The first page says how many pages there are; every page is then read as a stream
+        ResponseBody first = ResponseBody.of(ok(api.users().page().call(1)));
+        Integer pages = first.jsonPath().get("total_pages");
+        int totalPages = Math.min(maxPages, pages == null ? 1 : pages);
+        detector.observe(first.openStream());
+        for (int page = 2; page <= totalPages; page++) {
+            detector.observe(ResponseBody.of(ok(api.users().page().call(page))).openStream());
+        }
+        check(detector.report());
+    }
+
+    @Test
+    @Story("Reqres Users")
+    @DisplayName("Single users match Rsingle-user-schema.json")
+    public void testSingleUserContract() {
+        ContractDriftDetector detector = new ContractDriftDetector("Rsingle-user-schema.json", schemas);
+        for (int id = 1; id <= sampleSize; id++) {
+            detector.observe(ResponseBody.of(ok(api.users().byId().call(id))).openStream());
+        }
+        check(detector.report());
+    }
+
+    @Test
+    @Story("JSONPlaceholder Posts")
+    @DisplayName("Post list matches juser-list-schema.json")
+    public void testPostListContract() {
+        ContractDriftDetector detector = new ContractDriftDetector("juser-list-schema.json", schemas);
+        detector.observe(ResponseBody.of(ok(api.posts().list().call())).openStream());
+        check(detector.report());
+    }
+
+    @Test
+    @Story("JSONPlaceholder Posts")
+    @DisplayName("Single posts match jsingle-user-schema.json")
+    public void testSinglePostContract() {
+        ContractDriftDetector detector = new ContractDriftDetector("jsingle-user-schema.json", schemas);
+        for (int id = 1; id <= sampleSize; id++) {
+            detector.observe(ResponseBody.of(ok(api.posts().byId().call(id))).openStream());
+        }
+        check(detector.report());
+    }
+
+    /**
+     * @return The response, once it is known to be a 200; an error body (401, 404, 429, ...) would otherwise be
+     * reported as every schema field REMOVED
+     */
+    private static Response ok(Response response) {
+        assertEquals(200, response.statusCode(), "Unexpected status, so the body is not checked for drift: "
+                + response.statusLine());
+        return response;
+    }
+
+    /**
+     * Writes and attaches the report, then fails on drift unless {@code -Dapi.drift.failOnDrift=false}.
+     */
+    private void check(ContractDriftReport report) {
+        Path file = REPORT_DIRECTORY.resolve(report.schemaName());
+        report.writeTo(file);
+        try {
+            attachments.attach("Contract Drift: " + report.schemaName(), "application/json", Files.readString(file));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to attach contract drift report " + file, e);
+        }
+        System.out.println("[drift] " + report + " -> " + file);
+        report.drifts().forEach(drift -> System.out.println("[drift]   " + drift));
+
+        if (Boolean.parseBoolean(System.getProperty("api.drift.failOnDrift", "true"))) {
+            report.assertNoDrift();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package tests.DataDrivenTests;
+
+import basetest.BaseTest;
+import basetest.scenario.ScenarioEngine;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Test class for the data-driven scenarios under src/test/resources/scenarios.
+ * Each file row or entry becomes one dynamic test; new cases need no code changes.
+ */
+@Epic("RESTful API Testing")  // High-level category for API testing
+@Feature("Data-Driven Scenarios")  // Specifies that this class runs the scenario files
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)  // Ensures a single instance of the test class is used for all tests
+public class ScenarioFileTests extends BaseTest {
+
+    private ScenarioEngine engine;
+
+    @BeforeAll
+    public void createEngine() {
+        // Every case reuses the shared API clients and compiled schemas
+        engine = new ScenarioEngine(Map.of("reqres", reqres, "jsonplaceholder", jsonPlaceholder));
+    }
+
+    @TestFactory
+    @Story("Reqres Users")  // Groups the scenarios under "Reqres Users"
+    @DisplayName("Reqres user scenarios (CSV)")  // Provides a readable test name
+    public Stream<DynamicTest> reqresUserScenarios() {
+        return engine.dynamicTests("scenarios/reqres-users.csv");
+    }
+
+    @TestFactory
+    @Story("Reqres Users")  // Groups the scenarios under "Reqres Users"
+    @DisplayName("Reqres user update scenarios (YAML)")  // Provides a readable test name
+    public Stream<DynamicTest> reqresUserUpdateScenarios() {
+        return engine.dynamicTests("scenarios/reqres-user-updates.yaml");
+    }
+
+    @TestFactory
+    @Story("JSONPlaceholder Posts")  // Groups the scenarios under "JSONPlaceholder Posts"
+    @DisplayName("JSONPlaceholder post scenarios (JSON)")  // Provides a readable test name
+    public Stream<DynamicTest> jsonPlaceholderPostScenarios() {
+        return engine.dynamicTests("scenarios/jsonplaceholder-posts.json");
+    }
+}
@@ -0,0 +1,79 @@
+package tests.FrameworkTests;
+
+import basetest.logging.AsyncLogWriter;
+import basetest.logging.AsyncLoggingFilter;
+import com.rafiatu.client.ApiClient;
+import com.rafiatu.client.model.UserJob;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks what the asynchronous logger writes for a request; the last filter answers with a fixed response, so
+ * nothing goes on the wire.
+ */
+public class AsyncLoggingFilterTest {
+
+    @Test
+    @DisplayName("A logged POST shows its JSON request body")
+    public void logsSerializedRequestBody() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLoggingFilter logging = new AsyncLoggingFilter(AsyncLoggingFilter.Mode.ALL, 1, 4096,
+                new AsyncLogWriter(new PrintStream(out, true, StandardCharsets.UTF_8), 16));
+        Response created = new ResponseBuilder()
+                .setStatusCode(201)
+                .setContentType(ContentType.JSON)
+                .setBody("{\"id\":\"7\"}")
+                .build();
+        ApiClient client = new ApiClient(new RequestSpecBuilder()
+                .setBaseUri("http://localhost:8080/api")
+                .setContentType(ContentType.JSON)
+                .addFilter(logging)
+                .addFilter((requestSpec, responseSpec, ctx) -> created)
+                .build());
+
+        // ApiClient sends the payload as UTF-8 JSON bytes
+        client.send("POST", "/users", new UserJob("Morpheus", "QA Engineer"));
+        logging.close();
+
+        String log = out.toString(StandardCharsets.UTF_8);
+        assertTrue(log.contains(">>> POST http://localhost:8080/api/users"), log);
+        assertTrue(log.contains("Request body: {\"name\":\"Morpheus\",\"job\":\"QA Engineer\"}"), log);
+        assertFalse(log.contains("[B@"), log);
+    }
+
+    @Test
+    @DisplayName("A long response body is logged up to the limit, with its full size")
+    public void truncatesResponseBody() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLoggingFilter logging = new AsyncLoggingFilter(AsyncLoggingFilter.Mode.ALL, 1, 16,
+                new AsyncLogWriter(new PrintStream(out, true, StandardCharsets.UTF_8), 16));
+        String body = "{\"title\":\"" + "x".repeat(1000) + "\"}";
+        Response post = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody(body)
+                .build();
+        ApiClient client = new ApiClient(new RequestSpecBuilder()
+                .setBaseUri("http://localhost:8080/api")
+                .addFilter(logging)
+                .addFilter((requestSpec, responseSpec, ctx) -> post)
+                .build());
+
+        Response response = client.send("GET", "/posts/1", null);
+        logging.close();
+
+        String log = out.toString(StandardCharsets.UTF_8);
+        assertTrue(log.contains("Response body: {\"title\":\"xxxxxx... [truncated, " + body.length() + " bytes]"), log);
+        // The test still reads the whole body
+        assertEquals(body, response.asString());
+    }
+}
@@ -0,0 +1,77 @@
+package tests.FrameworkTests;
+
+import basetest.reporting.AttachmentService;
+import com.rafiatu.client.ApiClient;
+import com.rafiatu.client.FanOut;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.TestResult;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which response bodies {@link AttachmentService} attaches to a failed test, with its own Allure lifecycle
+ * writing to a temporary results directory. The last filter answers with a fixed response per post id, so nothing
+ * goes on the wire.
+ */
+public class AttachmentServiceTest {
+
+    @Test
+    @DisplayName("A failed fan-out call gets its response body attached to the test")
+    public void attachesFanOutFailureBody(@TempDir Path results) throws IOException {
+        AllureLifecycle lifecycle = new AllureLifecycle(new FileSystemResultsWriter(results));
+        AttachmentService attachments = new AttachmentService(false, 256 * 1024, 0, results, lifecycle);
+        ApiClient client = new ApiClient(new RequestSpecBuilder()
+                .setBaseUri("http://localhost:8080")
+                .addFilter(attachments.captureFilter())
+                .addFilter((requestSpec, responseSpec, ctx) -> {
+                    String id = requestSpec.getURI().substring(requestSpec.getURI().lastIndexOf('/') + 1);
+                    return new ResponseBuilder()
+                            .setStatusCode(id.equals("3") ? 404 : 200)
+                            .setContentType(ContentType.JSON)
+                            .setBody(id.equals("3") ? "{\"error\":\"post 3 not found\"}" : "{\"id\":" + id + "}")
+                            .build();
+                })
+                .build());
+
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult().setUuid(uuid).setName("fan-out"));
+        lifecycle.startTestCase(uuid);
+        attachments.start();
+        try (FanOut fanOut = new FanOut(4)) {
+            // Responses arrive and fail their check on the fan-out's virtual threads, not on this one
+            assertThrows(AssertionError.class, () -> fanOut.forEach(Stream.of(1, 2, 3, 4),
+                    id -> client.send("GET", "/posts/" + id, null),
+                    (id, response) -> response.then().statusCode(200)));
+        }
+        attachments.attachPendingResponses();
+        attachments.flush();
+        List<Attachment> attached = new ArrayList<>();
+        lifecycle.updateTestCase(uuid, result -> attached.addAll(result.getAttachments()));
+        lifecycle.stopTestCase(uuid);
+        attachments.clear();
+
+        List<String> bodies = new ArrayList<>();
+        for (Attachment attachment : attached) {
+            if (attachment.getName().equals("Response Body")) {
+                bodies.add(Files.readString(results.resolve(attachment.getSource())));
+            }
+        }
+        assertEquals(4, bodies.size(), attached.toString());
+        assertTrue(bodies.stream().anyMatch(body -> body.contains("post 3 not found")), bodies.toString());
+    }
+}
@@ -0,0 +1,94 @@
+package tests.FrameworkTests;
+
+import basetest.metrics.PerformanceBaseline;
+import basetest.metrics.PerformanceGate;
+import basetest.metrics.PerformanceGate.Comparison;
+import basetest.metrics.PerformanceGate.Verdict;
+import basetest.metrics.SampleStatistics;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the rank test and the verdicts of the {@link PerformanceGate} on fixed timings, in milliseconds.
+ */
+public class PerformanceGateTest {
+
+    private static final double[] BASELINE = {10.2, 9.8, 10.5, 11.0, 9.6, 10.1, 10.8, 9.9, 10.4, 10.0};
+
+    private final PerformanceGate gate = new PerformanceGate(PerformanceGate.Mode.CHECK, new PerformanceBaseline(), 2, 10);
+
+    @Test
+    @DisplayName("Rank test: clearly slower timings are significant, the same or faster ones are not")
+    public void slowerPValue() {
+        double[] slower = {30.1, 29.5, 31.2, 30.8, 29.9, 30.4, 31.0, 30.2, 29.7, 30.6};
+        double[] faster = {5.1, 4.9, 5.3, 5.0, 4.8, 5.2, 5.4, 4.7, 5.5, 5.0};
+
+        assertTrue(SampleStatistics.slowerPValue(slower, BASELINE) < 0.001);
+        assertTrue(SampleStatistics.slowerPValue(BASELINE.clone(), BASELINE) > 0.4);
+        assertTrue(SampleStatistics.slowerPValue(faster, BASELINE) > 0.99);
+    }
+
+    @Test
+    @DisplayName("Rank test: tied timings share their rank")
+    public void slowerPValueWithTies() {
+        double[] same = {10, 10, 10, 10, 10};
+
+        assertTrue(SampleStatistics.slowerPValue(same, same.clone()) > 0.5);
+        assertEquals(SampleStatistics.slowerPValue(new double[]{10, 20}, new double[]{10, 10, 10}),
+                SampleStatistics.slowerPValue(new double[]{20, 10}, new double[]{10, 10, 10}), 1e-12);
+    }
+
+    @Test
+    @DisplayName("A series is not compared without enough baseline samples")
+    public void noBaseline() {
+        Comparison result = gate.compare("T.test", "GET /api/users", new double[]{10, 11}, new double[]{500, 500, 500, 500, 500});
+
+        assertEquals(Verdict.NO_BASELINE, result.verdict());
+        assertNull(gate.failureMessage(List.of(result)));
+    }
+
+    @Test
+    @DisplayName("A consistently slower series fails the test")
+    public void consistentlySlower() {
+        Comparison result = gate.compare("T.test", "GET /api/users", BASELINE, new double[]{30, 32, 31, 29, 33, 30});
+
+        assertEquals(Verdict.SLOWER, result.verdict());
+        assertTrue(result.pValue() < 0.01, result.toString());
+        assertNotNull(gate.failureMessage(List.of(result)));
+    }
+
+    @Test
+    @DisplayName("One slow request among fast ones does not count")
+    public void outlierAmongManySamples() {
+        double[] samples = {10.1, 9.9, 10.3, 10.0, 250.0, 10.2, 9.8, 10.4, 10.1, 10.0};
+
+        Comparison result = gate.compare("T.test", "GET /api/users", BASELINE, samples);
+
+        assertEquals(Verdict.OK, result.verdict(), result.toString());
+    }
+
+    @Test
+    @DisplayName("A series shorter than the rank test needs is only flagged, never fails the test")
+    public void shortSeriesIsOnlyFlagged() {
+        // A single slow request: nothing to tell it apart from a one-off spike
+        Comparison spike = gate.compare("T.test", "GET /api/users/2", BASELINE, new double[]{60});
+        Comparison test = gate.compare("T.test", PerformanceGate.TEST_SERIES, BASELINE, new double[]{80});
+
+        assertEquals(Verdict.SLOWER, spike.verdict());
+        assertTrue(Double.isNaN(spike.pValue()));
+        assertEquals(List.of(spike, test), PerformanceGate.slower(List.of(spike, test)));
+        assertNull(gate.failureMessage(List.of(spike, test)));
+    }
+
+    @Test
+    @DisplayName("Short series are held against the slowest baseline sample")
+    public void shortSeriesAgainstSlowestBaseline() {
+        // Twice the median, but within twice the slowest run
+        Comparison result = gate.compare("T.test", PerformanceGate.TEST_SERIES, BASELINE, new double[]{21.5});
+
+        assertEquals(Verdict.OK, result.verdict(), result.toString());
+    }
+}
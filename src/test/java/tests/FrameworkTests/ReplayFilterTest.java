@@ -0,0 +1,82 @@
+package tests.FrameworkTests;
+
+import basetest.replay.ReplayFilter;
+import basetest.replay.ReplayStore;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that responses served by the {@link ReplayFilter} never reach the filters that time requests. A filter
+ * ordered like the latency recorder counts the requests it sees; the last filter answers in place of the network.
+ */
+public class ReplayFilterTest {
+
+    @Test
+    @DisplayName("A replayed response is not seen by the timing filters")
+    public void replayedResponsesAreNotTimed(@TempDir Path directory) {
+        ReplayStore store = ReplayStore.open(directory, "schemas", null);
+        AtomicInteger timed = new AtomicInteger();
+        AtomicInteger sent = new AtomicInteger();
+
+        Response recorded = given().spec(spec(new ReplayFilter(ReplayFilter.Mode.RECORD, store, false), timed, sent))
+                .get("/posts/1");
+        assertEquals(200, recorded.statusCode());
+        assertEquals(1, timed.get());
+
+        Response replayed = given().spec(spec(new ReplayFilter(ReplayFilter.Mode.REPLAY, store, true), timed, sent))
+                .get("/posts/1");
+        assertEquals(200, replayed.statusCode());
+        assertEquals("{\"id\":1}", replayed.asString());
+        assertEquals(1, timed.get(), "The replayed response should not be timed");
+        assertEquals(1, sent.get());
+    }
+
+    private static RequestSpecification spec(ReplayFilter replay, AtomicInteger timed, AtomicInteger sent) {
+        Response answer = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody("{\"id\":1}")
+                .build();
+        // Registered before the replay filter, as the timing filters are in BaseTest
+        return new RequestSpecBuilder()
+                .setBaseUri("http://localhost:8080")
+                .addFilter(new CountingFilter(timed, null))
+                .addFilter(replay)
+                .addFilter(new CountingFilter(sent, answer))
+                .build();
+    }
+
+    /**
+     * Counts the requests it sees, ordered last like the timing filters; answers in place of the network if given a
+     * response.
+     */
+    private record CountingFilter(AtomicInteger count, Response answer) implements OrderedFilter {
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec,
+                               FilterableResponseSpecification responseSpec,
+                               FilterContext ctx) {
+            count.incrementAndGet();
+            return answer != null ? answer : ctx.next(requestSpec, responseSpec);
+        }
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package tests.FrameworkTests;
+
+import basetest.http.CircuitOpenException;
+import basetest.http.ResilienceFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks retries, deadlines and the circuit breaker of {@link ResilienceFilter} against a local stand-in that
+ * answers with the statuses queued by each test (200 once the queue is empty) and records every request it gets.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ResilienceFilterTest {
+
+    private HttpServer server;
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private volatile String retryAfter;
+
+    @BeforeAll
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::respond);
+        server.start();
+    }
+
+    @AfterAll
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    public void resetServer() {
+        statuses.clear();
+        received.clear();
+        retryAfter = null;
+    }
+
+    @Test
+    @DisplayName("A GET answered with 503 is retried until it succeeds, with the same query and headers")
+    public void retriesServiceUnavailable() {
+        ResilienceFilter filter = new ResilienceFilter(policy(3, 5_000, 0, 1_000));
+        statuses.addAll(List.of(503, 503));
+
+        Response response = given().spec(spec(filter)).header("X-Trace", "t1").queryParam("page", 2).get("/users");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of("GET /users?page=2 t1 ", "GET /users?page=2 t1 ", "GET /users?page=2 t1 "), received);
+        assertEquals(2, filter.retries(), filter.summary());
+    }
+
+    @Test
+    @DisplayName("A retried PUT sends its body again")
+    public void retriesPutWithBody() {
+        ResilienceFilter filter = new ResilienceFilter(policy(3, 5_000, 0, 1_000));
+        statuses.add(502);
+
+        Response response = given().spec(spec(filter)).body("{\"job\":\"zion resident\"}").put("/users/2");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(List.of("PUT /users/2 - {\"job\":\"zion resident\"}", "PUT /users/2 - {\"job\":\"zion resident\"}"),
+                received);
+    }
+
+    @Test
+    @DisplayName("Each attempt runs the filters after the retry on its own; earlier filters see one request")
+    public void retriesBelowEarlierFilters() {
+        ResilienceFilter filter = new ResilienceFilter(policy(3, 5_000, 0, 1_000));
+        AtomicInteger before = new AtomicInteger();
+        AtomicInteger after = new AtomicInteger();
+        Filter counting = (requestSpec, responseSpec, ctx) -> {
+            before.incrementAndGet();
+            return ctx.next(requestSpec, responseSpec);
+        };
+        OrderedFilter timing = new OrderedFilter() {
+            @Override
+            public Response filter(FilterableRequestSpecification requestSpec,
+                                   FilterableResponseSpecification responseSpec,
+                                   FilterContext ctx) {
+                after.incrementAndGet();
+                return ctx.next(requestSpec, responseSpec);
+            }
+
+            @Override
+            public int getOrder() {
+                return LOWEST_PRECEDENCE;
+            }
+        };
+        statuses.addAll(List.of(503, 503));
+
+        Response response = given().spec(spec(filter)).filters(timing, counting).get("/users");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(1, before.get(), "Filters ordered before the retry should see one request");
+        assertEquals(3, after.get(), "Filters ordered after the retry should see every attempt");
+    }
+
+    @Test
+    @DisplayName("A POST is never retried")
+    public void doesNotRetryPost() {
+        ResilienceFilter filter = new ResilienceFilter(policy(3, 5_000, 0, 1_000));
+        statuses.add(503);
+
+        Response response = given().spec(spec(filter)).body("{}").post("/users");
+
+        assertEquals(503, response.statusCode());
+        assertEquals(1, received.size(), received.toString());
+        assertEquals(0, filter.retries());
+    }
+
+    @Test
+    @DisplayName("No retry is started whose backoff would end after the deadline")
+    public void stopsAtDeadline(@TempDir Path reportDir) throws IOException {
+        // The host asks for a 1 s pause, more than the 300 ms the request has
+        ResilienceFilter filter = new ResilienceFilter(policy(5, 300, 0, 1_000));
+        statuses.addAll(List.of(503, 503, 503));
+        retryAfter = "1";
+
+        Response response = given().spec(spec(filter)).get("/users");
+
+        // Given up before any backoff: one attempt, no retry, counted as a deadline hit
+        assertEquals(503, response.statusCode());
+        assertEquals(1, received.size(), received.toString());
+        JsonNode host = report(filter, reportDir);
+        assertEquals(1, host.get("deadlineExceeded").asInt(), host.toString());
+        assertEquals(0, host.get("retries").asInt(), host.toString());
+    }
+
+    @Test
+    @DisplayName("The circuit opens after repeated failures, rejects while open and closes after a good probe")
+    public void circuitBreakerStates(@TempDir Path reportDir) throws Exception {
+        ResilienceFilter filter = new ResilienceFilter(policy(1, 5_000, 2, 200));
+        RequestSpecification spec = spec(filter);
+        statuses.addAll(List.of(503, 503, 503));
+
+        // Closed: failures are passed on until two in a row open the circuit
+        assertEquals(503, given().spec(spec).get("/users").statusCode());
+        assertEquals("CLOSED", report(filter, reportDir).get("circuitState").asText());
+        assertEquals(503, given().spec(spec).get("/users").statusCode());
+        assertEquals("OPEN", report(filter, reportDir).get("circuitState").asText());
+
+        // Open: rejected without reaching the host
+        CircuitOpenException rejected = assertThrows(CircuitOpenException.class, () -> given().spec(spec).get("/users"));
+        assertEquals(hostOf(), rejected.host());
+        assertEquals(2, received.size());
+
+        // Half open: a failed probe opens the circuit again right away
+        Thread.sleep(300);
+        assertEquals(503, given().spec(spec).get("/users").statusCode());
+        assertThrows(CircuitOpenException.class, () -> given().spec(spec).get("/users"));
+
+        // Half open: a good probe closes it
+        Thread.sleep(300);
+        assertEquals(200, given().spec(spec).get("/users").statusCode());
+        assertEquals(200, given().spec(spec).get("/users").statusCode());
+        JsonNode host = report(filter, reportDir);
+        assertEquals("CLOSED", host.get("circuitState").asText());
+        assertEquals(2, host.get("circuitTrips").asInt(), host.toString());
+        assertEquals(2, host.get("rejectedByOpenCircuit").asInt(), host.toString());
+        assertEquals(5, received.size());
+    }
+
+    @Test
+    @DisplayName("A failure that is not the host's is rethrown without counting against its circuit")
+    public void nonTransientFailureLeavesCircuitAlone(@TempDir Path reportDir) throws IOException {
+        ResilienceFilter filter = new ResilienceFilter(policy(3, 5_000, 1, 60_000));
+        OrderedFilter replayMiss = new OrderedFilter() {
+            @Override
+            public Response filter(FilterableRequestSpecification requestSpec,
+                                   FilterableResponseSpecification responseSpec,
+                                   FilterContext ctx) {
+                throw new IllegalStateException("No recorded response");
+            }
+
+            @Override
+            public int getOrder() {
+                return LOWEST_PRECEDENCE;
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> given().spec(spec(filter)).filter(replayMiss).get("/users"));
+        assertEquals(200, given().spec(spec(filter)).get("/users").statusCode());
+        JsonNode host = report(filter, reportDir);
+        assertEquals("CLOSED", host.get("circuitState").asText());
+        assertEquals(0, host.get("retries").asInt(), host.toString());
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String trace = exchange.getRequestHeaders().getFirst("X-Trace");
+        received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " "
+                + (trace == null ? "-" : trace) + " " + body);
+        Integer status = statuses.poll();
+        if (retryAfter != null) {
+            exchange.getResponseHeaders().set("Retry-After", retryAfter);
+        }
+        byte[] response = "{}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status == null ? 200 : status, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private static ResilienceFilter.Policy policy(int maxAttempts, long deadlineMs, int breakerThreshold,
+                                                  long breakerOpenMs) {
+        return new ResilienceFilter.Policy(maxAttempts, 1, 1_000, deadlineMs, Set.of(502, 503), breakerThreshold,
+                breakerOpenMs);
+    }
+
+    private RequestSpecification spec(ResilienceFilter filter) {
+        return new RequestSpecBuilder()
+                .setBaseUri("http://" + hostOf())
+                .addFilter(filter)
+                .build();
+    }
+
+    private String hostOf() {
+        return server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private static JsonNode report(ResilienceFilter filter, Path dir) throws IOException {
+        Path file = dir.resolve("api-resilience.json");
+        filter.writeReport(file);
+        return new ObjectMapper().readTree(Files.readString(file)).get("hosts").get(0);
+    }
+}
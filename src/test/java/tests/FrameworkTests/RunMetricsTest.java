@@ -0,0 +1,86 @@
+package tests.FrameworkTests;
+
+import basetest.metrics.RunMetrics;
+import basetest.schema.SchemaRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which endpoint the shared {@link RunMetrics} charges a schema validation to. Requests go through its
+ * capture filter to a last filter that answers in place of the network, on paths no other test uses.
+ */
+public class RunMetricsTest {
+
+    private static final String USER = "{\"data\":{\"id\":2,\"email\":\"janet.weaver@reqres.in\",\"first_name\":\"Janet\","
+            + "\"last_name\":\"Weaver\",\"avatar\":\"https://reqres.in/img/faces/2-image.jpg\"},"
+            + "\"support\":{\"url\":\"https://reqres.in/#support-heading\",\"text\":\"Support\"}}";
+
+    @Test
+    @DisplayName("A response fetched on another thread is validated against its own endpoint")
+    public void attributesValidationToTheResponsesRequest() throws Exception {
+        RequestSpecification spec = new RequestSpecBuilder()
+                .setBaseUri("http://localhost:8080")
+                .addFilter(RunMetrics.shared().captureFilter())
+                .addFilter(new CannedFilter())
+                .build();
+
+        Response user;
+        try (ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor()) {
+            user = CompletableFuture.supplyAsync(() -> given().spec(spec).get("/run-metrics-test/users/2"), fanOut).get();
+        }
+        // The last request sent on this thread is another one
+        given().spec(spec).get("/run-metrics-test/other");
+
+        SchemaRegistry.getInstance().assertMatches("Rsingle-user-schema.json", user);
+
+        assertEquals(1, schemaValidations("GET /run-metrics-test/users/{id}"));
+        assertEquals(0, schemaValidations("GET /run-metrics-test/other"));
+    }
+
+    private static long schemaValidations(String endpoint) {
+        for (JsonNode entry : RunMetrics.shared().snapshot(new ObjectMapper()).get("endpoints")) {
+            if (entry.get("endpoint").asText().equals(endpoint)) {
+                return entry.get("schemaValidation").get("count").asLong();
+            }
+        }
+        throw new AssertionError("No requests recorded for " + endpoint);
+    }
+
+    /**
+     * Answers every request with the same user, ordered after the capture filter.
+     */
+    private static final class CannedFilter implements OrderedFilter {
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec,
+                               FilterableResponseSpecification responseSpec,
+                               FilterContext ctx) {
+            return new ResponseBuilder()
+                    .setStatusCode(200)
+                    .setContentType(ContentType.JSON)
+                    .setBody(USER)
+                    .build();
+        }
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+    }
+}
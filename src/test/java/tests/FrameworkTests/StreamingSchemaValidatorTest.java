@@ -0,0 +1,63 @@
+package tests.FrameworkTests;
+
+import basetest.schema.SchemaRegistry;
+import basetest.schema.StreamingSchemaValidator;
+import basetest.schema.StreamingValidationReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link StreamingSchemaValidator} enforces the constraints of the list itself (minItems, maxItems,
+ * uniqueItems) like the buffered validator does, with the schemas of the constrained-schemas test folder.
+ */
+public class StreamingSchemaValidatorTest {
+
+    private static final SchemaRegistry SCHEMAS = SchemaRegistry.load("constrained-schemas");
+
+    @Test
+    @DisplayName("Envelope list: too short, too long, duplicates and invalid items")
+    public void envelopeList() {
+        assertSameErrors("page-schema.json", "{\"page\":1,\"data\":[{\"id\":1},{\"id\":2}]}");
+        assertSameErrors("page-schema.json", "{\"page\":1,\"data\":[]}");
+        assertSameErrors("page-schema.json", "{\"page\":1,\"data\":[{\"id\":1},{\"id\":2},{\"id\":3},{\"id\":4}]}");
+        assertSameErrors("page-schema.json", "{\"data\":[{\"id\":1},{\"id\":1}],\"page\":1}");
+        assertSameErrors("page-schema.json", "{\"page\":\"one\",\"data\":[{\"id\":\"x\"}]}");
+    }
+
+    @Test
+    @DisplayName("Top-level list: too short and too long")
+    public void topLevelList() {
+        assertSameErrors("ids-schema.json", "[1,2]");
+        assertSameErrors("ids-schema.json", "[]");
+        assertSameErrors("ids-schema.json", "[1,2,3]");
+    }
+
+    /**
+     * Validates the body both ways and compares the errors, each as pointer and message.
+     */
+    private static void assertSameErrors(String schema, String body) {
+        List<String> buffered = new ArrayList<>();
+        try {
+            for (ProcessingMessage message : SCHEMAS.validate(schema, new ObjectMapper().readTree(body))) {
+                String pointer = message.asJson().path("instance").path("pointer").asText("");
+                buffered.add((pointer.isEmpty() ? "/" : pointer) + ": " + message.getMessage());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        StreamingValidationReport report = SCHEMAS.streamingValidator(schema)
+                .validate(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(buffered.stream().sorted().toList(), report.errors().stream().sorted().toList(), body);
+    }
+}
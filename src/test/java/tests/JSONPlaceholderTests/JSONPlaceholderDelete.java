@@ -1,11 +1,9 @@
 package tests.JSONPlaceholderTests;
 
+import basetest.BaseTest;
 import io.qameta.allure.*;
-import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
 
-import static io.restassured.RestAssured.given;
-
 /**
  * Test class for JSONPlaceholder API DELETE operations.
  * This class contains tests to delete posts and handle different scenarios.
@@ -13,10 +11,7 @@ import static io.restassured.RestAssured.given;
 @Epic("JSONPlaceholder API Testing") // High-level categorization for Allure reports
 @Feature("DELETE Operations") // Defines that this class focuses on DELETE requests
 @TestInstance(TestInstance.Lifecycle.PER_CLASS) // Uses a single test instance for the entire class
-public class JSONPlaceholderDelete {
-
-    // Base URL for JSONPlaceholder API
-    private static final String BASE_URL = "https://jsonplaceholder.typicode.com";
+public class JSONPlaceholderDelete extends BaseTest {
 
     /**
      * Test to delete an existing post.
@@ -27,7 +22,8 @@ public class JSONPlaceholderDelete {
     @DisplayName("Delete an existing post") // Descriptive test name
     @Severity(SeverityLevel.CRITICAL) // Marks the test as critical
     public void testDeletePost() {
-        executeDeleteTest("/posts/1", "Delete Existing Post");
+        // JSONPlaceholder always returns 200 for DELETE requests
+        executeApiTest("Delete Existing Post", () -> api.posts().delete().call(1), 200);
     }
 
     /**
@@ -39,41 +35,6 @@ public class JSONPlaceholderDelete {
     @DisplayName("Delete a non-existing post") // Descriptive test name
     @Severity(SeverityLevel.NORMAL) // Marks the test as normal severity
     public void testDeleteNonExistingPost() {
-        executeDeleteTest("/posts/9999", "Delete Non-Existing Post");
-    }
-
-    /**
-     * Helper method to execute a DELETE request and validate the response.
-     *
-     * @param endpoint API endpoint for the DELETE request.
-     * @param testName Descriptive name of the test.
-     */
-    private void executeDeleteTest(String endpoint, String testName) {
-        Allure.step("Start test: " + testName); // Logs test start in Allure
-
-        // Sends a DELETE request and validates the response status
-        Response response = given()
-                .when()
-                .delete(BASE_URL + endpoint) // Makes the DELETE request
-                .then()
-                .statusCode(200) // JSONPlaceholder always returns 200 for DELETE requests
-                .extract().response(); // Extracts the response for further validation
-
-        // Attaches request details to Allure report
-        Allure.addAttachment("API Request", "text/plain", "DELETE " + endpoint);
-        attachResponseDetails(response); // Calls method to log response details
-
-        Allure.step("Finish test: " + testName); // Logs test completion in Allure
-    }
-
-    /**
-     * Helper method to attach API response details to the Allure report.
-     *
-     * @param response Response object from the API call.
-     */
-    private void attachResponseDetails(Response response) {
-        Allure.addAttachment("API Response", "text/plain",
-                "Status Code: " + response.statusCode() + "\n" +
-                        "Headers: " + response.headers());
+        executeApiTest("Delete Non-Existing Post", () -> api.posts().delete().call(9999), 200);
     }
 }
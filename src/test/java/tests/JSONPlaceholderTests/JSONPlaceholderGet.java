@@ -1,10 +1,13 @@
 package tests.JSONPlaceholderTests;
 
+import basetest.BaseTest;
 import io.qameta.allure.*;
-import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
-import static io.restassured.RestAssured.given;
-import static org.hamcrest.Matchers.*;
+
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
 
 /**
  * Test class for JSONPlaceholder API GET operations.
@@ -13,10 +16,7 @@ import static org.hamcrest.Matchers.*;
 @Epic("JSONPlaceholder API Testing") // High-level categorization for Allure reports
 @Feature("GET Operations") // Defines that this class focuses on GET requests
 @TestInstance(TestInstance.Lifecycle.PER_CLASS) // Uses a single test instance for the entire class
-public class JSONPlaceholderGet {
-
-    // Base URL for JSONPlaceholder API
-    private static final String BASE_URL = "https://jsonplaceholder.typicode.com";
+public class JSONPlaceholderGet extends BaseTest {
 
     /**
      * Test to retrieve all posts.
@@ -27,7 +27,7 @@ public class JSONPlaceholderGet {
     @DisplayName("Get all posts") // Descriptive test name
     @Severity(SeverityLevel.CRITICAL) // Marks the test as critical
     public void testGetPosts() {
-        executeGetTest("/posts", "Get All Posts");
+        executeApiTest("Get All Posts", () -> api.posts().list().call(), 200);
     }
 
     /**
@@ -39,7 +39,21 @@ public class JSONPlaceholderGet {
     @DisplayName("Get a single post") // Descriptive test name
     @Severity(SeverityLevel.NORMAL) // Marks the test as normal severity
     public void testGetSinglePost() {
-        executeGetTest("/posts/1", "Get Single Post");
+        executeApiTest("Get Single Post", () -> api.posts().byId().call(1), 200);
+    }
+
+    /**
+     * Test to retrieve every post by its ID, with the requests sent concurrently.
+     * Each response should have status 200 and carry the requested ID.
+     */
+    @Test
+    @Story("Post Details") // Represents the scenario of retrieving a specific post
+    @DisplayName("Get every post concurrently") // Descriptive test name
+    @Severity(SeverityLevel.NORMAL) // Marks the test as normal severity
+    public void testGetEveryPost() {
+        executeFanOutTest("Get Every Post", IntStream.rangeClosed(1, 100).boxed(),
+                id -> api.posts().byId().call(id),
+                200, (id, response) -> response.then().body("id", equalTo(id)).body("userId", notNullValue()));
     }
 
     /**
@@ -51,54 +65,6 @@ public class JSONPlaceholderGet {
     @DisplayName("Get a non-existing post") // Descriptive test name
     @Severity(SeverityLevel.MINOR) // Marks the test as minor severity
     public void testPostNotFound() {
-        executeGetTest("/posts/9999", "Get Non-Existing Post", 404);
-    }
-
-    /**
-     * Helper method to execute a GET request and validate the response.
-     * Defaults to expecting a 200 status code.
-     *
-     * @param endpoint API endpoint for the GET request.
-     * @param testName Descriptive name of the test.
-     */
-    private void executeGetTest(String endpoint, String testName) {
-        executeGetTest(endpoint, testName, 200);
-    }
-
-    /**
-     * Overloaded helper method to execute a GET request, validate the response, and attach results to Allure.
-     *
-     * @param endpoint       API endpoint for the GET request.
-     * @param testName       Descriptive name of the test.
-     * @param expectedStatus Expected HTTP status code.
-     */
-    private void executeGetTest(String endpoint, String testName, int expectedStatus) {
-        Allure.step("Start test: " + testName); // Logs test start in Allure
-
-        // Sends a GET request and validates the response status
-        Response response = given()
-                .when()
-                .get(BASE_URL + endpoint) // Makes the GET request
-                .then()
-                .statusCode(expectedStatus) // Validates the expected status code
-                .extract().response(); // Extracts the response for further validation
-
-        // Attaches request details to Allure report
-        Allure.addAttachment("API Request", "text/plain", "GET " + endpoint);
-        attachResponseDetails(response); // Calls method to log response details
-
-        Allure.step("Finish test: " + testName); // Logs test completion in Allure
-    }
-
-    /**
-     * Helper method to attach API response details to the Allure report.
-     *
-     * @param response Response object from the API call.
-     */
-    private void attachResponseDetails(Response response) {
-        Allure.addAttachment("API Response", "text/plain",
-                "Status Code: " + response.statusCode() + "\n" +
-                        "Headers: " + response.headers() + "\n" +
-                        "Response Body: " + response.getBody().asPrettyString());
+        executeApiTest("Get Non-Existing Post", () -> api.posts().byId().call(9999), 404);
     }
 }
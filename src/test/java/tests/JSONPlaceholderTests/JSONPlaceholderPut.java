@@ -1,21 +1,16 @@
 package tests.JSONPlaceholderTests;
 
+import basetest.BaseTest;
+import com.rafiatu.client.model.Post;
 import io.qameta.allure.*;
-import io.restassured.http.ContentType;
-import io.restassured.response.Response;
-import org.json.JSONObject;
 import org.junit.jupiter.api.*;
 
-import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 
 @Epic("JSONPlaceholder API Testing") // Defines the epic category in Allure reports
 @Feature("PUT Operations") // Specifies that these tests cover PUT operations
 @TestInstance(TestInstance.Lifecycle.PER_CLASS) // Uses a single test instance for the class
-public class JSONPlaceholderPut {
-
-    // Base URL for JSONPlaceholder API
-    private static final String BASE_URL = "https://jsonplaceholder.typicode.com";
+public class JSONPlaceholderPut extends BaseTest {
 
     /**
      * Test to update a post using a PUT request.
@@ -26,8 +21,9 @@ public class JSONPlaceholderPut {
     @DisplayName("Update a post using PUT") // Descriptive name for the test
     @Severity(SeverityLevel.CRITICAL) // Marks the severity level
     public void testUpdatePostUsingPut() {
-        executePutTest("/posts/1", "Update Post",
-                new JSONObject().put("title", "Updated Title").put("body", "Updated Body").put("userId", 1), 200);
+        Post payload = Post.draft(1, "Updated Title", "Updated Body");
+        executeApiTest("Update Post", () -> api.posts().update().callWith(payload, 1),
+                200, echoesPayload(payload));
     }
 
     /**
@@ -39,42 +35,9 @@ public class JSONPlaceholderPut {
     @DisplayName("Update a post with partial data using PUT")
     @Severity(SeverityLevel.NORMAL)
     public void testUpdatePostWithPartialData() {
-        executePutTest("/posts/1", "Update Post with Partial Data",
-                new JSONObject().put("title", "Partially Updated Title"), 200);
-    }
-
-    /**
-     * Helper method to execute a PUT request, validate the response, and log results in Allure.
-     *
-     * @param endpoint       API endpoint for the PUT request.
-     * @param testName       Descriptive name of the test.
-     * @param requestBody    JSON object containing the request payload.
-     * @param expectedStatus Expected HTTP status code.
-     */
-    private void executePutTest(String endpoint, String testName, JSONObject requestBody, int expectedStatus) {
-        Allure.step("Start test: " + testName); // Logs test start in Allure
-        Allure.addAttachment("Request Payload", "application/json", requestBody.toString()); // Attaches request data
-
-        // Sending PUT request and validating response status
-        Response response = given()
-                .contentType(ContentType.JSON)
-                .body(requestBody.toString())
-                .when()
-                .put(BASE_URL + endpoint)
-                .then()
-                .statusCode(expectedStatus) // Verifies the response status
-                .extract().response();
-
-        // Attaching request details to Allure report
-        Allure.addAttachment("API Request", "text/plain", "PUT " + endpoint);
-        attachResponseDetails(response); // Calls helper method to log response details
-
-        // Verifies that each field in the request body is correctly updated in the response
-        requestBody.keySet().forEach(key ->
-                response.then().body(key, equalTo(requestBody.get(key)))
-        );
-
-        Allure.step("Finish test: " + testName); // Logs test completion in Allure
+        Post payload = Post.draft(null, "Partially Updated Title", null);
+        executeApiTest("Update Post with Partial Data", () -> api.posts().update().callWith(payload, 1),
+                200, echoesPayload(payload));
     }
 
     /**
@@ -83,24 +46,9 @@ public class JSONPlaceholderPut {
      */
     @Test
     public void testUpdateNonExistingPost() {
-        given()
-                .header("Content-Type", "application/json") // Sets request content type
-                .body("{\"title\": \"Updated Title\"}") // Partial update payload
-                .when()
-                .put(BASE_URL + "/posts/9999") // Attempts to update a non-existent resource
+        api.posts().update()
+                .callWith("{\"title\": \"Updated Title\"}", 9999) // Partial update of a non-existent resource
                 .then()
                 .statusCode(anyOf(is(200), is(201), is(404), is(500))); // Accepts multiple possible statuses
     }
-
-    /**
-     * Helper method to attach API response details to the Allure report.
-     *
-     * @param response Response object from the API call.
-     */
-    private void attachResponseDetails(Response response) {
-        Allure.addAttachment("API Response", "text/plain",
-                "Status Code: " + response.statusCode() + "\n" +
-                        "Headers: " + response.headers() + "\n" +
-                        "Response Body: " + response.getBody().asPrettyString());
-    }
 }
@@ -0,0 +1,81 @@
+package tests.LoadTests;
+
+import basetest.BaseTest;
+import basetest.load.LoadGenerator;
+import basetest.load.LoadReport;
+import basetest.load.LoadScenario;
+import com.rafiatu.client.ApiCatalog;
+import com.rafiatu.client.model.Post;
+import com.rafiatu.client.model.UserJob;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Puts the calls of the GET/POST/PUT/DELETE test classes under load, built from the same {@link ApiCatalog} templates.
+ * Runs only with the "load" profile, for example:
+ * <pre>
+ * mvn test -Pload -Dapi.target=local -Dload.mode=rate -Dload.rate=200 -Dload.durationSeconds=30
+ * </pre>
+ * Settings: {@code load.mode} (rate|concurrency), {@code load.rate} (requests/s), {@code load.concurrency}
+ * (virtual users), {@code load.durationSeconds}, {@code load.slo.p95Ms} and {@code load.slo.p99Ms}.
+ */
+@Epic("RESTful API Testing")
+@Feature("Load Testing")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ApiLoadTest extends BaseTest {
+
+    @Test
+    @Story("Reqres Load")
+    @DisplayName("Reqres endpoints under load")
+    public void testReqresUnderLoad() {
+        ApiCatalog calls = LoadScenario.catalog(reqresRequestSpec, jsonPlaceholderRequestSpec);
+        runLoad("Reqres", List.of(
+                LoadScenario.of(calls.users().page(), 200, 2),
+                LoadScenario.of(calls.users().byId(), 200, 2),
+                LoadScenario.of(calls.users().byId(), 404, 999),
+                LoadScenario.withPayload(calls.users().create(), new UserJob("Abdul Rehman", "QA Engineer"), 201),
+                LoadScenario.withPayload(calls.users().update(), new UserJob("John Updated", "Software Engineer"), 200, 2),
+                LoadScenario.of(calls.users().delete(), 204, 2)));
+    }
+
+    @Test
+    @Story("JSONPlaceholder Load")
+    @DisplayName("JSONPlaceholder endpoints under load")
+    public void testJsonPlaceholderUnderLoad() {
+        ApiCatalog calls = LoadScenario.catalog(reqresRequestSpec, jsonPlaceholderRequestSpec);
+        runLoad("JSONPlaceholder", List.of(
+                LoadScenario.of(calls.posts().list(), 200),
+                LoadScenario.of(calls.posts().byId(), 200, 1),
+                LoadScenario.of(calls.posts().byId(), 404, 9999),
+                LoadScenario.withPayload(calls.posts().create(), Post.draft(1, "Test Post", "This is a test post."), 201),
+                LoadScenario.withPayload(calls.posts().update(), Post.draft(1, "Updated Title", "Updated Body"), 200, 1),
+                LoadScenario.of(calls.posts().delete(), 200, 1)));
+    }
+
+    /**
+     * Runs the scenarios with the configured mode, attaches the report and checks status codes and SLOs.
+     *
+     * @param apiName   Name used in the report
+     * @param scenarios Request definitions to send
+     */
+    private void runLoad(String apiName, List<LoadScenario> scenarios) {
+        Duration duration = Duration.ofSeconds(Long.getLong("load.durationSeconds", 10));
+        LoadGenerator generator = "concurrency".equalsIgnoreCase(System.getProperty("load.mode", "rate"))
+                ? LoadGenerator.fixedConcurrency(scenarios, Integer.getInteger("load.concurrency", 16), duration)
+                : LoadGenerator.fixedRate(scenarios, Integer.getInteger("load.rate", 50), duration);
+
+        Allure.step("Start load: " + apiName);
+        LoadReport report = generator.run();
+        System.out.println("[load] " + apiName + " (" + report.elapsed().toMillis() + " ms)\n" + report.summary());
+        attachments.attach(apiName + " Load Report", "text/plain", report.summary());
+
+        report.assertStatusCodes();
+        report.assertLatency(95, Duration.ofMillis(Long.getLong("load.slo.p95Ms", 500)));
+        report.assertLatency(99, Duration.ofMillis(Long.getLong("load.slo.p99Ms", 1000)));
+        Allure.step("Finish load: " + apiName);
+    }
+}
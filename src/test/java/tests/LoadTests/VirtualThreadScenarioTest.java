@@ -0,0 +1,81 @@
+package tests.LoadTests;
+
+import basetest.BaseTest;
+import com.rafiatu.VirtualThreadRunner;
+import com.rafiatu.client.ApiCatalog;
+import com.rafiatu.client.ApiClient;
+import com.rafiatu.client.RequestTemplate;
+import com.rafiatu.client.model.Post;
+import com.rafiatu.client.model.UserJob;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the GET/POST/PUT/DELETE scenarios of the functional tests tens of thousands of times at once, one virtual
+ * thread per scenario, and reports any virtual threads pinned to their carriers along the way.
+ * Runs only with the "load" profile, for example:
+ * <pre>
+ * mvn test -Pload -Dapi.target=local -Dtest=VirtualThreadScenarioTest -Dvthreads.scenarios=50000
+ * </pre>
+ * Settings: {@code vthreads.scenarios} (default 20000), {@code vthreads.maxConcurrency} (scenarios running at once,
+ * default all of them), {@code vthreads.pinningThresholdMs} (default 5) and {@code vthreads.failOnPinning} (default
+ * false: pinning is reported, not failed). The per-host in-flight limit and the connection pool still bound the
+ * requests on the wire; the scenarios beyond them wait parked, without holding a carrier.
+ */
+@Epic("RESTful API Testing")
+@Feature("Load Testing")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class VirtualThreadScenarioTest extends BaseTest {
+
+    @Test
+    @Story("Virtual Threads")
+    @DisplayName("Every API scenario on its own virtual thread")
+    public void testScenariosOnVirtualThreads() {
+        // Plain clients: one Allure attachment per call would dominate a run of this size
+        ApiCatalog calls = new ApiCatalog(new ApiClient(reqresRequestSpec), new ApiClient(jsonPlaceholderRequestSpec));
+        UserJob user = new UserJob("Abdul Rehman", "QA Engineer");
+        Post post = Post.draft(1, "Updated Title", "Updated Body");
+        List<VirtualThreadRunner.Scenario> scenarios = List.of(
+                scenario(calls.users().page(), () -> calls.users().page().call(2), 200),
+                scenario(calls.users().byId(), () -> calls.users().byId().call(2), 200),
+                scenario(calls.users().create(), () -> calls.users().create().callWith(user), 201),
+                scenario(calls.users().delete(), () -> calls.users().delete().call(2), 204),
+                scenario(calls.posts().byId(), () -> calls.posts().byId().call(1), 200),
+                scenario(calls.posts().update(), () -> calls.posts().update().callWith(post, 1), 200));
+
+        int count = Integer.getInteger("vthreads.scenarios", 20_000);
+        VirtualThreadRunner runner = new VirtualThreadRunner(Integer.getInteger("vthreads.maxConcurrency", count),
+                Duration.ofMillis(Long.getLong("vthreads.pinningThresholdMs", 5)));
+
+        Allure.step("Start " + count + " scenarios on virtual threads");
+        VirtualThreadRunner.Report report = runner.run(IntStream.range(0, count).mapToObj(i -> scenarios.get(i % scenarios.size())));
+        System.out.println("[vthreads] " + report.summary());
+        attachments.attach("Virtual Thread Report", "text/plain", report.summary());
+
+        report.assertPassed();
+        if (Boolean.getBoolean("vthreads.failOnPinning")) {
+            report.assertNotPinned();
+        }
+        Allure.step("Finish " + count + " scenarios on virtual threads");
+    }
+
+    /**
+     * @return A scenario named after the template, e.g. "GET /users/{id}", that sends the call, checks the status
+     * code and reads the body, so the pooled connection is handed back
+     */
+    private static VirtualThreadRunner.Scenario scenario(RequestTemplate template, Supplier<Response> call,
+                                                         int expectedStatus) {
+        return new VirtualThreadRunner.Scenario(template.method() + " " + template.endpoint(), () -> {
+            Response response = call.get();
+            response.asByteArray();
+            response.then().statusCode(expectedStatus);
+        });
+    }
+}
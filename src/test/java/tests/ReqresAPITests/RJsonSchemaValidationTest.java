@@ -1,24 +1,22 @@
 package tests.ReqresAPITests;
 
+import basetest.BaseTest;
+import basetest.body.ResponseBody;
+import basetest.schema.SchemaRegistry;
+import basetest.schema.StreamingValidationReport;
 import io.qameta.allure.*;
-import io.restassured.module.jsv.JsonSchemaValidator;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-import java.io.File;
-
-import static io.restassured.RestAssured.given;
+import java.util.function.Consumer;
 
 @Epic("RESTful API Testing")  // Defines a high-level epic for test categorization
 @Feature("JSON Schema Validation")  // Specifies that this test class focuses on schema validation
-public class RJsonSchemaValidationTest {
-
-    // Base URL for the Reqres API
-    private static final String BASE_URL = "https://reqres.in/api";
+public class RJsonSchemaValidationTest extends BaseTest {
 
-    // Path to the folder where JSON schema files are stored
-    private static final String SCHEMA_PATH = "src/test/resources/schemas/";
+    // Compiled schemas, loaded once from the classpath and shared by all tests
+    private static final SchemaRegistry SCHEMAS = SchemaRegistry.getInstance();
 
     @Test
     @Story("Schema Validation")  // Groups the test under the "Schema Validation" category
@@ -26,7 +24,8 @@ public class RJsonSchemaValidationTest {
     @Severity(SeverityLevel.CRITICAL)  // Marks the test with a severity level
     public void testSingleUserJsonSchema() {
         // Calls the reusable method to validate the schema for a single user
-        executeSchemaValidationTest("/users/2", "Rsingle-user-schema.json", "Validate Single User Schema");
+        executeApiTest("Validate Single User Schema", () -> api.users().byId().call(2), 200,
+                matchesSchema("Rsingle-user-schema.json"));
     }
 
     @Test
@@ -34,55 +33,26 @@ public class RJsonSchemaValidationTest {
     @DisplayName("Validate User List JSON Schema")
     @Severity(SeverityLevel.NORMAL)
     public void testUserListJsonSchema() {
-        // Calls the reusable method to validate the schema for a list of users
-        executeSchemaValidationTest("/users?page=2", "RUser-list-schema.json", "Validate User List Schema");
-    }
-
-    /**
-     * Executes a schema validation test for a given API endpoint.
-     *
-     * @param endpoint      The API endpoint to test
-     * @param schemaFileName The name of the JSON schema file
-     * @param testName      A descriptive name for the test (for logging purposes)
-     */
-    private void executeSchemaValidationTest(String endpoint, String schemaFileName, String testName) {
-        // Log the start of the test in Allure reporting
-        Allure.step("Start test: " + testName);
-
-        // Send a GET request to the specified endpoint and extract the response
-        Response response = given()
-                .when()
-                .get(BASE_URL + endpoint)
-                .then()
-                .statusCode(200)  // Ensure the response status is 200 OK
-                .extract().response();
-
-        // Attach API request details to the Allure report
-        Allure.addAttachment("API Request", "text/plain", "GET " + endpoint);
-        attachResponseDetails(response);  // Log response details
-
-        // Load the expected JSON schema file
-        File schemaFile = new File(SCHEMA_PATH + schemaFileName);
-
-        // Attach schema file path to the Allure report
-        Allure.addAttachment("JSON Schema", "text/plain", schemaFile.getAbsolutePath());
-
-        // Validate that the response body matches the expected JSON schema
-        response.then().body(JsonSchemaValidator.matchesJsonSchema(schemaFile));
-
-        // Log the completion of the test in Allure
-        Allure.step("Finish test: " + testName);
+        // Validates the list item by item while it is read, so long pages never have to be buffered
+        executeApiTest("Validate User List Schema", () -> api.users().page().call(2), 200,
+                matchesSchemaWhileStreaming("RUser-list-schema.json"));
     }
 
     /**
-     * Attaches API response details to the Allure report for better debugging.
-     *
-     * @param response The API response to log
+     * @param schemaFileName The name of the JSON list schema file
+     * @return A check that validates a list response item by item as the body streams in
      */
-    private void attachResponseDetails(Response response) {
-        Allure.addAttachment("API Response", "text/plain",
-                "Status Code: " + response.statusCode() + "\n" +
-                "Headers: " + response.headers() + "\n" +
-                "Response Body: " + response.getBody().asPrettyString());
+    private static Consumer<Response> matchesSchemaWhileStreaming(String schemaFileName) {
+        return response -> {
+            // Attach the schema location to the Allure report
+            attachments.attach("JSON Schema", "text/plain", SchemaRegistry.SCHEMA_DIRECTORY + "/" + schemaFileName);
+
+            // Stream the shared copy of the body through the parser, validating one list item at a time against the
+            // item sub-schema; the copy is still there for the failure attachments
+            StreamingValidationReport report = SCHEMAS.streamingValidator(schemaFileName)
+                    .validate(ResponseBody.of(response).openStream(), response);
+            Allure.step(report.toString());
+            report.assertValid();
+        };
     }
 }